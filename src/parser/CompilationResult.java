@@ -0,0 +1,66 @@
+package parser;
+
+import java.util.*;
+
+/**
+ * Objects of this class hold the outcome of compiling a Minijava program by
+ * a MiniJavaCompiler: the Jasmin code of its classes, kept in memory, and
+ * the errors found. The code is only delivered if no errors have been
+ * found. The objects are immutable.
+ */
+public final class CompilationResult {
+
+    /**
+     * name of the main class, null if the program could not be parsed
+     */
+    private final String mainClassName;
+
+    /**
+     * Jasmin code of the classes by their names, in the order of the source
+     */
+    private final Map<String, String> classes;
+
+    /**
+     * errors found, each prefixed with its kind like by MiniJavaParser.main
+     */
+    private final List<String> diagnostics;
+
+    CompilationResult(String mainClassName, Map<String, String> classes,
+            List<String> diagnostics) {
+        this.mainClassName = mainClassName;
+        this.classes = Collections.unmodifiableMap(classes);
+        this.diagnostics = Collections.unmodifiableList(
+                new ArrayList<String>(diagnostics));
+    }
+
+    /**
+     * tells whether the program has been compiled without errors.
+     */
+    public boolean isSuccessful() {
+        return diagnostics.isEmpty();
+    }
+
+    /**
+     * returns the errors found in the order of the source, an empty list if
+     * the compilation was successful.
+     */
+    public List<String> getDiagnostics() {
+        return diagnostics;
+    }
+
+    /**
+     * returns the name of the main class, null if the program could not be
+     * parsed.
+     */
+    public String getMainClassName() {
+        return mainClassName;
+    }
+
+    /**
+     * returns the Jasmin code of the classes by the names of the classes, in
+     * the order of the source; the map is empty if errors have been found.
+     */
+    public Map<String, String> getClasses() {
+        return classes;
+    }
+}
@@ -0,0 +1,118 @@
+package parser;
+
+import java.io.*;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Thin client of the CompileServer: it hands its arguments, which are
+ * those of MiniJavaParser.main, to the server and prints the answer like
+ * MiniJavaParser.main would have printed it. If no server is listening,
+ * the program is compiled by MiniJavaParser.main in the calling process.
+ *
+ * The client does not exit the virtual machine, so build tools may run it
+ * within their own (e.g. Ant's java task with fork="false"), which saves
+ * the start of a virtual machine per program. Options of the client
+ * preceding the arguments:
+ *   -socket path  path of the socket of the server (default
+ *           CompileServer.DEFAULT_SOCKET)
+ *   -list   prints the paths of the files written by the server
+ * The single argument -shutdown stops the server. An answer cut off by a
+ * server that stopped or died is reported as server error.
+ */
+public class CompileClient {
+
+    public static void main(String[] args) {
+
+        String socket = CompileServer.DEFAULT_SOCKET;
+        boolean list = false;
+        int argNo = 0;
+        for (; argNo < args.length; argNo++) {
+            if (args[argNo].equals("-socket") && argNo + 1 < args.length) {
+                socket = args[++argNo];
+            } else if (args[argNo].equals("-list")) {
+                list = true;
+            } else {
+                break;
+            }
+        }
+        String[] request = Arrays.copyOfRange(args, argNo, args.length);
+
+        SocketChannel server;
+        try {
+            server = SocketChannel.open(StandardProtocolFamily.UNIX);
+            try {
+                server.connect(UnixDomainSocketAddress.of(socket));
+            } catch (IOException e) {
+                server.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            if (request.length == 1
+                    && request[0].equals(CompileServer.SHUTDOWN)) {
+                System.out.println("Compile server not running");
+            } else {
+                MiniJavaParser.main(request);
+            }
+            return;
+        }
+
+        try {
+            try {
+                send(server, request);
+                BufferedReader answer = new BufferedReader(Channels.newReader(
+                        server, CompileServer.UTF_8.newDecoder(), -1));
+                boolean complete = false;
+                String line;
+                while ((line = answer.readLine()) != null) {
+                    if (line.equals(CompileServer.END_OF_ANSWER)) {
+                        complete = true;
+                    } else if (line.startsWith(
+                            CompileServer.OUTPUT_PREFIX)) {
+                        System.out.println(line.substring(
+                                CompileServer.OUTPUT_PREFIX.length()));
+                    } else if (list && line.startsWith(
+                            CompileServer.FILE_PREFIX)) {
+                        System.out.println("Written: " + line.substring(
+                                CompileServer.FILE_PREFIX.length()));
+                    }
+                }
+                if (!complete) {
+                    System.out.println("Server Error : \n"
+                            + "the answer of the server is incomplete");
+                }
+            } finally {
+                server.close();
+            }
+        } catch (IOException e) {
+            System.out.println("Server Error : \n" + e.toString());
+        }
+    }
+
+    /**
+     * sends the given arguments as request, one per line. Arguments which
+     * are not options are taken as paths and made absolute.
+     */
+    private static void send(SocketChannel server, String[] request)
+            throws IOException {
+
+        StringBuilder text = new StringBuilder();
+        for (String arg : request) {
+            if (!arg.startsWith("-")) {
+                arg = Paths.get(arg).toAbsolutePath().toString();
+            }
+            text.append(arg).append('\n');
+        }
+        text.append('\n');
+
+        ByteBuffer bytes = CompileServer.UTF_8.encode(text.toString());
+        while (bytes.hasRemaining()) {
+            server.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package parser;
+
+import java.io.*;
+import java.lang.reflect.Method;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.Charset;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import visitor.JarOutput;
+import visitor.JasminDirectory;
+import visitor.JasminOutput;
+import visitor.JasminOutputException;
+
+/**
+ * Objects of this class compile Minijava programs on request of clients
+ * connecting to a Unix domain socket (see CompileClient). The server runs
+ * as long-lived process, so the classes of the compiler are loaded and
+ * compiled by the JIT only once rather than by a new virtual machine per
+ * program, and the compilations share the pool of a MiniJavaCompiler.
+ *
+ * Each connection carries a single request: the arguments of a call of
+ * MiniJavaParser.main, one per line, followed by an empty line, with the
+ * paths absolute as the server does not share the working directory of the
+ * client. The server answers with the lines the call would have printed,
+ * each prefixed with "> ", and the paths of the files written, each
+ * prefixed with "+ ", followed by the line "." ending the answer, and
+ * closes the connection; an answer without it has been cut off. The single
+ * argument -shutdown stops the server.
+ *
+ * Programs are compiled like with the options -mmap -fast -fused; these and
+ * the other options not changing the output are accepted and ignored,
+ * -jar and -stored are obeyed, -trace and -timing are rejected.
+ *
+ * Requests are handled by a virtual thread each if the virtual machine
+ * provides them (Java 21 or later), otherwise by a pool of threads.
+ */
+public class CompileServer {
+
+    /**
+     * path of the socket if none is given
+     */
+    public static final String DEFAULT_SOCKET =
+            System.getProperty("java.io.tmpdir") + File.separator
+            + "minijava-" + System.getProperty("user.name") + ".sock";
+
+    /**
+     * argument of the request stopping the server
+     */
+    static final String SHUTDOWN = "-shutdown";
+
+    /**
+     * prefixes of the lines of an answer
+     */
+    static final String OUTPUT_PREFIX = "> ";
+    static final String FILE_PREFIX = "+ ";
+
+    /**
+     * last line of a complete answer
+     */
+    static final String END_OF_ANSWER = ".";
+
+    /**
+     * encoding of the requests and answers
+     */
+    static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * encoding of the Jasmin code, see JasminOutput
+     */
+    private static final Charset LATIN_1 = Charset.forName("ISO-8859-1");
+
+    /**
+     * options of MiniJavaParser.main not changing the files written
+     */
+    private static final Set<String> IGNORED_OPTIONS =
+            new HashSet<String>(Arrays.asList("-mmap", "-fast", "-arena",
+                    "-lazy", "-parallel", "-fused", "-stream"));
+
+    private final Path socket;
+
+    private final MiniJavaCompiler compiler = new MiniJavaCompiler();
+
+    private ServerSocketChannel server;
+
+    /**
+     * starts a server listening on the socket given by the first argument,
+     * or on DEFAULT_SOCKET. A socket file left by a previous server is
+     * replaced.
+     */
+    public static void main(String[] args) {
+
+        String socket = (args.length > 0) ? args[0] : DEFAULT_SOCKET;
+        try {
+            new CompileServer(Paths.get(socket)).run();
+        } catch (IOException e) {
+            System.out.println("File Error : \n" + e.toString());
+        }
+    }
+
+    /**
+     * creates a server for the given socket.
+     *
+     * @param socket path of the Unix domain socket
+     */
+    public CompileServer(Path socket) {
+        this.socket = socket;
+    }
+
+    /**
+     * binds the socket and handles requests until a client stops the
+     * server. The requests accepted are completed before the method
+     * returns, as the threads handling them do not keep the virtual machine
+     * alive; the socket file is deleted afterwards.
+     *
+     * @throws IOException if the socket cannot be bound
+     */
+    public void run() throws IOException {
+
+        Files.deleteIfExists(socket);
+        synchronized (this) {
+            server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        }
+        ExecutorService handlers = newHandlerExecutor();
+        try {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            System.out.println("Compile server listening on " + socket);
+
+            while (true) {
+                final SocketChannel client;
+                try {
+                    client = server.accept();
+                } catch (ClosedChannelException e) {
+                    /* stopped by a client */
+                    break;
+                }
+                handlers.execute(new Runnable() {
+                    public void run() {
+                        handle(client);
+                    }
+                });
+            }
+        } finally {
+            server.close();
+            handlers.shutdown();
+            awaitTermination(handlers);
+            Files.deleteIfExists(socket);
+        }
+    }
+
+    /**
+     * stops the server: no further requests are accepted, the requests
+     * accepted are completed.
+     */
+    public synchronized void stop() throws IOException {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    /* ========================================================================
+     * requests
+     * ===================================================================== */
+
+    /**
+     * reads the request of the given client and answers it.
+     */
+    private void handle(SocketChannel client) {
+
+        try {
+            try {
+                BufferedReader in = new BufferedReader(
+                        Channels.newReader(client, UTF_8.newDecoder(), -1));
+                List<String> args = new ArrayList<String>();
+                String line;
+                while ((line = in.readLine()) != null && !line.isEmpty()) {
+                    args.add(line);
+                }
+
+                Answer answer = new Answer();
+                if (args.size() == 1 && args.get(0).equals(SHUTDOWN)) {
+                    answer.println("Compile server stopped");
+                    this.stop();
+                } else {
+                    this.compile(args, answer);
+                }
+                answer.send(client);
+            } finally {
+                client.close();
+            }
+        } catch (IOException e) {
+            /* the client has gone, nobody is left to be told */
+        }
+    }
+
+    /**
+     * compiles the program given by the arguments of a request like
+     * MiniJavaParser.main and records its messages and the files written
+     * in the given answer.
+     */
+    private void compile(List<String> args, Answer answer) {
+
+        boolean jar = false;
+        boolean stored = false;
+        int argNo = 0;
+        for (; argNo < args.size() && args.get(argNo).startsWith("-");
+                argNo++) {
+            String option = args.get(argNo);
+            if (option.equals("-jar")) {
+                jar = true;
+            } else if (option.equals("-stored")) {
+                jar = true;
+                stored = true;
+            } else if (!IGNORED_OPTIONS.contains(option)) {
+                answer.println("Option " + option
+                        + " is not supported by the compile server");
+                return;
+            }
+        }
+        if (argNo >= args.size()) {
+            answer.println("Usage: [options] source [target]");
+            return;
+        }
+        String sourceFilename = args.get(argNo);
+        String target = (args.size() > argNo + 1) ? args.get(argNo + 1) : null;
+
+        try {
+            CompilationResult result =
+                    compiler.compile(Paths.get(sourceFilename));
+            if (result.getMainClassName() == null) {
+                for (String diagnostic : result.getDiagnostics()) {
+                    answer.println(diagnostic);
+                }
+                return;
+            }
+            answer.println("Syntactical analysis successful");
+            if (target == null) {
+                return;
+            }
+
+            JasminOutput output = jar
+                    ? new JarOutput(target, result.getMainClassName(), stored)
+                    : new JasminDirectory(target);
+            try {
+                for (Map.Entry<String, String> generated
+                        : result.getClasses().entrySet()) {
+                    output.writeClass(generated.getKey(), ByteBuffer.wrap(
+                            generated.getValue().getBytes(LATIN_1)));
+                    if (!jar) {
+                        answer.file(target + File.separator
+                                + generated.getKey() + ".j");
+                    }
+                }
+            } finally {
+                output.close();
+            }
+            if (jar) {
+                answer.file(target);
+            }
+            for (String diagnostic : result.getDiagnostics()) {
+                answer.println(diagnostic);
+            }
+        } catch (IOException e) {
+            answer.println("File Error : \n" + e.toString());
+        } catch (JasminOutputException e) {
+            answer.println("File Error : \n"
+                    + e.getIOException().toString());
+        } catch (RuntimeException e) {
+            /* the compiler includes no error handling, the server goes on */
+            answer.println("Internal Error : \n" + e.toString());
+        }
+    }
+
+    /**
+     * Objects of this class collect the lines of an answer.
+     */
+    private static final class Answer {
+
+        private final StringBuilder text = new StringBuilder();
+
+        /**
+         * adds the given message, which may span several lines.
+         */
+        void println(String message) {
+            for (String line : message.split("\r?\n", -1)) {
+                text.append(OUTPUT_PREFIX).append(line).append('\n');
+            }
+        }
+
+        /**
+         * adds the path of a file written.
+         */
+        void file(String path) {
+            text.append(FILE_PREFIX).append(path).append('\n');
+        }
+
+        /**
+         * writes the answer to the given client, ended by END_OF_ANSWER.
+         */
+        void send(SocketChannel client) throws IOException {
+            text.append(END_OF_ANSWER).append('\n');
+            ByteBuffer bytes = UTF_8.encode(text.toString());
+            while (bytes.hasRemaining()) {
+                client.write(bytes);
+            }
+        }
+    }
+
+    /* ========================================================================
+     * helper methods
+     * ===================================================================== */
+
+    /**
+     * waits until the given executor, which has been shut down, has
+     * completed its tasks. If the thread is interrupted, it stops waiting
+     * and keeps the interrupt.
+     */
+    private static void awaitTermination(ExecutorService executor) {
+
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                /* a compilation of a large program may take longer */
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * returns an executor starting a virtual thread per request if the
+     * virtual machine provides virtual threads, otherwise a pool of daemon
+     * threads. The former is looked up by reflection, so the server also
+     * runs on virtual machines before Java 21.
+     */
+    private static ExecutorService newHandlerExecutor() {
+
+        try {
+            Method factory = Executors.class.getMethod(
+                    "newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(new ThreadFactory() {
+                public Thread newThread(Runnable task) {
+                    Thread thread = new Thread(task, "compile-request");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+    }
+}
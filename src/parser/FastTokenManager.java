@@ -0,0 +1,592 @@
+package parser;
+
+import java.util.Arrays;
+
+/**
+ * Objects of this class are hand-written token managers for Minijava that
+ * can be used instead of the token manager generated by JavaCC, e.g.
+ *
+ *   new MiniJavaParser(new FastTokenManager(MappedCharStream.map(filename)))
+ *
+ * The scanner is table-driven: each character is mapped to a character class
+ * by a lookup table, and the class decides which token is recognized.
+ * Keywords are scanned as identifiers first and then looked up by a perfect
+ * hash over their length and their first and last characters. Comments and
+ * white space are skipped without creating tokens. Lexical errors are
+ * reported with the same message as by the generated token manager; like
+ * there, a single line comment must be ended by a line terminator.
+ *
+ * Tokens are created as SourceTokens holding the offsets of their first and
+ * last character. The images of keywords and operators are shared constants.
+ * The images of identifiers and integer literals are looked up in a table of
+ * spellings, so a string is created once for each distinct spelling instead
+ * of once for each token.
+ */
+public class FastTokenManager extends MiniJavaParserTokenManager {
+
+    /* ========================================================================
+     * character classes
+     * ===================================================================== */
+
+    private static final byte OTHER = 0;
+    private static final byte LETTER = 1;
+    private static final byte DIGIT = 2;
+    private static final byte UNDERSCORE = 3;
+    private static final byte BLANK = 4;
+    private static final byte SLASH = 5;
+    private static final byte AMPERSAND = 6;
+    private static final byte SINGLE = 7;
+
+    /**
+     * character class of each ASCII character, all other characters belong
+     * to class OTHER
+     */
+    private static final byte[] CHAR_CLASS = new byte[128];
+
+    /**
+     * token kind of each character that forms a token on its own
+     */
+    private static final int[] SINGLE_KIND = new int[128];
+
+    /**
+     * images of all tokens with a fixed image (keywords, operators)
+     */
+    private static final String[] IMAGES = new String[tokenImage.length];
+
+    /* ========================================================================
+     * perfect hash for keywords
+     * ===================================================================== */
+
+    private static final int KEYWORD_TABLE_SIZE = 64;
+
+    /**
+     * keywords by hash value
+     */
+    private static final String[] KEYWORDS = new String[KEYWORD_TABLE_SIZE];
+
+    /**
+     * token kinds of the keywords by hash value
+     */
+    private static final int[] KEYWORD_KINDS = new int[KEYWORD_TABLE_SIZE];
+
+    /**
+     * "System" does not form a token of its own but starts the keyword
+     * "System.out.println"
+     */
+    private static final String PRINT_PREFIX = "System";
+    private static final String PRINT_SUFFIX = ".out.println";
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            CHAR_CLASS[c] = LETTER;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            CHAR_CLASS[c] = LETTER;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            CHAR_CLASS[c] = DIGIT;
+        }
+        CHAR_CLASS['_'] = UNDERSCORE;
+        CHAR_CLASS[' '] = BLANK;
+        CHAR_CLASS['\t'] = BLANK;
+        CHAR_CLASS['\n'] = BLANK;
+        CHAR_CLASS['\r'] = BLANK;
+        CHAR_CLASS['\f'] = BLANK;
+        CHAR_CLASS['/'] = SLASH;
+        CHAR_CLASS['&'] = AMPERSAND;
+
+        for (int kind = 0; kind < tokenImage.length; kind++) {
+            String image = tokenImage[kind];
+
+            if (image.charAt(0) != '"') {
+                continue;
+            }
+            image = image.substring(1, image.length() - 1);
+            IMAGES[kind] = image;
+
+            if (kind <= MULTI_LINE_COMMENT) {
+                /* white space and comments are skipped */
+            } else if (image.length() == 1) {
+                CHAR_CLASS[image.charAt(0)] = SINGLE;
+                SINGLE_KIND[image.charAt(0)] = kind;
+            } else if (CHAR_CLASS[image.charAt(0)] == LETTER) {
+                putKeyword(kind == PRINT ? PRINT_PREFIX : image, kind);
+            }
+        }
+    }
+
+    /**
+     * enters the given keyword into the perfect hash table.
+     */
+    private static void putKeyword(String keyword, int kind) {
+
+        int hash = hash(keyword.length(), keyword.charAt(0),
+                keyword.charAt(keyword.length() - 1));
+
+        if (KEYWORDS[hash] != null) {
+            throw new IllegalStateException("hash of keyword " + keyword
+                    + " collides with " + KEYWORDS[hash]);
+        }
+        KEYWORDS[hash] = keyword;
+        KEYWORD_KINDS[hash] = kind;
+    }
+
+    /**
+     * perfect hash function for the keywords of Minijava.
+     */
+    private static int hash(int length, char first, char last) {
+        return (length + first + 3 * last) & (KEYWORD_TABLE_SIZE - 1);
+    }
+
+    /* ========================================================================
+     * state of the scanner
+     * ===================================================================== */
+
+    /**
+     * source to be scanned
+     */
+    private MappedCharStream source;
+
+    /**
+     * number of characters of the source
+     */
+    private int length;
+
+    /**
+     * offset of the next character to be scanned
+     */
+    private int pos;
+
+    /**
+     * table of spellings of identifiers and integer literals (open
+     * addressing, the size is a power of two)
+     */
+    private String[] spellings;
+
+    /**
+     * number of entries of the table of spellings
+     */
+    private int spellingCount;
+
+    /**
+     * creates a new token manager for the given source.
+     *
+     * @param source source of a Minijava program
+     */
+    public FastTokenManager(MappedCharStream source) {
+        super(source);
+        this.spellings = new String[256];
+        init(source);
+    }
+
+    /**
+     * creates a new token manager for the characters of the given source
+     * between the offsets begin (inclusive) and end (exclusive). The end of
+     * the range is taken as end of the source.
+     *
+     * @param source source of a Minijava program
+     * @param begin offset of the first character to be scanned
+     * @param end offset following the last character to be scanned
+     */
+    public FastTokenManager(MappedCharStream source, int begin, int end) {
+        this(source);
+        this.pos = begin;
+        this.length = end;
+    }
+
+    /**
+     * returns the source scanned by this token manager.
+     */
+    public MappedCharStream getSource() {
+        return source;
+    }
+
+    /**
+     * reinitialises the token manager with a new source. The table of
+     * spellings is emptied, so the spellings of earlier sources are not
+     * kept alive; its array is reused.
+     *
+     * @param source source of a Minijava program
+     */
+    public void ReInit(MappedCharStream source) {
+        super.ReInit(source);
+        Arrays.fill(spellings, null);
+        spellingCount = 0;
+        init(source);
+    }
+
+    private void init(MappedCharStream source) {
+        this.source = source;
+        this.length = source.length();
+        this.pos = 0;
+    }
+
+    /* ========================================================================
+     * scanner
+     * ===================================================================== */
+
+    /**
+     * returns the next token of the source.
+     */
+    @Override
+    public Token getNextToken() {
+
+        skipBlanksAndComments();
+
+        Token token;
+        if (pos >= length) {
+            token = newToken(EOF, pos, pos, "");
+        } else {
+            token = scanToken();
+        }
+
+        CommonTokenAction(token);
+        return token;
+    }
+
+    /**
+     * skips the characters up to the closing brace of a block without
+     * creating tokens. Braces within comments are not counted. The next
+     * token scanned is the closing brace, or EOF if the block is not closed.
+     *
+     * @param depth number of braces opened within the block so far
+     * @return number of braces still open, 0 unless the block is not closed
+     */
+    public int skipToClosingBrace(int depth) {
+
+        while (true) {
+            skipBlanksAndComments();
+            if (pos >= length) {
+                return depth;
+            }
+            char c = source.charAt(pos);
+            if (c == '}') {
+                if (depth == 0) {
+                    return depth;
+                }
+                depth--;
+            } else if (c == '{') {
+                depth++;
+            }
+            pos++;
+        }
+    }
+
+    /**
+     * skips the characters up to and including the brace that closes the
+     * next block without creating tokens. A closing brace without an opening
+     * one ends the block, too. Braces within comments are not counted.
+     *
+     * @return offset following the closing brace, the end of the source if
+     *         the block is not closed
+     */
+    public int skipBlock() {
+
+        int depth = 0;
+        while (true) {
+            skipBlanksAndComments();
+            if (pos >= length) {
+                return pos;
+            }
+            char c = source.charAt(pos++);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth <= 0) {
+                return pos;
+            }
+        }
+    }
+
+    /**
+     * skips white space and comments and checks if a token follows.
+     */
+    public boolean hasMoreTokens() {
+        skipBlanksAndComments();
+        return pos < length;
+    }
+
+    /**
+     * skips white space and comments up to the begin of the next token.
+     */
+    private void skipBlanksAndComments() {
+
+        while (pos < length) {
+            char c = source.charAt(pos);
+
+            if (c < 128 && CHAR_CLASS[c] == BLANK) {
+                pos++;
+
+            } else if (c == '/' && pos + 1 < length
+                    && source.charAt(pos + 1) == '/') {
+
+                /* single line comment, ended by a line terminator */
+                int begin = pos;
+                pos += 2;
+                while (pos < length && source.charAt(pos) != '\n'
+                        && source.charAt(pos) != '\r') {
+                    pos++;
+                }
+                if (pos >= length) {
+                    throw lexicalError(begin, length - 1);
+                }
+
+            } else if (c == '/' && pos + 1 < length
+                    && source.charAt(pos + 1) == '*') {
+
+                /* multi line and formal comment */
+                int begin = pos;
+                pos += 2;
+                while (pos + 1 < length && !(source.charAt(pos) == '*'
+                        && source.charAt(pos + 1) == '/')) {
+                    pos++;
+                }
+                if (pos + 1 >= length) {
+                    throw lexicalError(begin, length - 1);
+                }
+                pos += 2;
+
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * scans the token starting at the current position.
+     */
+    private Token scanToken() {
+
+        int begin = pos;
+        char c = source.charAt(pos);
+        byte charClass = (c < 128) ? CHAR_CLASS[c] : OTHER;
+
+        switch (charClass) {
+
+            case LETTER:
+                return scanWord(begin);
+
+            case DIGIT:
+                pos++;
+                if (c != '0') {
+                    while (pos < length && isDigit(source.charAt(pos))) {
+                        pos++;
+                    }
+                }
+                return newToken(INTEGER_LITERAL, begin, pos, spelling(begin, pos));
+
+            case SINGLE:
+                pos++;
+                return newToken(SINGLE_KIND[c], begin, pos, null);
+
+            case AMPERSAND:
+                if (pos + 1 < length && source.charAt(pos + 1) == '&') {
+                    pos += 2;
+                    return newToken(AND, begin, pos, null);
+                }
+                throw lexicalError(begin, Math.min(begin + 1, length - 1));
+
+            case SLASH:
+                /* a slash starting no comment */
+                throw lexicalError(begin, Math.min(begin + 1, length - 1));
+
+            default:
+                throw lexicalError(begin, begin);
+        }
+    }
+
+    /**
+     * scans an identifier or a keyword.
+     */
+    private Token scanWord(int begin) {
+
+        pos++;
+        while (pos < length) {
+            char c = source.charAt(pos);
+            if (c >= 128 || CHAR_CLASS[c] == OTHER || CHAR_CLASS[c] > UNDERSCORE) {
+                break;
+            }
+            pos++;
+        }
+
+        int kind = keywordKind(begin, pos);
+
+        if (kind == PRINT) {
+            if (matches(pos, PRINT_SUFFIX)) {
+                pos += PRINT_SUFFIX.length();
+                return newToken(PRINT, begin, pos, null);
+            }
+        } else if (kind >= 0) {
+            return newToken(kind, begin, pos, null);
+        }
+
+        return newToken(IDENTIFIER, begin, pos, spelling(begin, pos));
+    }
+
+    /**
+     * returns the token kind of the keyword between begin and end, -1 if
+     * the characters do not form a keyword.
+     */
+    private int keywordKind(int begin, int end) {
+
+        int hash = hash(end - begin, source.charAt(begin), source.charAt(end - 1));
+        String keyword = KEYWORDS[hash];
+
+        if (keyword == null || keyword.length() != end - begin) {
+            return -1;
+        }
+        for (int i = 0; i < keyword.length(); i++) {
+            if (source.charAt(begin + i) != keyword.charAt(i)) {
+                return -1;
+            }
+        }
+        return KEYWORD_KINDS[hash];
+    }
+
+    /**
+     * checks if the source continues with the given string at offset.
+     */
+    private boolean matches(int offset, String string) {
+
+        if (offset + string.length() > length) {
+            return false;
+        }
+        for (int i = 0; i < string.length(); i++) {
+            if (source.charAt(offset + i) != string.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /* ========================================================================
+     * tokens and spellings
+     * ===================================================================== */
+
+    /**
+     * creates a new token for the characters between begin and end. If no
+     * image is given, the fixed image of the token kind is used.
+     */
+    private Token newToken(int kind, int begin, int end, String image) {
+
+        SourceToken token = new SourceToken(kind,
+                (image != null) ? image : IMAGES[kind], begin, end);
+
+        int first = charOffset(begin);
+        int last = charOffset((end > begin) ? end - 1 : begin);
+        token.beginLine = source.lineOf(first);
+        token.beginColumn = source.columnOf(first);
+        token.endLine = source.lineOf(last);
+        token.endColumn = source.columnOf(last);
+
+        return token;
+    }
+
+    /**
+     * limits the given offset to the characters of the source, the end of
+     * the source is located at its last character.
+     */
+    private int charOffset(int offset) {
+        return Math.max(Math.min(offset, length - 1), 0);
+    }
+
+    /**
+     * returns the string for the characters between begin and end. Equal
+     * spellings are represented by the same string.
+     */
+    private String spelling(int begin, int end) {
+
+        int hash = 0;
+        for (int i = begin; i < end; i++) {
+            hash = 31 * hash + source.charAt(i);
+        }
+
+        int mask = spellings.length - 1;
+        int index = hash & mask;
+
+        while (spellings[index] != null) {
+            String candidate = spellings[index];
+            if (candidate.hashCode() == hash && equals(candidate, begin, end)) {
+                return candidate;
+            }
+            index = (index + 1) & mask;
+        }
+
+        String spelling = source.substring(begin, end);
+        spellings[index] = spelling;
+        spellingCount++;
+
+        if (2 * spellingCount > spellings.length) {
+            rehash();
+        }
+        return spelling;
+    }
+
+    /**
+     * compares the given string with the characters between begin and end.
+     */
+    private boolean equals(String string, int begin, int end) {
+
+        if (string.length() != end - begin) {
+            return false;
+        }
+        for (int i = begin; i < end; i++) {
+            if (string.charAt(i - begin) != source.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * doubles the size of the table of spellings.
+     */
+    private void rehash() {
+
+        String[] oldSpellings = spellings;
+        spellings = new String[2 * oldSpellings.length];
+        int mask = spellings.length - 1;
+
+        for (String spelling : oldSpellings) {
+            if (spelling != null) {
+                int index = spelling.hashCode() & mask;
+                while (spellings[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                spellings[index] = spelling;
+            }
+        }
+    }
+
+    /**
+     * creates the error for the characters from begin to last, which start
+     * no token, as the generated token manager does: the error is reported
+     * at the last character read, the one no token continues with, or after
+     * it if the source ends there.
+     */
+    private TokenMgrError lexicalError(int begin, int last) {
+
+        char c = source.charAt(last);
+        int line = source.lineOf(last);
+        int column = source.columnOf(last);
+        boolean eofSeen = last + 1 >= length;
+        String errorAfter;
+        if (eofSeen) {
+            if (c == '\n' || c == '\r') {
+                line++;
+                column = 0;
+            } else {
+                column++;
+            }
+            errorAfter = (last > begin)
+                    ? source.substring(begin, last + 1) : "";
+        } else {
+            errorAfter = source.substring(begin, last);
+        }
+        return new TokenMgrError(eofSeen, DEFAULT, line, column, errorAfter, c,
+                TokenMgrError.LEXICAL_ERROR);
+    }
+}
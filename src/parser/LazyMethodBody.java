@@ -0,0 +1,59 @@
+package parser;
+
+import syntaxtree.Exp;
+import syntaxtree.MethodBodySource;
+import syntaxtree.StatementList;
+import syntaxtree.Symbols;
+
+/**
+ * Objects of this class represent the body of a method that has been
+ * skipped by the parser (see MiniJavaParser.enableLazyBodies). The body is
+ * kept as a range of offsets in the source, from the first token after the
+ * local variables to the closing brace of the method, and is parsed when
+ * the method declaration first needs it.
+ */
+class LazyMethodBody implements MethodBodySource {
+
+    private final MappedCharStream source;
+
+    /**
+     * offset of the first character of the body
+     */
+    private final int begin;
+
+    /**
+     * offset of the closing brace of the method
+     */
+    private final int end;
+
+    /**
+     * identifiers of the program, shared with the parser of the method
+     */
+    private final Symbols symbols;
+
+    LazyMethodBody(MappedCharStream source, int begin, int end,
+            Symbols symbols) {
+        this.source = source;
+        this.begin = begin;
+        this.end = end;
+        this.symbols = symbols;
+    }
+
+    /**
+     * parses the statements and the return expression of the body.
+     *
+     * @throws LazyParseException if the body is not syntactically correct
+     */
+    @Override
+    public Exp parse(StatementList statements) {
+
+        MiniJavaParser parser = new MiniJavaParser(
+                new FastTokenManager(source, begin, end));
+        parser.setSymbols(symbols);
+        try {
+            return parser.MethodBody(statements);
+        } catch (ParseException e) {
+            throw new LazyParseException(e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package parser;
+
+/**
+ * Exception thrown when a method body parsed on demand (see LazyMethodBody)
+ * is not syntactically correct. The body is parsed by a later pass, which
+ * cannot declare the ParseException, so it is wrapped into this unchecked
+ * exception.
+ */
+public class LazyParseException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public LazyParseException(ParseException cause) {
+        super(cause);
+    }
+
+    /**
+     * returns the exception thrown by the parser.
+     */
+    public ParseException getParseException() {
+        return (ParseException) getCause();
+    }
+}
@@ -0,0 +1,429 @@
+package parser;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Objects of this class provide the characters of a Minijava source file to
+ * the token manager directly from a memory mapped file.
+ *
+ * The file is scanned once when the stream is created. This pre-scan records
+ * the start offsets of all lines, so line and column numbers of tokens are
+ * computed from offsets instead of being tracked for every character. If
+ * the file contains no unicode escape (backslash-u), the characters are read
+ * straight from the mapped bytes and no escape translation takes place.
+ * Otherwise the escapes are translated once into a character array.
+ *
+ * Each byte is taken as one character (ISO-8859-1). Minijava programs are
+ * ASCII, other characters may only occur within comments.
+ *
+ * The class extends the stream generated by JavaCC, so that instances can be
+ * handed to the generated token manager. None of the buffers of the super
+ * class are used.
+ */
+public class MappedCharStream extends JavaCharStream {
+
+    /**
+     * characters of the source, if it includes no unicode escapes
+     */
+    private final ByteBuffer bytes;
+
+    /**
+     * characters of the source with translated unicode escapes, null if the
+     * source includes no unicode escapes
+     */
+    private final char[] chars;
+
+    /**
+     * number of characters of the source
+     */
+    private final int length;
+
+    /**
+     * offsets of the first character of each line
+     */
+    private int[] lineStarts;
+
+    /**
+     * number of lines
+     */
+    private int lineCount;
+
+    /**
+     * index of the line found by the last lookup, lookups of tokens mostly
+     * proceed line by line
+     */
+    private int lastLine;
+
+    /**
+     * offset of the next character to be read
+     */
+    private int pos;
+
+    /**
+     * offset of the first character of the current token
+     */
+    private int tokenBegin;
+
+    /**
+     * creates a new stream for the given buffer. The buffer's content from
+     * its position to its limit is taken as source.
+     *
+     * @param buffer source of a Minijava program
+     */
+    public MappedCharStream(ByteBuffer buffer) {
+
+        /* the buffers of the super class are not used */
+        super(new StringReader(""), 1, 1, 1);
+
+        this.bytes = buffer.slice();
+        this.lineStarts = new int[64];
+
+        if (scanBytes()) {
+            this.chars = translateEscapes();
+            this.length = this.chars.length;
+            scanChars();
+        } else {
+            this.chars = null;
+            this.length = this.bytes.limit();
+        }
+
+        this.pos = 0;
+        this.tokenBegin = 0;
+        this.lastLine = 0;
+    }
+
+    /**
+     * maps the given file into memory and creates a new stream for it.
+     *
+     * @param filename name of a Minijava source file
+     * @return stream reading from the mapped file
+     * @throws IOException if the file cannot be mapped
+     */
+    public static MappedCharStream map(String filename) throws IOException {
+
+        RandomAccessFile file = new RandomAccessFile(filename, "r");
+        try {
+            FileChannel channel = file.getChannel();
+
+            /* the mapping stays valid after the channel has been closed */
+            return new MappedCharStream(
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } finally {
+            file.close();
+        }
+    }
+
+    /* ========================================================================
+     * pre-scan
+     * ===================================================================== */
+
+    /**
+     * records the line starts of the mapped bytes.
+     *
+     * @return true if the source includes a unicode escape
+     */
+    private boolean scanBytes() {
+
+        int limit = bytes.limit();
+
+        lineCount = 0;
+        addLineStart(0);
+
+        for (int i = 0; i < limit; i++) {
+            byte b = bytes.get(i);
+
+            if (b == '\\') {
+                if (i + 1 < limit && bytes.get(i + 1) == 'u') {
+                    return true;
+                }
+            } else if (b == '\n') {
+                addLineStart(i + 1);
+            } else if (b == '\r') {
+                if (i + 1 >= limit || bytes.get(i + 1) != '\n') {
+                    addLineStart(i + 1);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * records the line starts of the translated characters.
+     */
+    private void scanChars() {
+
+        lineCount = 0;
+        addLineStart(0);
+
+        for (int i = 0; i < length; i++) {
+            char c = chars[i];
+
+            if (c == '\n') {
+                addLineStart(i + 1);
+            } else if (c == '\r') {
+                if (i + 1 >= length || chars[i + 1] != '\n') {
+                    addLineStart(i + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * adds the offset of a new line.
+     */
+    private void addLineStart(int offset) {
+
+        if (lineCount == lineStarts.length) {
+            int[] newLineStarts = new int[2 * lineStarts.length];
+            System.arraycopy(lineStarts, 0, newLineStarts, 0, lineCount);
+            lineStarts = newLineStarts;
+        }
+        lineStarts[lineCount++] = offset;
+    }
+
+    /**
+     * translates all unicode escapes of the mapped bytes as defined by the
+     * Java language specification: a backslash preceded by an odd number of
+     * backslashes does not start an escape.
+     *
+     * @return translated characters
+     */
+    private char[] translateEscapes() {
+
+        int limit = bytes.limit();
+        char[] translated = new char[limit];
+        int count = 0;
+        int backslashes = 0;
+
+        int i = 0;
+        while (i < limit) {
+            char c = (char) (bytes.get(i) & 0xff);
+
+            if (c == '\\' && backslashes % 2 == 0
+                    && i + 1 < limit && bytes.get(i + 1) == 'u') {
+
+                int j = i + 1;
+                while (j < limit && bytes.get(j) == 'u') {
+                    j++;
+                }
+                if (j + 4 > limit) {
+                    throw new TokenMgrError("Invalid unicode escape at offset "
+                            + i, TokenMgrError.LEXICAL_ERROR);
+                }
+
+                int value = 0;
+                for (int k = j; k < j + 4; k++) {
+                    int digit = Character.digit((char) bytes.get(k), 16);
+                    if (digit < 0) {
+                        throw new TokenMgrError("Invalid unicode escape at offset "
+                                + i, TokenMgrError.LEXICAL_ERROR);
+                    }
+                    value = 16 * value + digit;
+                }
+
+                translated[count++] = (char) value;
+                backslashes = 0;
+                i = j + 4;
+
+            } else {
+                translated[count++] = c;
+                backslashes = (c == '\\') ? backslashes + 1 : 0;
+                i++;
+            }
+        }
+
+        char[] result = new char[count];
+        System.arraycopy(translated, 0, result, 0, count);
+        return result;
+    }
+
+    /* ========================================================================
+     * access to characters
+     * ===================================================================== */
+
+    /**
+     * returns the number of characters of the source.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * returns the character at the given offset.
+     */
+    public char charAt(int offset) {
+
+        if (chars != null) {
+            return chars[offset];
+        }
+        return (char) (bytes.get(offset) & 0xff);
+    }
+
+    /**
+     * returns the characters between the offsets begin (inclusive) and end
+     * (exclusive) as string.
+     */
+    public String substring(int begin, int end) {
+
+        if (chars != null) {
+            return new String(chars, begin, end - begin);
+        }
+
+        char[] image = new char[end - begin];
+        for (int i = begin; i < end; i++) {
+            image[i - begin] = (char) (bytes.get(i) & 0xff);
+        }
+        return new String(image);
+    }
+
+    /**
+     * returns the line (starting with 1) of the character at the given offset.
+     */
+    public int lineOf(int offset) {
+
+        int line = lastLine;
+
+        if (offset < lineStarts[line]) {
+            line = findLine(offset, 0, line);
+        } else if (line + 1 < lineCount && offset >= lineStarts[line + 1]) {
+
+            /* most tokens are on the same or on the next line */
+            if (line + 2 >= lineCount || offset < lineStarts[line + 2]) {
+                line = line + 1;
+            } else {
+                line = findLine(offset, line + 2, lineCount);
+            }
+        }
+
+        lastLine = line;
+        return line + 1;
+    }
+
+    /**
+     * returns the column (starting with 1) of the character at the given
+     * offset.
+     */
+    public int columnOf(int offset) {
+        return offset - lineStarts[lineOf(offset) - 1] + 1;
+    }
+
+    /**
+     * binary search for the index of the line that includes the given offset
+     * within the lines from (inclusive) to (exclusive).
+     */
+    private int findLine(int offset, int from, int to) {
+
+        int low = from;
+        int high = to - 1;
+
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (lineStarts[middle] <= offset) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /* ========================================================================
+     * methods used by the token manager
+     * ===================================================================== */
+
+    @Override
+    public char BeginToken() throws IOException {
+        tokenBegin = pos;
+        return readChar();
+    }
+
+    @Override
+    public char readChar() throws IOException {
+
+        if (pos >= length) {
+            throw new EOFException();
+        }
+        return charAt(pos++);
+    }
+
+    @Override
+    public void backup(int amount) {
+        pos -= amount;
+    }
+
+    @Override
+    public String GetImage() {
+        return substring(tokenBegin, pos);
+    }
+
+    @Override
+    public char[] GetSuffix(int len) {
+
+        char[] suffix = new char[len];
+        for (int i = 0; i < len; i++) {
+            suffix[i] = charAt(pos - len + i);
+        }
+        return suffix;
+    }
+
+    @Override
+    public int getBeginLine() {
+        return lineOf(lastCharOffset(tokenBegin));
+    }
+
+    @Override
+    public int getBeginColumn() {
+        return columnOf(lastCharOffset(tokenBegin));
+    }
+
+    @Override
+    public int getEndLine() {
+        return lineOf(lastCharOffset(pos - 1));
+    }
+
+    @Override
+    public int getEndColumn() {
+        return columnOf(lastCharOffset(pos - 1));
+    }
+
+    @Override
+    @Deprecated
+    public int getLine() {
+        return getEndLine();
+    }
+
+    @Override
+    @Deprecated
+    public int getColumn() {
+        return getEndColumn();
+    }
+
+    @Override
+    public void Done() {
+    }
+
+    /**
+     * limits the given offset to the characters of the source. At the end of
+     * the source the position of the last character is reported, just as the
+     * stream generated by JavaCC does.
+     */
+    private int lastCharOffset(int offset) {
+        return Math.max(Math.min(offset, length - 1), 0);
+    }
+
+    /**
+     * returns the offset of the first character of the current token.
+     */
+    public int getTokenBegin() {
+        return tokenBegin;
+    }
+
+    /**
+     * returns the offset of the next character to be read.
+     */
+    public int getPosition() {
+        return pos;
+    }
+}
@@ -0,0 +1,235 @@
+package parser;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import syntaxtree.*;
+import visitor.*;
+import visitor.symboltable.*;
+
+/**
+ * Objects of this class compile Minijava programs within the calling
+ * process: the Jasmin code of the classes is kept in memory and returned
+ * with the errors found (see CompilationResult), nothing is written.
+ *
+ * A compiler may be used by many threads at the same time. Each compilation
+ * takes a worker from a pool, or creates one if all are busy, and returns
+ * it when it is done. A worker keeps its token manager, parser and visitors
+ * for the next compilation: the token manager and the parser are
+ * reinitialised with the new source (see FastTokenManager.ReInit and
+ * MiniJavaParser.reset), the visitors are reset, so their tables, stacks
+ * and buffers are reused rather than allocated anew. The identifiers are
+ * not kept: each program is given a new table of its own (see Symbols).
+ * The pool grows to the largest number of threads compiling at a time.
+ *
+ * A program is compiled like by MiniJavaParser.main with the options -mmap
+ * -fast -fused: after parsing, the symbol table is filled and the types are
+ * checked while the code is generated, in a single traversal.
+ */
+public class MiniJavaCompiler {
+
+    /**
+     * encoding of the sources, see MappedCharStream
+     */
+    private static final Charset LATIN_1 = Charset.forName("ISO-8859-1");
+
+    /**
+     * workers not in use
+     */
+    private final ConcurrentLinkedQueue<Worker> workers =
+            new ConcurrentLinkedQueue<Worker>();
+
+    /**
+     * compiles the given source.
+     *
+     * @param source source of a Minijava program
+     * @return code of the classes and errors found
+     */
+    public CompilationResult compile(String source) {
+        return compile(new MappedCharStream(
+                ByteBuffer.wrap(source.getBytes(LATIN_1))), null);
+    }
+
+    /**
+     * compiles the source read from the given reader, which is not closed.
+     *
+     * @param source reader of a Minijava program
+     * @return code of the classes and errors found
+     * @throws IOException if the source cannot be read
+     */
+    public CompilationResult compile(Reader source) throws IOException {
+
+        StringBuilder text = new StringBuilder(8192);
+        char[] buffer = new char[8192];
+        int count;
+        while ((count = source.read(buffer)) > 0) {
+            text.append(buffer, 0, count);
+        }
+        return compile(text.toString());
+    }
+
+    /**
+     * compiles the given source file, which is mapped into memory. The
+     * classes carry the name of the file and the line numbers.
+     *
+     * @param source path to a Minijava source file
+     * @return code of the classes and errors found
+     * @throws IOException if the file cannot be mapped
+     */
+    public CompilationResult compile(Path source) throws IOException {
+        return compile(MappedCharStream.map(source.toString()),
+                source.getFileName().toString());
+    }
+
+    /**
+     * compiles the source between the position and the limit of the given
+     * buffer, encoded as ISO-8859-1. The buffer is not modified, nor must it
+     * be while it is compiled.
+     *
+     * @param source encoded source of a Minijava program
+     * @return code of the classes and errors found
+     */
+    public CompilationResult compile(ByteBuffer source) {
+        return compile(new MappedCharStream(source), null);
+    }
+
+    /**
+     * compiles the given source by a worker of the pool.
+     *
+     * @param source source of a Minijava program
+     * @param sourceFile name of the source file for the .source directives,
+     *        null if no debugging information is to be emitted
+     */
+    private CompilationResult compile(MappedCharStream source,
+            String sourceFile) {
+
+        Worker worker = workers.poll();
+        if (worker == null) {
+            worker = new Worker();
+        }
+        try {
+            return worker.compile(source, sourceFile);
+        } finally {
+            workers.offer(worker);
+        }
+    }
+
+    /* ========================================================================
+     * worker
+     * ===================================================================== */
+
+    /**
+     * Objects of this class compile one program at a time. They are used by
+     * a single thread while they are taken from the pool.
+     */
+    private static final class Worker implements JasminOutput {
+
+        /**
+         * token manager and parser, created for the first source
+         */
+        private FastTokenManager tokenManager;
+        private MiniJavaParser parser;
+
+        /**
+         * visitor filling the symbol table, created for the first program
+         */
+        private SymbolTableVisitor symbolTableVisitor;
+
+        private final JasminVisitor jasminVisitor =
+                JasminVisitor.newCheckingVisitor(this, null);
+
+        /**
+         * code of the classes generated for the current program
+         */
+        private Map<String, String> classes;
+
+        /**
+         * compiles the given source; the state left by the previous
+         * compilation, possibly ended by an exception, is reset first.
+         */
+        CompilationResult compile(MappedCharStream source,
+                String sourceFile) {
+
+            if (parser == null) {
+                tokenManager = new FastTokenManager(source);
+                parser = new MiniJavaParser(tokenManager);
+            } else {
+                tokenManager.ReInit(source);
+                parser.reset(tokenManager);
+            }
+            classes = new LinkedHashMap<String, String>();
+            List<String> diagnostics = new ArrayList<String>();
+            String mainClassName = null;
+
+            try {
+                /* parsing of the source, builds the abstract syntax tree */
+                Program program = parser.Program();
+                mainClassName = program.mainClass.classId.name;
+
+                /* filling of the symbol table, which is frozen afterwards;
+                 * it takes over the identifiers of the program, which are
+                 * dropped with it */
+                if (symbolTableVisitor == null) {
+                    symbolTableVisitor =
+                            new SymbolTableVisitor(program.symbols);
+                } else {
+                    symbolTableVisitor.reset(program.symbols);
+                }
+                SymbolTable symbolTable = symbolTableVisitor.getSymbolTable();
+                symbolTableVisitor.dispatch(program, symbolTable);
+
+                /* lookups along a cyclic inheritance chain would not end */
+                for (ClassType type : ((ProgramTable) symbolTable)
+                        .getHierarchy().getCyclicClasses()) {
+                    diagnostics.add("Semantic Error : cyclic inheritance of "
+                            + type);
+                }
+
+                /* checking of the types and generation of the code */
+                if (diagnostics.isEmpty()) {
+                    jasminVisitor.reset(this, sourceFile);
+                    jasminVisitor.walk(program, symbolTable);
+                    for (String error : jasminVisitor.getErrors()) {
+                        diagnostics.add("Semantic Error : " + error);
+                    }
+                }
+            } catch (ParseException e) {
+                diagnostics.add("Parser Error : \n" + e.toString());
+            } catch (TokenMgrError e) {
+                diagnostics.add("Parser Error : \n" + e.toString());
+            } catch (JasminOutputException e) {
+                diagnostics.add("File Error : \n"
+                        + e.getIOException().toString());
+            } catch (RuntimeException e) {
+                /* the passes include no error handling beyond the checks
+                 * of the types; the worker is reset when it is used next */
+                diagnostics.add("Internal Error : \n" + e.toString());
+            }
+
+            /* classes preceding the first error have been generated */
+            if (!diagnostics.isEmpty()) {
+                classes.clear();
+            }
+            return new CompilationResult(mainClassName, classes, diagnostics);
+        }
+
+        /**
+         * keeps the code of the given class of the current program.
+         */
+        public void writeClass(String classname, ByteBuffer code) {
+            classes.put(classname, new String(code.array(),
+                    code.arrayOffset() + code.position(), code.remaining(),
+                    LATIN_1));
+        }
+
+        /**
+         * nothing to be done, the classes are kept in memory.
+         */
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import syntaxtree.*;
+
+/**
+ * Objects of this class parse a Minijava program with several threads.
+ *
+ * The classes of a program are independent of each other syntactically. A
+ * pre-scan splits the source into pieces at the braces closing the top-level
+ * blocks, i.e. after the main class and after each class declaration (see
+ * FastTokenManager.skipBlock). The scan works on the characters and skips
+ * comments, so it needs no tokens and takes a fraction of the time of
+ * parsing.
+ *
+ * Consecutive pieces are grouped into chunks of about the same number of
+ * characters, a few chunks per thread of the pool, so that the threads are
+ * kept busy while the number of parsers created stays small. Each chunk is
+ * parsed by a parser of its own on a ForkJoinPool: the first chunk as
+ * program, which starts with the main class, the others as sequences of
+ * class declarations. The classes are put together into one program in the
+ * order of the source.
+ *
+ * The tokens of all chunks are located in the same source, so they carry
+ * the same positions as with a single parser. The parsers share the table
+ * of the identifiers of the program (see Symbols). If several chunks contain
+ * syntax errors, the error of the first of them is reported.
+ */
+public class ParallelProgramParser {
+
+    /**
+     * number of chunks per thread of the pool
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final MappedCharStream source;
+
+    /**
+     * offsets at which the pieces begin; piece i ends where piece i + 1
+     * begins, the last one at the end of the source
+     */
+    private final int[] pieces;
+
+    /**
+     * number of pieces
+     */
+    private final int pieceCount;
+
+    private boolean lazyBodies = false;
+
+    /**
+     * creates a new parser for the given source and splits the source into
+     * pieces.
+     *
+     * @param source source of a Minijava program
+     */
+    public ParallelProgramParser(MappedCharStream source) {
+
+        this.source = source;
+
+        FastTokenManager scanner = new FastTokenManager(source);
+        int[] begins = new int[16];
+        int count = 0;
+        int begin = 0;
+        while (scanner.hasMoreTokens()) {
+            if (count == begins.length) {
+                int[] newBegins = new int[2 * count];
+                System.arraycopy(begins, 0, newBegins, 0, count);
+                begins = newBegins;
+            }
+            begins[count++] = begin;
+            begin = scanner.skipBlock();
+        }
+
+        /* an empty source is parsed as main class to report the error */
+        if (count == 0) {
+            count = 1;
+        }
+        this.pieces = begins;
+        this.pieceCount = count;
+    }
+
+    /**
+     * returns the number of pieces the source has been split into, i.e. the
+     * number of classes including the main class.
+     */
+    public int getPieceCount() {
+        return pieceCount;
+    }
+
+    /**
+     * lets the parsers of the pieces skip the method bodies, see
+     * MiniJavaParser.enableLazyBodies.
+     */
+    public void enableLazyBodies() {
+        lazyBodies = true;
+    }
+
+    /**
+     * parses the source with the threads of the given pool.
+     *
+     * @param pool pool for the parsers of the chunks
+     * @return syntax tree of the program
+     * @throws ParseException for the first chunk that is not syntactically
+     *         correct
+     */
+    public Program parse(ForkJoinPool pool) throws ParseException {
+
+        int[] chunks = chunks(CHUNKS_PER_THREAD * pool.getParallelism());
+        int chunkCount = chunks.length - 1;
+
+        List<Callable<Object>> tasks =
+                new ArrayList<Callable<Object>>(chunkCount);
+        Symbols symbols = new Symbols();
+        for (int i = 0; i < chunkCount; i++) {
+            final MiniJavaParser parser = newParser(chunks[i], chunks[i + 1],
+                    symbols);
+            final boolean first = (i == 0);
+            tasks.add(new Callable<Object>() {
+                public Object call() throws ParseException {
+                    return first ? parser.Program()
+                            : parser.ClassDeclarations();
+                }
+            });
+        }
+
+        List<Future<Object>> results = pool.invokeAll(tasks);
+
+        Program head = (Program) get(results.get(0));
+        ClassDeclList classes = new ClassDeclList();
+        for (int i = 0; i < chunkCount; i++) {
+            ClassDeclList chunk = (i == 0)
+                    ? head.classes
+                    : (ClassDeclList) get(results.get(i));
+            for (int j = 0; j < chunk.size(); j++) {
+                classes.addElement(chunk.elementAt(j));
+            }
+        }
+
+        Program program = new Program(head.mainClass, classes, symbols);
+        program.setPosition(head.getPosition());
+        return program;
+    }
+
+    /**
+     * groups the pieces into at most the given number of chunks of about
+     * the same number of characters.
+     *
+     * @return offsets at which the chunks begin, followed by the end of the
+     *         source
+     */
+    private int[] chunks(int maxChunks) {
+
+        int length = source.length();
+        int chunkCount = Math.max(1, Math.min(maxChunks, pieceCount));
+        int[] chunks = new int[chunkCount + 1];
+
+        int count = 1;
+        for (int i = 1; i < pieceCount && count < chunkCount; i++) {
+            /* a chunk ends at the first piece beyond its share of the
+             * source */
+            if (pieces[i] >= (long) length * count / chunkCount) {
+                chunks[count++] = pieces[i];
+            }
+        }
+        chunks[count] = length;
+        return Arrays.copyOf(chunks, count + 1);
+    }
+
+    /**
+     * creates a parser for the characters between the offsets begin
+     * (inclusive) and end (exclusive), which enters the identifiers into
+     * the given table shared by the parsers of all chunks.
+     */
+    private MiniJavaParser newParser(int begin, int end, Symbols symbols) {
+
+        MiniJavaParser parser = new MiniJavaParser(
+                new FastTokenManager(source, begin, end));
+        parser.setSymbols(symbols);
+        if (lazyBodies) {
+            parser.enableLazyBodies();
+        }
+        return parser;
+    }
+
+    /**
+     * returns the result of a finished task, rethrowing the exception that
+     * ended the task.
+     */
+    private static Object get(Future<Object> result) throws ParseException {
+
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+
+            /* the pool may wrap checked exceptions of the tasks, and it
+             * copies errors without their message, keeping the original
+             * as the cause */
+            TokenMgrError lexicalError = null;
+            for (Throwable t = e.getCause(); t != null; t = t.getCause()) {
+                if (t instanceof ParseException) {
+                    throw (ParseException) t;
+                } else if (t instanceof TokenMgrError) {
+                    lexicalError = (TokenMgrError) t;
+                }
+            }
+            if (lexicalError != null) {
+                throw lexicalError;
+            }
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
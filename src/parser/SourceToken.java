@@ -0,0 +1,30 @@
+package parser;
+
+/**
+ * Objects of this class represent tokens that know their location in the
+ * source as offsets of characters. They are created by the FastTokenManager.
+ */
+public class SourceToken extends Token {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * offset of the first character of the token
+     */
+    public final int beginOffset;
+
+    /**
+     * offset following the last character of the token
+     */
+    public final int endOffset;
+
+    /**
+     * creates a new token of the given kind and image located between the
+     * offsets begin (inclusive) and end (exclusive).
+     */
+    public SourceToken(int kind, String image, int beginOffset, int endOffset) {
+        super(kind, image);
+        this.beginOffset = beginOffset;
+        this.endOffset = endOffset;
+    }
+}
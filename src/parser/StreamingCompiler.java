@@ -0,0 +1,148 @@
+package parser;
+
+import java.io.*;
+import java.util.*;
+
+import syntaxtree.*;
+import visitor.*;
+import visitor.symboltable.*;
+
+/**
+ * Objects of this class compile a Minijava program without keeping its
+ * syntax tree, so the memory needed depends on the size of the largest
+ * class rather than on the size of the program.
+ *
+ * The source is read twice as a stream, by the scanner generated by JavaCC,
+ * which keeps only a small window of the characters. The first pass parses
+ * the classes one after another and enters their declarations into the
+ * symbol table; each class is dropped once it has been entered. The symbol
+ * table holds the types of the fields, methods and variables only, no nodes
+ * of the tree. The second pass parses the classes again; each class is type
+ * checked and its Jasmin code is generated in a single traversal (see
+ * JasminVisitor.newCheckingVisitor) before the next class is read.
+ *
+ * Syntax errors are found by the first pass, before any file is written. As
+ * the classes are not kept, type errors are found while the files are
+ * written: the files of the classes preceding the first class with errors
+ * have been written when the errors are reported.
+ */
+public class StreamingCompiler {
+
+    /**
+     * name of the source file
+     */
+    private final String filename;
+
+    /**
+     * identifiers of the program, shared by the parsers of both passes
+     */
+    private final Symbols symbols = new Symbols();
+
+    private final SymbolTableVisitor symbolTableVisitor =
+            new SymbolTableVisitor(symbols);
+
+    /**
+     * name of the main class, known once the declarations are collected
+     */
+    private String mainClassName;
+
+    /**
+     * creates a new compiler for the given source file.
+     *
+     * @param filename name of a Minijava source file
+     */
+    public StreamingCompiler(String filename) {
+        this.filename = filename;
+    }
+
+    /**
+     * parses the source and enters the declarations of its classes into
+     * the symbol table, one class at a time.
+     *
+     * @return completed symbol table of the program
+     * @throws ParseException if the source is not syntactically correct
+     * @throws IOException if the source cannot be read
+     */
+    public ProgramTable collectDeclarations()
+            throws ParseException, IOException {
+
+        SymbolTable symbolTable = symbolTableVisitor.getSymbolTable();
+
+        InputStream in = new FileInputStream(filename);
+        try {
+            MiniJavaParser parser = new MiniJavaParser(in);
+            parser.setSymbols(symbols);
+            MainClass mainClass = parser.MainClass();
+            mainClassName = mainClass.classId.name;
+            symbolTableVisitor.dispatch(mainClass, symbolTable);
+
+            ClassDecl classDecl;
+            while ((classDecl = parser.NextClassDeclaration()) != null) {
+                symbolTableVisitor.dispatch(classDecl, symbolTable);
+            }
+        } finally {
+            in.close();
+        }
+
+        symbolTableVisitor.complete();
+        return (ProgramTable) symbolTable;
+    }
+
+    /**
+     * returns the name of the main class, null if the declarations have not
+     * been collected.
+     */
+    public String getMainClassName() {
+        return mainClassName;
+    }
+
+    /**
+     * parses the source once more and type checks and generates its
+     * classes one at a time. The declarations must have been collected.
+     *
+     * @param output destination of the code of the classes
+     * @param sourceFile name of the source file for the .source directives
+     * @return errors found in the order of the source
+     * @throws ParseException if the source is not syntactically correct
+     * @throws IOException if the source cannot be read or a class cannot be
+     *         written
+     */
+    public List<String> generate(JasminOutput output, String sourceFile)
+            throws ParseException, IOException {
+
+        ProgramTable symbolTable =
+                (ProgramTable) symbolTableVisitor.getSymbolTable();
+        if (!symbolTable.isFrozen()) {
+            throw new IllegalStateException("declarations not collected");
+        }
+
+        /* lookups along a cyclic inheritance chain would not end */
+        List<String> errors = new ArrayList<String>();
+        for (ClassType type : symbolTable.getHierarchy().getCyclicClasses()) {
+            errors.add("cyclic inheritance of " + type);
+        }
+        if (!errors.isEmpty()) {
+            return errors;
+        }
+
+        JasminVisitor visitor =
+                JasminVisitor.newCheckingVisitor(output, sourceFile);
+
+        InputStream in = new FileInputStream(filename);
+        try {
+            MiniJavaParser parser = new MiniJavaParser(in);
+            parser.setSymbols(symbols);
+            visitor.walk(parser.MainClass(), symbolTable);
+
+            ClassDecl classDecl;
+            while ((classDecl = parser.NextClassDeclaration()) != null) {
+                visitor.walk(classDecl, symbolTable);
+            }
+        } catch (JasminOutputException e) {
+            throw e.getIOException();
+        } finally {
+            in.close();
+        }
+        return visitor.getErrors();
+    }
+}
@@ -1,5 +1,6 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
@@ -24,6 +25,7 @@ public class And extends Exp {
      * @param right right operand
      */
     public And(Exp left, Exp right) {
+        super(NodeKind.AND);
         this.left = left;
         this.right = right;
     }
@@ -36,4 +38,9 @@ public class And extends Exp {
     public void accept(Visitor v) {
         v.visit(this);
     }
+
+    @Override
+    public <R, A> R accept(GenericVisitor<R, A> v, A arg) {
+        return v.visit(this, arg);
+    }
 }
@@ -1,5 +1,6 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
@@ -13,6 +14,7 @@ public class ArrayAssign extends Statement {
     public Exp exp;
 
     public ArrayAssign(Identifier arrayId, Exp index, Exp exp) {
+        super(NodeKind.ARRAY_ASSIGN);
         this.arrayId = arrayId;
         this.index = index;
         this.exp = exp;
@@ -22,5 +24,10 @@ public class ArrayAssign extends Statement {
     public void accept(Visitor v) {
         v.visit(this);
     }
+
+    @Override
+    public <R, A> R accept(GenericVisitor<R, A> v, A arg) {
+        return v.visit(this, arg);
+    }
 }
 
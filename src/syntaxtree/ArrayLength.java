@@ -1,5 +1,6 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
@@ -11,6 +12,7 @@ public class ArrayLength extends Exp {
     public Exp arrayId;
 
     public ArrayLength(Exp array) {
+        super(NodeKind.ARRAY_LENGTH);
         this.arrayId = array;
     }
 
@@ -18,4 +20,9 @@ public class ArrayLength extends Exp {
     public void accept(Visitor v) {
         v.visit(this);
     }
+
+    @Override
+    public <R, A> R accept(GenericVisitor<R, A> v, A arg) {
+        return v.visit(this, arg);
+    }
 }
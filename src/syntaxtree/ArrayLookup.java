@@ -1,5 +1,6 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
@@ -12,6 +13,7 @@ public class ArrayLookup extends Exp {
     public Exp index;
 
     public ArrayLookup(Exp arrayId, Exp index) {
+        super(NodeKind.ARRAY_LOOKUP);
         this.arrayId = arrayId;
         this.index = index;
     }
@@ -20,4 +22,9 @@ public class ArrayLookup extends Exp {
     public void accept(Visitor v) {
         v.visit(this);
     }
+
+    @Override
+    public <R, A> R accept(GenericVisitor<R, A> v, A arg) {
+        return v.visit(this, arg);
+    }
 }
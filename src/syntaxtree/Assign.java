@@ -1,5 +1,6 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
@@ -12,6 +13,7 @@ public class Assign extends Statement {
     public Exp exp;
 
     public Assign(Identifier id, Exp exp) {
+        super(NodeKind.ASSIGN);
         this.id = id;
         this.exp = exp;
     }
@@ -20,5 +22,10 @@ public class Assign extends Statement {
     public void accept(Visitor v) {
         v.visit(this);
     }
+
+    @Override
+    public <R, A> R accept(GenericVisitor<R, A> v, A arg) {
+        return v.visit(this, arg);
+    }
 }
 
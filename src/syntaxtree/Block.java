@@ -1,5 +1,6 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
@@ -10,12 +11,19 @@ public class Block extends Statement {
     public StatementList statements;
 
     public Block(StatementList statements) {
+        super(NodeKind.BLOCK);
         this.statements = statements;
+        this.statements.freeze();
     }
 
     @Override
     public void accept(Visitor v) {
         v.visit(this);
     }
+
+    @Override
+    public <R, A> R accept(GenericVisitor<R, A> v, A arg) {
+        return v.visit(this, arg);
+    }
 }
 
@@ -1,5 +1,6 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
@@ -13,13 +14,20 @@ public class Call extends Exp {
     public ExpList expList;
 
     public Call(Exp exp, Identifier methodId, ExpList expList) {
+        super(NodeKind.CALL);
         this.exp = exp;
         this.methodId = methodId;
         this.expList = expList;
+        this.expList.freeze();
     }
 
     @Override
     public void accept(Visitor v) {
         v.visit(this);
     }
+
+    @Override
+    public <R, A> R accept(GenericVisitor<R, A> v, A arg) {
+        return v.visit(this, arg);
+    }
 }
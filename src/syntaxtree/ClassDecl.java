@@ -1,11 +1,18 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
  * Abstract class for all class declarations
  */
-public abstract class ClassDecl {
+public abstract class ClassDecl extends Node {
+
+    protected ClassDecl(int kind) {
+        super(kind);
+    }
 
     public abstract void accept(Visitor v);
+
+    public abstract <R, A> R accept(GenericVisitor<R, A> v, A arg);
 }
@@ -1,5 +1,6 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
@@ -14,14 +15,22 @@ public class ClassDeclExtends extends ClassDecl {
 
     public ClassDeclExtends(Identifier idSubclass, Identifier idSuperclass,
             VarDeclList varDecls, MethodDeclList methodDecls) {
+        super(NodeKind.CLASS_DECL_EXTENDS);
         this.subclassId = idSubclass;
         this.superclassId = idSuperclass;
         this.varDecls = varDecls;
+        this.varDecls.freeze();
         this.methodDecls = methodDecls;
+        this.methodDecls.freeze();
     }
 
     @Override
     public void accept(Visitor v) {
         v.visit(this);
     }
+
+    @Override
+    public <R, A> R accept(GenericVisitor<R, A> v, A arg) {
+        return v.visit(this, arg);
+    }
 }
@@ -1,5 +1,6 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
@@ -13,13 +14,21 @@ public class ClassDeclSimple extends ClassDecl {
 
     public ClassDeclSimple(Identifier classId, VarDeclList varDecls, 
             MethodDeclList methodDecls) {
+        super(NodeKind.CLASS_DECL_SIMPLE);
         this.classId = classId;
         this.varDecls = varDecls;
+        this.varDecls.freeze();
         this.methodDecls = methodDecls;
+        this.methodDecls.freeze();
     }
 
     @Override
     public void accept(Visitor v) {
         v.visit(this);
     }
+
+    @Override
+    public <R, A> R accept(GenericVisitor<R, A> v, A arg) {
+        return v.visit(this, arg);
+    }
 }
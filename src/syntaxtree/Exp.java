@@ -1,5 +1,6 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
@@ -7,5 +8,11 @@ import visitor.Visitor;
  */
 public abstract class Exp extends Node {
 
+    protected Exp(int kind) {
+        super(kind);
+    }
+
     public abstract void accept(Visitor v);
+
+    public abstract <R, A> R accept(GenericVisitor<R, A> v, A arg);
 }
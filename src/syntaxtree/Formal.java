@@ -1,16 +1,18 @@
 package syntaxtree;
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
  * Objects of this class represent a formal parameter:
  * <b>type id</b>
  */
-public class Formal {
+public class Formal extends Node {
     
   public Type type;
   public Identifier id;
  
   public Formal(Type type, Identifier id) {
+    super(NodeKind.FORMAL);
     this.type=type; 
     this.id=id;
   }
@@ -18,4 +20,8 @@ public class Formal {
   public void accept(Visitor v) {
     v.visit(this);
   }
+
+  public <R, A> R accept(GenericVisitor<R, A> v, A arg) {
+    return v.visit(this, arg);
+  }
 }
@@ -1,5 +1,6 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
@@ -9,15 +10,28 @@ import visitor.Visitor;
 public class Identifier extends Node {
 
     public String name;
+    
+    /* symbol of the identifier, see Symbols */
+    public int symbol;
 
-    public Identifier(String name) {
-        this.name = name;
+    /**
+     * creates a node for the given name, which is interned in the given
+     * table of the program.
+     */
+    public Identifier(String name, Symbols symbols) {
+        super(NodeKind.IDENTIFIER);
+        this.symbol = symbols.intern(name);
+        this.name = symbols.nameOf(this.symbol);
     }
 
     public void accept(Visitor v) {
         v.visit(this);
     }
 
+    public <R, A> R accept(GenericVisitor<R, A> v, A arg) {
+        return v.visit(this, arg);
+    }
+
     @Override
     public String toString() {
         return name;
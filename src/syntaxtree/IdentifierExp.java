@@ -1,5 +1,6 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
@@ -9,13 +10,27 @@ import visitor.Visitor;
 public class IdentifierExp extends Exp {
 
     public String name;
+    
+    /* symbol of the identifier, see Symbols */
+    public int symbol;
 
-    public IdentifierExp(String name) {
-        this.name = name;
+    /**
+     * creates a node for the given name, which is interned in the given
+     * table of the program.
+     */
+    public IdentifierExp(String name, Symbols symbols) {
+        super(NodeKind.IDENTIFIER_EXP);
+        this.symbol = symbols.intern(name);
+        this.name = symbols.nameOf(this.symbol);
     }
 
     @Override
     public void accept(Visitor v) {
         v.visit(this);
     }
+
+    @Override
+    public <R, A> R accept(GenericVisitor<R, A> v, A arg) {
+        return v.visit(this, arg);
+    }
 }
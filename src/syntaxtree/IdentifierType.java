@@ -1,5 +1,6 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
@@ -8,9 +9,18 @@ import visitor.Visitor;
 public class IdentifierType extends Type {
 
     public String name;
+    
+    /* symbol of the class name, see Symbols */
+    public int symbol;
 
-    public IdentifierType(String name) {
-        this.name = name;
+    /**
+     * creates a node for the given name, which is interned in the given
+     * table of the program.
+     */
+    public IdentifierType(String name, Symbols symbols) {
+        super(NodeKind.IDENTIFIER_TYPE);
+        this.symbol = symbols.intern(name);
+        this.name = symbols.nameOf(this.symbol);
     }
 
     public String getName() {
@@ -21,4 +31,9 @@ public class IdentifierType extends Type {
     public void accept(Visitor v) {
         v.visit(this);
     }
+
+    @Override
+    public <R, A> R accept(GenericVisitor<R, A> v, A arg) {
+        return v.visit(this, arg);
+    }
 }
@@ -1,5 +1,6 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
@@ -13,6 +14,7 @@ public class If extends Statement {
     public Statement elseStatement;
 
     public If(Exp exp, Statement thenStatement, Statement elseStatement) {
+        super(NodeKind.IF);
         
         this.exp = exp;
         this.thenStatement = thenStatement;
@@ -23,5 +25,10 @@ public class If extends Statement {
     public void accept(Visitor v) {
         v.visit(this);
     }
+
+    @Override
+    public <R, A> R accept(GenericVisitor<R, A> v, A arg) {
+        return v.visit(this, arg);
+    }
 }
 
@@ -1,5 +1,6 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
@@ -10,6 +11,7 @@ public class IntegerLiteral extends Exp {
     public int value;
 
     public IntegerLiteral(int value) {
+        super(NodeKind.INTEGER_LITERAL);
         this.value = value;
     }
 
@@ -17,4 +19,9 @@ public class IntegerLiteral extends Exp {
     public void accept(Visitor v) {
         v.visit(this);
     }
+
+    @Override
+    public <R, A> R accept(GenericVisitor<R, A> v, A arg) {
+        return v.visit(this, arg);
+    }
 }
@@ -1,5 +1,6 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
@@ -8,8 +9,17 @@ import visitor.Visitor;
  */
 public class IntegerType extends Type {
 
+    public IntegerType() {
+        super(NodeKind.INTEGER_TYPE);
+    }
+
     @Override
     public void accept(Visitor v) {
         v.visit(this);
     }
+
+    @Override
+    public <R, A> R accept(GenericVisitor<R, A> v, A arg) {
+        return v.visit(this, arg);
+    }
 }
@@ -1,5 +1,6 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
@@ -12,6 +13,7 @@ public class LessThan extends Exp {
     public Exp right;
 
     public LessThan(Exp left, Exp right) {
+        super(NodeKind.LESS_THAN);
         this.left = left;
         this.right = right;
     }
@@ -20,4 +22,9 @@ public class LessThan extends Exp {
     public void accept(Visitor v) {
         v.visit(this);
     }
+
+    @Override
+    public <R, A> R accept(GenericVisitor<R, A> v, A arg) {
+        return v.visit(this, arg);
+    }
 }
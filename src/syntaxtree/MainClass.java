@@ -1,11 +1,12 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
  * Objects of this class represent a class that includes the method main
  */
-public class MainClass {
+public class MainClass extends Node {
 
     public Identifier classId;
     public Identifier formalId;
@@ -13,6 +14,7 @@ public class MainClass {
 
     public MainClass(Identifier classId, Identifier formalId, 
             Statement statement) {
+        super(NodeKind.MAIN_CLASS);
         
         this.classId = classId;
         this.formalId = formalId;
@@ -22,5 +24,9 @@ public class MainClass {
     public void accept(Visitor v) {
         v.visit(this);
     }
+
+    public <R, A> R accept(GenericVisitor<R, A> v, A arg) {
+        return v.visit(this, arg);
+    }
 }
 
@@ -0,0 +1,17 @@
+package syntaxtree;
+
+/**
+ * Interface for the source of a method body that is parsed on demand (see
+ * MethodDecl.getStatements).
+ */
+public interface MethodBodySource {
+
+    /**
+     * parses the method body: adds its statements to the given list and
+     * returns its return expression.
+     *
+     * @param statements empty list for the statements of the body
+     * @return return expression of the body
+     */
+    Exp parse(StatementList statements);
+}
@@ -1,11 +1,17 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
  * Objects of this class represent a method declaration
+ *
+ * The body of a method (its statements and return expression) may be given
+ * by a source that is parsed when the body is first accessed through
+ * getStatements() or getReturnExp(). Until then, the fields statements and
+ * returnExp are null.
  */
-public class MethodDecl {
+public class MethodDecl extends Node {
 
     public Type resultType;
     public Identifier methodId;
@@ -14,19 +20,94 @@ public class MethodDecl {
     public StatementList statements;
     public Exp returnExp;
 
+    /**
+     * source of the body not parsed yet, null once the body is parsed
+     */
+    private volatile MethodBodySource bodySource;
+
     public MethodDecl(Type resultType, Identifier methodId, 
             FormalList formalList, VarDeclList varDecls, 
             StatementList statements, Exp returnExp) {
+        super(NodeKind.METHOD_DECL);
         
         this.resultType = resultType;
         this.methodId = methodId;
         this.formalList = formalList;
+        this.formalList.freeze();
         this.varDecls = varDecls;
+        this.varDecls.freeze();
         this.statements = statements;
+        this.statements.freeze();
         this.returnExp = returnExp;
     }
 
+    /**
+     * creates a method declaration whose body is parsed from the given
+     * source when it is first accessed.
+     */
+    public MethodDecl(Type resultType, Identifier methodId,
+            FormalList formalList, VarDeclList varDecls,
+            MethodBodySource bodySource) {
+        super(NodeKind.METHOD_DECL);
+
+        this.resultType = resultType;
+        this.methodId = methodId;
+        this.formalList = formalList;
+        this.formalList.freeze();
+        this.varDecls = varDecls;
+        this.varDecls.freeze();
+        this.bodySource = bodySource;
+    }
+
+    /**
+     * returns the statements of the method, parsing the body if necessary.
+     */
+    public StatementList getStatements() {
+        if (bodySource != null) {
+            parseBody();
+        }
+        return statements;
+    }
+
+    /**
+     * returns the return expression of the method, parsing the body if
+     * necessary.
+     */
+    public Exp getReturnExp() {
+        if (bodySource != null) {
+            parseBody();
+        }
+        return returnExp;
+    }
+
+    /**
+     * checks if the body of the method has been parsed.
+     */
+    public boolean isBodyParsed() {
+        return bodySource == null;
+    }
+
+    /**
+     * parses the body from its source. The fields are set before the source
+     * is cleared, so other threads see them once they see no source.
+     */
+    private synchronized void parseBody() {
+
+        if (bodySource != null) {
+            StatementList body = new StatementList();
+            Exp exp = bodySource.parse(body);
+            body.freeze();
+            this.statements = body;
+            this.returnExp = exp;
+            this.bodySource = null;
+        }
+    }
+
     public void accept(Visitor v) {
         v.visit(this);
     }
+
+    public <R, A> R accept(GenericVisitor<R, A> v, A arg) {
+        return v.visit(this, arg);
+    }
 }
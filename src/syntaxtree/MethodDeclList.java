@@ -1,27 +1,10 @@
 package syntaxtree;
 
-import java.util.Vector;
-
 /**
  * Objects of this class represent a list of method declarations
  */
-public class MethodDeclList {
-
-    private Vector list;
+public class MethodDeclList extends NodeList<MethodDecl> {
 
     public MethodDeclList() {
-        list = new Vector();
-    }
-
-    public void addElement(MethodDecl n) {
-        list.addElement(n);
-    }
-
-    public MethodDecl elementAt(int i) {
-        return (MethodDecl) list.elementAt(i);
-    }
-
-    public int size() {
-        return list.size();
     }
 }
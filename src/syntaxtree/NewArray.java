@@ -1,5 +1,6 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
@@ -11,6 +12,7 @@ public class NewArray extends Exp {
     public Exp exp;
 
     public NewArray(Exp exp) {
+        super(NodeKind.NEW_ARRAY);
         this.exp = exp;
     }
 
@@ -18,4 +20,9 @@ public class NewArray extends Exp {
     public void accept(Visitor v) {
         v.visit(this);
     }
+
+    @Override
+    public <R, A> R accept(GenericVisitor<R, A> v, A arg) {
+        return v.visit(this, arg);
+    }
 }
@@ -1,60 +1,144 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
+import visitor.symboltable.SemanticType;
+import visitor.symboltable.VariableType;
 
 /**
  * Abstract class for all nodes of the syntax tree.
  */
 public abstract class Node {
 
+    /**
+     * kind of the node, see NodeKind
+     */
+    public final int kind;
+    
+    protected Node(int kind) {
+        this.kind = kind;
+    }
+
+    /* Source position: line in the upper, column in the lower 32 bits */
+    private long position;
+    
+    /**
+     * sets the source position of the node (line and column of its first
+     * token, both starting with 1).
+     */
+    public void setPosition(int line, int column) {
+        this.position = ((long) line << 32) | (column & 0xffffffffL);
+    }
+    
+    /**
+     * sets the source position of the node as packed by getPosition().
+     */
+    public void setPosition(long position) {
+        this.position = position;
+    }
+    
+    /**
+     * returns the source position of the node, line and column packed into
+     * one long; 0 if the position is unknown.
+     */
+    public long getPosition() {
+        return this.position;
+    }
+    
+    /**
+     * returns the line of the node, 0 if unknown.
+     */
+    public int getLine() {
+        return (int) (this.position >>> 32);
+    }
+    
+    /**
+     * returns the column of the node, 0 if unknown.
+     */
+    public int getColumn() {
+        return (int) this.position;
+    }
+
+    /* Attributes, allocated when the first attribute is set */
+    private NodeAttributes attributes;
+    
+    private String getAttribute(int attribute) {
+        return (this.attributes == null) ? null : this.attributes.get(attribute);
+    }
+    
+    private void setAttribute(int attribute, String value) {
+        this.getAttributes().set(attribute, value);
+    }
+    
+    private NodeAttributes getAttributes() {
+        if (this.attributes == null) {
+            this.attributes = new NodeAttributes();
+        }
+        return this.attributes;
+    }
+    
+    /**
+     * replaces the storage of the attributes of this node, e.g. by the side
+     * tables of a syntax tree arena.
+     */
+    public void setAttributes(NodeAttributes attributes) {
+        this.attributes = attributes;
+    }
+
     /* Attribute beginLabel */
-    private String beginLabel;
     public void setBeginLabel(String label) {
-        this.beginLabel = label;
+        setAttribute(NodeAttributes.BEGIN_LABEL, label);
     }    
     public String getBeginLabel() {
-        return this.beginLabel;
+        return getAttribute(NodeAttributes.BEGIN_LABEL);
     }
     
     /* Attribut nextLabel */
-    private String nextLabel;
     public void setNextLabel(String label) {
-        this.nextLabel = label;
+        setAttribute(NodeAttributes.NEXT_LABEL, label);
     }    
     
     public String getNextLabel() {
-        return this.nextLabel;
+        return getAttribute(NodeAttributes.NEXT_LABEL);
     }
     
     /* Attribut trueLabel */
-    private String trueLabel;
     public void setTrueLabel(String label) {
-        trueLabel = label;
+        setAttribute(NodeAttributes.TRUE_LABEL, label);
     }    
     
     public String getTrueLabel() {
-        return this.trueLabel;
+        return getAttribute(NodeAttributes.TRUE_LABEL);
     }
     
     /* Attribut falseLabel */
-    private String falseLabel;
     public void setFalseLabel(String label) {
-        falseLabel = label;
+        setAttribute(NodeAttributes.FALSE_LABEL, label);
     }    
     
     public String getFalseLabel() {
-        return this.falseLabel;
+        return getAttribute(NodeAttributes.FALSE_LABEL);
     }
     
     /* Attribut Type */
-    private String attributeType; 
-    public void setType(String type) {
-        attributeType = type;
+    public void setType(SemanticType type) {
+        this.getAttributes().setType(type);
     }    
     
-    public String getType() {
-        return this.attributeType;
+    public SemanticType getType() {
+        return (this.attributes == null) ? null : this.attributes.getType();
+    }
+    
+    /* Attribut Binding: variable denoted by an identifier */
+    public void setBinding(VariableType binding) {
+        this.getAttributes().setBinding(binding);
+    }    
+    
+    public VariableType getBinding() {
+        return (this.attributes == null) ? null : this.attributes.getBinding();
     }
     
     public abstract void accept(Visitor v);
+
+    public abstract <R, A> R accept(GenericVisitor<R, A> v, A arg);
 }
\ No newline at end of file
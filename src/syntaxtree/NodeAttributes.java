@@ -0,0 +1,75 @@
+package syntaxtree;
+
+import visitor.symboltable.SemanticType;
+import visitor.symboltable.VariableType;
+
+/**
+ * Objects of this class hold the attributes of a node of the syntax tree
+ * (labels, type and binding). A node allocates its attributes only when the
+ * first attribute is set, so nodes that never get an attribute need no
+ * storage for them.
+ *
+ * Subclasses may keep the attributes elsewhere, e.g. in the side tables of
+ * a syntax tree arena (see syntaxtree.arena.AstArena).
+ */
+public class NodeAttributes {
+
+    /* indices of the label attributes */
+    public static final int BEGIN_LABEL = 0;
+    public static final int NEXT_LABEL = 1;
+    public static final int TRUE_LABEL = 2;
+    public static final int FALSE_LABEL = 3;
+
+    /**
+     * number of label attributes
+     */
+    public static final int COUNT = 4;
+
+    private final String[] values = new String[COUNT];
+
+    private SemanticType type;
+
+    private VariableType binding;
+
+    /**
+     * returns the value of the given label attribute, null if it is not set.
+     */
+    public String get(int attribute) {
+        return values[attribute];
+    }
+
+    /**
+     * sets the value of the given label attribute.
+     */
+    public void set(int attribute, String value) {
+        values[attribute] = value;
+    }
+
+    /**
+     * returns the type, null if it is not set.
+     */
+    public SemanticType getType() {
+        return type;
+    }
+
+    /**
+     * sets the type.
+     */
+    public void setType(SemanticType type) {
+        this.type = type;
+    }
+
+    /**
+     * returns the variable an identifier is bound to, null if it is not set.
+     */
+    public VariableType getBinding() {
+        return binding;
+    }
+
+    /**
+     * sets the variable an identifier is bound to.
+     */
+    public void setBinding(VariableType binding) {
+        this.binding = binding;
+    }
+}
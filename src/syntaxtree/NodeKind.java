@@ -0,0 +1,58 @@
+package syntaxtree;
+
+/**
+ * Numbers of the kinds of nodes of the syntax tree, one for each class of
+ * nodes that can be visited (see visitor.Visitor). Each node carries its
+ * kind (see Node.kind), so passes may dispatch by a switch on it (see
+ * visitor.SwitchVisitor).
+ */
+public final class NodeKind {
+
+    public static final int PROGRAM = 0;
+    public static final int MAIN_CLASS = 1;
+    public static final int CLASS_DECL_SIMPLE = 2;
+    public static final int CLASS_DECL_EXTENDS = 3;
+    public static final int VAR_DECL = 4;
+    public static final int METHOD_DECL = 5;
+    public static final int FORMAL = 6;
+    public static final int INT_ARRAY_TYPE = 7;
+    public static final int BOOLEAN_TYPE = 8;
+    public static final int INTEGER_TYPE = 9;
+    public static final int IDENTIFIER_TYPE = 10;
+    public static final int BLOCK = 11;
+    public static final int IF = 12;
+    public static final int WHILE = 13;
+    public static final int PRINT = 14;
+    public static final int ASSIGN = 15;
+    public static final int ARRAY_ASSIGN = 16;
+    public static final int AND = 17;
+    public static final int LESS_THAN = 18;
+    public static final int PLUS = 19;
+    public static final int MINUS = 20;
+    public static final int TIMES = 21;
+    public static final int ARRAY_LOOKUP = 22;
+    public static final int ARRAY_LENGTH = 23;
+    public static final int CALL = 24;
+    public static final int INTEGER_LITERAL = 25;
+    public static final int TRUE = 26;
+    public static final int FALSE = 27;
+    public static final int IDENTIFIER_EXP = 28;
+    public static final int THIS = 29;
+    public static final int NEW_ARRAY = 30;
+    public static final int NEW_OBJECT = 31;
+    public static final int NOT = 32;
+    public static final int IDENTIFIER = 33;
+
+    /**
+     * list of nodes, only used by the syntax tree arena
+     */
+    public static final int LIST = 34;
+
+    /**
+     * number of kinds
+     */
+    public static final int COUNT = 35;
+
+    private NodeKind() {
+    }
+}
@@ -0,0 +1,72 @@
+package syntaxtree;
+
+import java.util.Arrays;
+
+/**
+ * Abstract class for all lists of nodes of the syntax tree.
+ *
+ * The elements are stored in an array. A list is filled by the parser and
+ * frozen when the node owning it is created; afterwards it is trimmed to its
+ * size and cannot be changed any more. Lists are not synchronized: after
+ * freezing they are only read.
+ */
+public abstract class NodeList<T> {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private Object[] elements;
+
+    private int size;
+
+    private boolean frozen;
+
+    protected NodeList() {
+        elements = EMPTY;
+        size = 0;
+        frozen = false;
+    }
+
+    public void addElement(T n) {
+
+        if (frozen) {
+            throw new IllegalStateException("list is frozen");
+        }
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(4, 2 * size));
+        }
+        elements[size++] = n;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T elementAt(int i) {
+
+        if (i >= size) {
+            throw new IndexOutOfBoundsException(i + " >= " + size);
+        }
+        return (T) elements[i];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * makes the list unchangeable and releases unused space.
+     */
+    public void freeze() {
+
+        if (!frozen) {
+            frozen = true;
+            if (size < elements.length) {
+                elements = (size == 0) ? EMPTY : Arrays.copyOf(elements, size);
+            }
+        }
+    }
+
+    /**
+     * checks if the list has been frozen.
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+}
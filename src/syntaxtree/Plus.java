@@ -1,5 +1,6 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
@@ -12,6 +13,7 @@ public class Plus extends Exp {
     public Exp right;
 
     public Plus(Exp left, Exp right) {        
+        super(NodeKind.PLUS);
         this.left = left;
         this.right = right;
     }
@@ -20,4 +22,9 @@ public class Plus extends Exp {
     public void accept(Visitor v) {
         v.visit(this);
     }
+
+    @Override
+    public <R, A> R accept(GenericVisitor<R, A> v, A arg) {
+        return v.visit(this, arg);
+    }
 }
@@ -1,21 +1,33 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
  * Objects of this class represent a Minijava program
  */
-public class Program {
+public class Program extends Node {
 
     public MainClass mainClass;
     public ClassDeclList classes;
 
-    public Program(MainClass mainClass, ClassDeclList classes) {        
+    /* identifiers of the program, see Symbols */
+    public final Symbols symbols;
+
+    public Program(MainClass mainClass, ClassDeclList classes,
+            Symbols symbols) {
+        super(NodeKind.PROGRAM);
         this.mainClass = mainClass;
         this.classes = classes;
+        this.symbols = symbols;
+        this.classes.freeze();
     }
 
     public void accept(Visitor v) {
         v.visit(this);
     }
+
+    public <R, A> R accept(GenericVisitor<R, A> v, A arg) {
+        return v.visit(this, arg);
+    }
 }
@@ -1,5 +1,6 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
@@ -7,6 +8,13 @@ import visitor.Visitor;
  */
 public abstract class Statement extends Node {
 
+    protected Statement(int kind) {
+        super(kind);
+    }
+
     @Override
     public abstract void accept(Visitor v);
+
+    @Override
+    public abstract <R, A> R accept(GenericVisitor<R, A> v, A arg);
 }
@@ -0,0 +1,119 @@
+package syntaxtree;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Table of the identifiers of a program. Each distinct identifier is given a
+ * dense number (symbol), starting with 0. Nodes of the syntax tree and the
+ * symbol tables refer to identifiers by their symbols, so looking up a name
+ * needs no string hashing or comparison.
+ *
+ * Each compilation has a table of its own: the parser creates it (see
+ * MiniJavaParser.getSymbols), the program carries it and the symbol table
+ * of the program takes it over (see ProgramTable.getSymbols). The table is
+ * freed with the program, so a long-running process compiling many
+ * programs does not accumulate their identifiers. Symbols of different
+ * tables must not be mixed.
+ *
+ * The table may be used by several threads at the same time, e.g. by the
+ * parsers of ParallelProgramParser.
+ */
+public final class Symbols {
+
+    /**
+     * symbol returned for names that have not been interned
+     */
+    public static final int NO_SYMBOL = -1;
+
+    /**
+     * mapping from names to their symbols
+     */
+    private final ConcurrentHashMap<String, Integer> symbols =
+            new ConcurrentHashMap<String, Integer>();
+
+    /**
+     * names indexed by their symbols. The array is replaced when it grows,
+     * entries are written before the symbol is published in the map.
+     */
+    private volatile String[] names = new String[1024];
+
+    /**
+     * number of symbols given so far
+     */
+    private int count = 0;
+
+    /**
+     * creates an empty table.
+     */
+    public Symbols() {
+    }
+
+    /**
+     * returns the symbol of the given name. A new symbol is created if the
+     * name has not been interned before.
+     *
+     * @param name identifier
+     * @return symbol of the identifier
+     */
+    public int intern(String name) {
+
+        Integer symbol = symbols.get(name);
+        if (symbol != null) {
+            return symbol;
+        }
+
+        synchronized (symbols) {
+            symbol = symbols.get(name);
+            if (symbol != null) {
+                return symbol;
+            }
+
+            String[] table = names;
+            if (count == table.length) {
+                String[] newTable = new String[2 * table.length];
+                System.arraycopy(table, 0, newTable, 0, count);
+                table = newTable;
+                names = newTable;
+            }
+            table[count] = name;
+            symbols.put(name, count);
+
+            return count++;
+        }
+    }
+
+    /**
+     * returns the symbol of the given name without creating a new one.
+     *
+     * @param name identifier
+     * @return symbol of the identifier, NO_SYMBOL if it has not been interned
+     */
+    public int lookup(String name) {
+
+        if (name == null) {
+            return NO_SYMBOL;
+        }
+        Integer symbol = symbols.get(name);
+        return (symbol != null) ? symbol : NO_SYMBOL;
+    }
+
+    /**
+     * returns the name of the given symbol. All nodes of the syntax tree
+     * of the program share this string for the same identifier.
+     *
+     * @param symbol symbol of an identifier
+     * @return name of the identifier
+     */
+    public String nameOf(int symbol) {
+        return names[symbol];
+    }
+
+    /**
+     * returns the number of symbols given so far.
+     */
+    public int size() {
+        synchronized (symbols) {
+            return count;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
@@ -8,7 +9,15 @@ import visitor.Visitor;
  */
 public class True extends Exp {
 
+    public True() {
+        super(NodeKind.TRUE);
+    }
+
     public void accept(Visitor v) {
         v.visit(this);
     }
+
+    public <R, A> R accept(GenericVisitor<R, A> v, A arg) {
+        return v.visit(this, arg);
+    }
 }
@@ -1,11 +1,18 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
  * Abstract class for all types
  */
-public abstract class Type {
+public abstract class Type extends Node {
+
+    protected Type(int kind) {
+        super(kind);
+    }
 
     public abstract void accept(Visitor v);
+
+    public abstract <R, A> R accept(GenericVisitor<R, A> v, A arg);
 }
@@ -1,5 +1,6 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
@@ -12,6 +13,7 @@ public class VarDecl extends Node {
     public Identifier id;
 
     public VarDecl(Type type, Identifier id) {
+        super(NodeKind.VAR_DECL);
         this.type = type;
         this.id = id;
     }
@@ -19,4 +21,8 @@ public class VarDecl extends Node {
     public void accept(Visitor v) {
         v.visit(this);
     }
+
+    public <R, A> R accept(GenericVisitor<R, A> v, A arg) {
+        return v.visit(this, arg);
+    }
 }
@@ -1,5 +1,6 @@
 package syntaxtree;
 
+import visitor.GenericVisitor;
 import visitor.Visitor;
 
 /**
@@ -12,6 +13,7 @@ public class While extends Statement {
     public Statement statement;
 
     public While(Exp exp, Statement statement) {
+        super(NodeKind.WHILE);
         this.exp = exp;
         this.statement = statement;
     }
@@ -20,5 +22,10 @@ public class While extends Statement {
     public void accept(Visitor v) {
         v.visit(this);
     }
+
+    @Override
+    public <R, A> R accept(GenericVisitor<R, A> v, A arg) {
+        return v.visit(this, arg);
+    }
 }
 
@@ -0,0 +1,52 @@
+package syntaxtree.arena;
+
+import syntaxtree.NodeAttributes;
+import visitor.symboltable.SemanticType;
+import visitor.symboltable.VariableType;
+
+/**
+ * Attributes of a node rebuilt from an arena. The attributes are stored in
+ * the side tables of the arena, so they are kept when the node is rebuilt
+ * again by a later pass.
+ */
+class ArenaAttributes extends NodeAttributes {
+
+    private final AstArena arena;
+
+    private final int node;
+
+    ArenaAttributes(AstArena arena, int node) {
+        this.arena = arena;
+        this.node = node;
+    }
+
+    @Override
+    public String get(int attribute) {
+        return arena.getAttribute(node, attribute);
+    }
+
+    @Override
+    public void set(int attribute, String value) {
+        arena.setAttribute(node, attribute, value);
+    }
+
+    @Override
+    public SemanticType getType() {
+        return arena.getType(node);
+    }
+
+    @Override
+    public void setType(SemanticType type) {
+        arena.setType(node, type);
+    }
+
+    @Override
+    public VariableType getBinding() {
+        return arena.getBinding(node);
+    }
+
+    @Override
+    public void setBinding(VariableType binding) {
+        arena.setBinding(node, binding);
+    }
+}
@@ -0,0 +1,152 @@
+package syntaxtree.arena;
+
+import java.util.Arrays;
+
+import syntaxtree.*;
+import visitor.TreeWalker;
+
+/**
+ * Pass that copies a syntax tree into an arena (see AstArena).
+ *
+ * The ids of the nodes already created are kept on a stack. When a node is
+ * left, its children have pushed their ids; the elements of its lists are
+ * grouped into list nodes, then the node is created from the ids of its
+ * children, which are replaced by the id of the node. As the tree is
+ * traversed by a TreeWalker, its depth is not limited by the call stack.
+ */
+class ArenaBuilder extends TreeWalker<Void, Void> {
+
+    private final AstArena arena;
+
+    /**
+     * ids of the created nodes whose parent has not been created yet
+     */
+    private int[] stack = new int[64];
+
+    /**
+     * number of ids on the stack
+     */
+    private int top = 0;
+
+    /**
+     * creates a builder of an arena for a program with the given
+     * identifiers.
+     */
+    ArenaBuilder(Symbols symbols) {
+        this.arena = new AstArena(symbols);
+    }
+
+    /**
+     * returns the arena with the nodes created so far.
+     */
+    AstArena getArena() {
+        return arena;
+    }
+
+    /**
+     * creates a node for the given object from the ids on the stack above
+     * the given mark.
+     */
+    private void add(Node n, int value, int mark) {
+        add(n.kind, value, n.getPosition(), mark);
+    }
+
+    private void add(int kind, int value, long position, int mark) {
+        int id = arena.add(kind, value, position, stack, mark, top - mark);
+        top = mark;
+        if (top == stack.length) {
+            stack = Arrays.copyOf(stack, 2 * stack.length);
+        }
+        stack[top++] = id;
+    }
+
+    /**
+     * creates list nodes of the given sizes from the ids on the stack
+     * starting at index from: the ids of the elements of each list are
+     * replaced by the id of the list, the ids above the lists are kept.
+     */
+    private void addLists(int from, int... sizes) {
+
+        for (int size : sizes) {
+            int id = arena.add(NodeKind.LIST, 0, 0L, stack, from, size);
+            if (top + 1 > stack.length) {
+                stack = Arrays.copyOf(stack, 2 * stack.length);
+            }
+            System.arraycopy(stack, from + size, stack, from + 1,
+                    top - from - size);
+            stack[from++] = id;
+            top += 1 - size;
+        }
+    }
+
+    /* ========================================================================
+     * nodes
+     * ===================================================================== */
+
+    @Override
+    protected Void leave(Node n, Void arg) {
+
+        int mark = top - childCount(n);
+
+        switch (n.kind) {
+
+            case NodeKind.PROGRAM:
+                addLists(mark + 1, ((Program) n).classes.size());
+                add(n, 0, mark);
+                break;
+
+            case NodeKind.CLASS_DECL_SIMPLE: {
+                ClassDeclSimple c = (ClassDeclSimple) n;
+                addLists(mark + 1, c.varDecls.size(), c.methodDecls.size());
+                add(n, 0, mark);
+                break;
+            }
+
+            case NodeKind.CLASS_DECL_EXTENDS: {
+                ClassDeclExtends c = (ClassDeclExtends) n;
+                addLists(mark + 2, c.varDecls.size(), c.methodDecls.size());
+                add(n, 0, mark);
+                break;
+            }
+
+            case NodeKind.METHOD_DECL: {
+                MethodDecl m = (MethodDecl) n;
+                addLists(mark + 2, m.formalList.size(), m.varDecls.size(),
+                        m.getStatements().size());
+                add(n, 0, mark);
+                break;
+            }
+
+            case NodeKind.BLOCK:
+                addLists(mark, ((Block) n).statements.size());
+                add(n, 0, mark);
+                break;
+
+            case NodeKind.CALL:
+                addLists(mark + 2, ((Call) n).expList.size());
+                add(n, 0, mark);
+                break;
+
+            case NodeKind.IDENTIFIER_TYPE:
+                add(n, ((IdentifierType) n).symbol, mark);
+                break;
+
+            case NodeKind.INTEGER_LITERAL:
+                add(n, ((IntegerLiteral) n).value, mark);
+                break;
+
+            case NodeKind.IDENTIFIER_EXP:
+                add(n, ((IdentifierExp) n).symbol, mark);
+                break;
+
+            case NodeKind.IDENTIFIER:
+                add(n, ((Identifier) n).symbol, mark);
+                break;
+
+            default:
+                add(n, 0, mark);
+                break;
+        }
+        return null;
+    }
+}
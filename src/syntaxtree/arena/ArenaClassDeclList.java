@@ -0,0 +1,40 @@
+package syntaxtree.arena;
+
+import syntaxtree.ClassDecl;
+import syntaxtree.ClassDeclList;
+
+/**
+ * List of the classes of a program stored in an arena. Each access rebuilds
+ * the requested class, so only the class currently visited is held as
+ * objects.
+ */
+class ArenaClassDeclList extends ClassDeclList {
+
+    private final AstArena arena;
+
+    /**
+     * node id of the list
+     */
+    private final int list;
+
+    ArenaClassDeclList(AstArena arena, int list) {
+        this.arena = arena;
+        this.list = list;
+    }
+
+    @Override
+    public void addElement(ClassDecl n) {
+        throw new UnsupportedOperationException(
+                "classes of an arena cannot be changed");
+    }
+
+    @Override
+    public ClassDecl elementAt(int i) {
+        return arena.materializeClass(arena.child(list, i));
+    }
+
+    @Override
+    public int size() {
+        return arena.childCount(list);
+    }
+}
@@ -0,0 +1,589 @@
+package syntaxtree.arena;
+
+import java.util.Arrays;
+
+import syntaxtree.*;
+import visitor.symboltable.SemanticType;
+import visitor.symboltable.VariableType;
+
+/**
+ * Objects of this class represent the syntax tree of a Minijava program in
+ * a compact form: all nodes are stored in arrays and are identified by a
+ * dense number (node id). For each node the arena stores its kind (see
+ * NodeKind), an int value (the symbol of an identifier or the value of an
+ * integer literal), its source position and the ids of its children. Lists of nodes are nodes of
+ * kind LIST.
+ *
+ * Children are stored before their parents, so the root of the tree is the
+ * node created last. The nodes of a subtree have consecutive ids, the root
+ * of the subtree being the last of them. The children of a node occupy a
+ * contiguous range of the array of child ids.
+ *
+ * Attributes of nodes (labels, types and bindings) are kept in side tables indexed by
+ * node id. A table is allocated when the first attribute of its kind is set.
+ *
+ * The existing visitors work on top of the arena through toProgram(): it
+ * delivers a program whose classes are rebuilt as objects each time they
+ * are accessed. The attributes of these objects are stored in the side
+ * tables of the arena, so they survive from one pass to the next.
+ */
+public class AstArena {
+
+    /**
+     * kind of each node
+     */
+    private byte[] kinds;
+
+    /**
+     * value of each node
+     */
+    private int[] values;
+
+    /**
+     * source position of each node, packed as by Node.getPosition()
+     */
+    private long[] positions;
+
+    /**
+     * index of the first child of each node in the array children. The
+     * children of node i end where the children of node i + 1 begin.
+     */
+    private int[] childStart;
+
+    /**
+     * ids of the children of all nodes
+     */
+    private int[] children;
+
+    /**
+     * number of nodes
+     */
+    private int size;
+
+    /**
+     * number of used entries of the array children
+     */
+    private int childCount;
+
+    /**
+     * side tables of the labels, indexed by attribute and node id
+     */
+    private final String[][] attributes;
+
+    /**
+     * side table of the types, indexed by node id
+     */
+    private SemanticType[] types;
+
+    /**
+     * side table of the bindings of identifiers, indexed by node id
+     */
+    private VariableType[] bindings;
+
+    /**
+     * identifiers of the program, to which the values of identifier nodes
+     * refer
+     */
+    private final Symbols symbols;
+
+    /**
+     * creates an empty arena for the nodes of a program with the given
+     * identifiers.
+     */
+    public AstArena(Symbols symbols) {
+        this.symbols = symbols;
+        kinds = new byte[256];
+        values = new int[256];
+        positions = new long[256];
+        childStart = new int[257];
+        children = new int[256];
+        attributes = new String[NodeAttributes.COUNT][];
+    }
+
+    /**
+     * creates an arena for the syntax tree of the given program.
+     *
+     * @param program syntax tree of a Minijava program
+     * @return arena with the nodes of the syntax tree
+     */
+    public static AstArena build(Program program) {
+
+        ArenaBuilder builder = new ArenaBuilder(program.symbols);
+        builder.walk(program, null);
+        return builder.getArena();
+    }
+
+    /* ========================================================================
+     * creating nodes
+     * ===================================================================== */
+
+    /**
+     * adds a new node whose children are given by count entries of the array
+     * childIds starting at index from.
+     *
+     * @return id of the new node
+     */
+    public int add(int kind, int value, long position,
+            int[] childIds, int from, int count) {
+
+        if (size + 1 == kinds.length) {
+            int capacity = 2 * kinds.length;
+            kinds = Arrays.copyOf(kinds, capacity);
+            values = Arrays.copyOf(values, capacity);
+            positions = Arrays.copyOf(positions, capacity);
+            childStart = Arrays.copyOf(childStart, capacity + 1);
+        }
+        if (childCount + count > children.length) {
+            children = Arrays.copyOf(children,
+                    Math.max(2 * children.length, childCount + count));
+        }
+
+        System.arraycopy(childIds, from, children, childCount, count);
+        childCount += count;
+
+        int id = size++;
+        kinds[id] = (byte) kind;
+        values[id] = value;
+        positions[id] = position;
+        childStart[size] = childCount;
+
+        return id;
+    }
+
+    /* ========================================================================
+     * accessing nodes
+     * ===================================================================== */
+
+    /**
+     * returns the number of nodes.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * returns the id of the root node (the program).
+     */
+    public int root() {
+        return size - 1;
+    }
+
+    /**
+     * returns the kind of the given node, see NodeKind.
+     */
+    public int kind(int node) {
+        return kinds[node];
+    }
+
+    /**
+     * returns the value of the given node: the symbol of an identifier, the
+     * value of an integer literal, 0 otherwise.
+     */
+    public int value(int node) {
+        return values[node];
+    }
+
+    /**
+     * returns the source position of the given node, packed as by
+     * Node.getPosition().
+     */
+    public long position(int node) {
+        return positions[node];
+    }
+
+    /**
+     * returns the number of children of the given node.
+     */
+    public int childCount(int node) {
+        return childStart[node + 1] - childStart[node];
+    }
+
+    /**
+     * returns the id of the i-th child of the given node.
+     */
+    public int child(int node, int i) {
+        return children[childStart[node] + i];
+    }
+
+    /* ========================================================================
+     * side tables
+     * ===================================================================== */
+
+    /**
+     * returns the given attribute of the given node, null if it is not set.
+     */
+    public String getAttribute(int node, int attribute) {
+
+        String[] table = attributes[attribute];
+        return (table == null || node >= table.length) ? null : table[node];
+    }
+
+    /**
+     * sets the given attribute of the given node.
+     */
+    public void setAttribute(int node, int attribute, String value) {
+
+        String[] table = attributes[attribute];
+        if (table == null || node >= table.length) {
+            table = attributeTable(attribute);
+        }
+        table[node] = value;
+    }
+
+    /**
+     * returns the side table of the given attribute, allocating it if it
+     * does not hold all nodes. Tables are allocated under the lock of the
+     * arena, so threads setting attributes of different nodes (e.g. while
+     * generating the code of different classes) share the same table.
+     */
+    private synchronized String[] attributeTable(int attribute) {
+
+        String[] table = attributes[attribute];
+        if (table == null || table.length < size) {
+            table = (table == null)
+                    ? new String[size]
+                    : Arrays.copyOf(table, size);
+            attributes[attribute] = table;
+        }
+        return table;
+    }
+
+    /**
+     * returns the type of the given node, null if it is not set.
+     */
+    public SemanticType getType(int node) {
+        return (types == null || node >= types.length) ? null : types[node];
+    }
+
+    /**
+     * sets the type of the given node.
+     */
+    public void setType(int node, SemanticType type) {
+
+        SemanticType[] table = types;
+        if (table == null || node >= table.length) {
+            table = typeTable();
+        }
+        table[node] = type;
+    }
+
+    /**
+     * returns the side table of the types, see attributeTable.
+     */
+    private synchronized SemanticType[] typeTable() {
+
+        if (types == null || types.length < size) {
+            types = (types == null)
+                    ? new SemanticType[size]
+                    : Arrays.copyOf(types, size);
+        }
+        return types;
+    }
+
+    /**
+     * returns the binding of the given node, null if it is not set.
+     */
+    public VariableType getBinding(int node) {
+        return (bindings == null || node >= bindings.length)
+                ? null : bindings[node];
+    }
+
+    /**
+     * sets the binding of the given node.
+     */
+    public void setBinding(int node, VariableType binding) {
+
+        VariableType[] table = bindings;
+        if (table == null || node >= table.length) {
+            table = bindingTable();
+        }
+        table[node] = binding;
+    }
+
+    /**
+     * returns the side table of the bindings, see attributeTable.
+     */
+    private synchronized VariableType[] bindingTable() {
+
+        if (bindings == null || bindings.length < size) {
+            bindings = (bindings == null)
+                    ? new VariableType[size]
+                    : Arrays.copyOf(bindings, size);
+        }
+        return bindings;
+    }
+
+    /* ========================================================================
+     * adapter for visitors
+     * ===================================================================== */
+
+    /**
+     * returns the program represented by this arena. The main class is
+     * rebuilt immediately, every other class each time it is accessed.
+     */
+    public Program toProgram() {
+
+        int program = root();
+        return new Program(
+                (MainClass) materialize(child(program, 0)),
+                new ArenaClassDeclList(this, child(program, 1)), symbols);
+    }
+
+    /**
+     * rebuilds the class declaration given by its node id as object.
+     */
+    ClassDecl materializeClass(int node) {
+        return (ClassDecl) materialize(node);
+    }
+
+    /**
+     * rebuilds the subtree of the given node as objects. The nodes of the
+     * subtree are rebuilt in the order of their ids, so the children of a
+     * node are available when it is rebuilt, without recursion.
+     */
+    private Object materialize(int node) {
+
+        int first = node;
+        while (childCount(first) > 0) {
+            first = child(first, 0);
+        }
+
+        return new Rebuilder(first, node).rebuildAll();
+    }
+
+    /**
+     * stores the attributes of the given object in the side tables of the
+     * given node.
+     */
+    private Node bind(Node object, int node) {
+        object.setAttributes(new ArenaAttributes(this, node));
+        return object;
+    }
+
+    /**
+     * rebuilds the nodes of a subtree in the order of their ids. The objects
+     * are kept per subtree, so classes may be rebuilt concurrently.
+     */
+    private class Rebuilder {
+
+        /**
+         * objects rebuilt so far, indexed by node id minus first
+         */
+        private final Object[] built;
+
+        private final int first;
+
+        private final int last;
+
+        Rebuilder(int first, int last) {
+            this.built = new Object[last - first + 1];
+            this.first = first;
+            this.last = last;
+        }
+
+        /**
+         * rebuilds the nodes from first to last and returns the object of
+         * the last one. Lists are rebuilt with their parents.
+         */
+        Object rebuildAll() {
+
+            for (int id = first; id <= last; id++) {
+                if (kind(id) != NodeKind.LIST) {
+                    Node object = rebuild(id);
+                    object.setPosition(positions[id]);
+                    built[id - first] = object;
+                }
+            }
+            return built[last - first];
+        }
+
+        /**
+         * returns the object rebuilt for the given node.
+         */
+        private Object built(int node) {
+            return built[node - first];
+        }
+
+        private Node rebuild(int node) {
+
+            switch (kind(node)) {
+
+                case NodeKind.MAIN_CLASS:
+                    return new MainClass(identifier(child(node, 0)),
+                            identifier(child(node, 1)), statement(child(node, 2)));
+
+                case NodeKind.CLASS_DECL_SIMPLE:
+                    return new ClassDeclSimple(identifier(child(node, 0)),
+                            varDecls(child(node, 1)), methodDecls(child(node, 2)));
+
+                case NodeKind.CLASS_DECL_EXTENDS:
+                    return new ClassDeclExtends(identifier(child(node, 0)),
+                            identifier(child(node, 1)),
+                            varDecls(child(node, 2)), methodDecls(child(node, 3)));
+
+                case NodeKind.VAR_DECL:
+                    return bind(new VarDecl(type(child(node, 0)),
+                            identifier(child(node, 1))), node);
+
+                case NodeKind.METHOD_DECL:
+                    return new MethodDecl(type(child(node, 0)),
+                            identifier(child(node, 1)), formals(child(node, 2)),
+                            varDecls(child(node, 3)), statements(child(node, 4)),
+                            exp(child(node, 5)));
+
+                case NodeKind.FORMAL:
+                    return new Formal(type(child(node, 0)), identifier(child(node, 1)));
+
+                case NodeKind.INT_ARRAY_TYPE:
+                    return new IntArrayType();
+
+                case NodeKind.BOOLEAN_TYPE:
+                    return new BooleanType();
+
+                case NodeKind.INTEGER_TYPE:
+                    return new IntegerType();
+
+                case NodeKind.IDENTIFIER_TYPE:
+                    return new IdentifierType(symbols.nameOf(value(node)),
+                            symbols);
+
+                case NodeKind.BLOCK:
+                    return bind(new Block(statements(child(node, 0))), node);
+
+                case NodeKind.IF:
+                    return bind(new If(exp(child(node, 0)), statement(child(node, 1)),
+                            statement(child(node, 2))), node);
+
+                case NodeKind.WHILE:
+                    return bind(new While(exp(child(node, 0)),
+                            statement(child(node, 1))), node);
+
+                case NodeKind.PRINT:
+                    return bind(new Print(exp(child(node, 0))), node);
+
+                case NodeKind.ASSIGN:
+                    return bind(new Assign(identifier(child(node, 0)),
+                            exp(child(node, 1))), node);
+
+                case NodeKind.ARRAY_ASSIGN:
+                    return bind(new ArrayAssign(identifier(child(node, 0)),
+                            exp(child(node, 1)), exp(child(node, 2))), node);
+
+                case NodeKind.AND:
+                    return bind(new And(exp(child(node, 0)), exp(child(node, 1))), node);
+
+                case NodeKind.LESS_THAN:
+                    return bind(new LessThan(exp(child(node, 0)), exp(child(node, 1))), node);
+
+                case NodeKind.PLUS:
+                    return bind(new Plus(exp(child(node, 0)), exp(child(node, 1))), node);
+
+                case NodeKind.MINUS:
+                    return bind(new Minus(exp(child(node, 0)), exp(child(node, 1))), node);
+
+                case NodeKind.TIMES:
+                    return bind(new Times(exp(child(node, 0)), exp(child(node, 1))), node);
+
+                case NodeKind.ARRAY_LOOKUP:
+                    return bind(new ArrayLookup(exp(child(node, 0)),
+                            exp(child(node, 1))), node);
+
+                case NodeKind.ARRAY_LENGTH:
+                    return bind(new ArrayLength(exp(child(node, 0))), node);
+
+                case NodeKind.CALL:
+                    return bind(new Call(exp(child(node, 0)), identifier(child(node, 1)),
+                            exps(child(node, 2))), node);
+
+                case NodeKind.INTEGER_LITERAL:
+                    return bind(new IntegerLiteral(value(node)), node);
+
+                case NodeKind.TRUE:
+                    return bind(new True(), node);
+
+                case NodeKind.FALSE:
+                    return bind(new False(), node);
+
+                case NodeKind.IDENTIFIER_EXP:
+                    return bind(new IdentifierExp(symbols.nameOf(value(node)),
+                            symbols), node);
+
+                case NodeKind.THIS:
+                    return bind(new This(), node);
+
+                case NodeKind.NEW_ARRAY:
+                    return bind(new NewArray(exp(child(node, 0))), node);
+
+                case NodeKind.NEW_OBJECT:
+                    return bind(new NewObject(identifier(child(node, 0))), node);
+
+                case NodeKind.NOT:
+                    return bind(new Not(exp(child(node, 0))), node);
+
+                case NodeKind.IDENTIFIER:
+                    return bind(new Identifier(symbols.nameOf(value(node)),
+                            symbols), node);
+
+                default:
+                    throw new IllegalStateException("node " + node
+                            + " of kind " + kind(node) + " cannot be rebuilt");
+            }
+        }
+
+        private Identifier identifier(int node) {
+            return (Identifier) built(node);
+        }
+
+        private Type type(int node) {
+            return (Type) built(node);
+        }
+
+        private Statement statement(int node) {
+            return (Statement) built(node);
+        }
+
+        private Exp exp(int node) {
+            return (Exp) built(node);
+        }
+
+        private VarDeclList varDecls(int list) {
+            VarDeclList varDecls = new VarDeclList();
+            for (int i = 0; i < childCount(list); i++) {
+                varDecls.addElement((VarDecl) built(child(list, i)));
+            }
+            return varDecls;
+        }
+
+        private MethodDeclList methodDecls(int list) {
+            MethodDeclList methodDecls = new MethodDeclList();
+            for (int i = 0; i < childCount(list); i++) {
+                methodDecls.addElement((MethodDecl) built(child(list, i)));
+            }
+            return methodDecls;
+        }
+
+        private FormalList formals(int list) {
+            FormalList formals = new FormalList();
+            for (int i = 0; i < childCount(list); i++) {
+                formals.addElement((Formal) built(child(list, i)));
+            }
+            return formals;
+        }
+
+        private StatementList statements(int list) {
+            StatementList statements = new StatementList();
+            for (int i = 0; i < childCount(list); i++) {
+                statements.addElement(statement(child(list, i)));
+            }
+            return statements;
+        }
+
+        private ExpList exps(int list) {
+            ExpList exps = new ExpList();
+            for (int i = 0; i < childCount(list); i++) {
+                exps.addElement(exp(child(list, i)));
+            }
+            return exps;
+        }
+    }
+}
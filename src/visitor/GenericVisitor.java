@@ -0,0 +1,49 @@
+package visitor;
+
+import syntaxtree.*;
+
+/**
+ * Interface for all visitors that deliver a result for each visited node.
+ * The argument is handed down from a node to its children, e.g. the scope
+ * of the symbol table in which the node is visited. Visitors that keep no
+ * state of their own may visit several trees at the same time.
+ *
+ * @param <R> type of the results
+ * @param <A> type of the arguments
+ */
+public interface GenericVisitor<R, A> {
+  public R visit(Program n, A arg);
+  public R visit(MainClass n, A arg);
+  public R visit(ClassDeclSimple n, A arg);
+  public R visit(ClassDeclExtends n, A arg);
+  public R visit(VarDecl n, A arg);
+  public R visit(MethodDecl n, A arg);
+  public R visit(Formal n, A arg);
+  public R visit(IntArrayType n, A arg);
+  public R visit(BooleanType n, A arg);
+  public R visit(IntegerType n, A arg);
+  public R visit(IdentifierType n, A arg);
+  public R visit(Block n, A arg);
+  public R visit(If n, A arg);
+  public R visit(While n, A arg);
+  public R visit(Print n, A arg);
+  public R visit(Assign n, A arg);
+  public R visit(ArrayAssign n, A arg);
+  public R visit(And n, A arg);
+  public R visit(LessThan n, A arg);
+  public R visit(Plus n, A arg);
+  public R visit(Minus n, A arg);
+  public R visit(Times n, A arg);
+  public R visit(ArrayLookup n, A arg);
+  public R visit(ArrayLength n, A arg);
+  public R visit(Call n, A arg);
+  public R visit(IntegerLiteral n, A arg);
+  public R visit(True n, A arg);
+  public R visit(False n, A arg);
+  public R visit(IdentifierExp n, A arg);
+  public R visit(This n, A arg);
+  public R visit(NewArray n, A arg);
+  public R visit(NewObject n, A arg);
+  public R visit(Not n, A arg);
+  public R visit(Identifier n, A arg);
+}
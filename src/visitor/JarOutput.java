@@ -0,0 +1,126 @@
+package visitor;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import jasmin.ClassFile;
+
+/**
+ * Objects of this class assemble the Jasmin code of the classes of a
+ * program with Jasmin and write the class files straight into a runnable
+ * JAR file. The JAR is written sequentially by a ZipOutputStream, so no
+ * Jasmin or class files are created. Its manifest names the main class.
+ *
+ * The entries are compressed, or stored uncompressed if requested, which
+ * makes them faster to write and to load. The size and the checksum of a
+ * stored entry precede its data, so each class is assembled into a buffer
+ * first.
+ *
+ * The classes may be written by several threads, e.g. by the visitors of
+ * JasminVisitor.generateClasses; they are assembled and written one at a
+ * time.
+ */
+public class JarOutput implements JasminOutput {
+
+    private final ZipOutputStream out;
+
+    /**
+     * true if the entries are stored uncompressed
+     */
+    private final boolean stored;
+
+    /**
+     * buffer for the entry being written
+     */
+    private final ByteArrayOutputStream entry = new ByteArrayOutputStream();
+
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * creates the given JAR file and writes its manifest.
+     *
+     * @param filename name of the JAR file
+     * @param mainClass name of the main class of the program
+     * @param stored true if the entries are to be stored uncompressed
+     * @throws IOException if the file cannot be created
+     */
+    public JarOutput(String filename, String mainClass, boolean stored)
+            throws IOException {
+
+        this.out = new ZipOutputStream(new BufferedOutputStream(
+                new FileOutputStream(filename), 65536));
+        this.stored = stored;
+
+        Manifest manifest = new Manifest();
+        Attributes attributes = manifest.getMainAttributes();
+        attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        attributes.put(Attributes.Name.MAIN_CLASS, mainClass);
+        manifest.write(entry);
+        this.putEntry(JarFile.MANIFEST_NAME);
+    }
+
+    /**
+     * assembles the code of the given class and writes the class file as
+     * entry classname.class.
+     *
+     * @throws IOException if the code cannot be assembled or written
+     */
+    public synchronized void writeClass(String classname, ByteBuffer code)
+            throws IOException {
+
+        Reader source = new InputStreamReader(new ByteArrayInputStream(
+                code.array(), code.arrayOffset() + code.position(),
+                code.remaining()), "ISO-8859-1");
+
+        entry.reset();
+        ClassFile classFile = new ClassFile();
+        try {
+            classFile.readJasmin(source, classname + ".j", false);
+            if (classFile.errorCount() > 0) {
+                throw new IOException(classFile.errorCount()
+                        + " errors in Jasmin code of class " + classname);
+            }
+            classFile.write(entry);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Jasmin code of class " + classname
+                    + " cannot be assembled: " + e.getMessage());
+        }
+        this.putEntry(classname + ".class");
+    }
+
+    /**
+     * completes the JAR file and closes it.
+     */
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * writes the buffered bytes as entry with the given name and empties
+     * the buffer.
+     */
+    private void putEntry(String name) throws IOException {
+
+        ZipEntry zipEntry = new ZipEntry(name);
+        if (stored) {
+            crc.reset();
+            crc.update(entry.toByteArray());
+            zipEntry.setMethod(ZipEntry.STORED);
+            zipEntry.setSize(entry.size());
+            zipEntry.setCompressedSize(entry.size());
+            zipEntry.setCrc(crc.getValue());
+        }
+        out.putNextEntry(zipEntry);
+        entry.writeTo(out);
+        out.closeEntry();
+        entry.reset();
+    }
+}
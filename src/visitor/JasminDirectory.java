@@ -0,0 +1,51 @@
+package visitor;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Objects of this class write the Jasmin code of each class to a file of
+ * its own in a directory, which is assembled by Jasmin afterwards.
+ */
+public class JasminDirectory implements JasminOutput {
+
+    /**
+     * path to the directory of the Jasmin files
+     */
+    private final String jasminDir;
+
+    /**
+     * creates an output to the given directory.
+     *
+     * @param jasminDir path to the Jasmin files
+     */
+    public JasminDirectory(String jasminDir) {
+        this.jasminDir = jasminDir;
+    }
+
+    /**
+     * writes the code to the file classname.j by a single write of a file
+     * channel (unless the channel writes less at a time).
+     */
+    public void writeClass(String classname, ByteBuffer code)
+            throws IOException {
+
+        FileOutputStream out =
+                new FileOutputStream(jasminDir + "/" + classname + ".j");
+        try {
+            FileChannel channel = out.getChannel();
+            while (code.hasRemaining()) {
+                channel.write(code);
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * nothing to be done, each file is closed when it has been written.
+     */
+    public void close() {
+    }
+}
@@ -0,0 +1,25 @@
+package visitor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Interface for the destination of the Jasmin code generated for the
+ * classes of a program (see JasminVisitor): a directory of Jasmin files or
+ * a JAR file of assembled classes. The output is closed once all classes
+ * have been written.
+ */
+public interface JasminOutput extends Closeable {
+
+    /**
+     * writes the Jasmin code of the given class. The code is encoded as
+     * ISO-8859-1 between the position and the limit of the buffer; the
+     * buffer is reused for the next class once the method has returned.
+     *
+     * @param classname name of the Minijava class
+     * @param code encoded Jasmin code of the class
+     * @throws IOException if the class cannot be written
+     */
+    void writeClass(String classname, ByteBuffer code) throws IOException;
+}
@@ -0,0 +1,25 @@
+package visitor;
+
+import java.io.IOException;
+
+/**
+ * Exception thrown when the code of a class cannot be written to the
+ * output (see JasminOutput). The code is written by the JasminVisitor while
+ * it walks the program, which cannot declare the IOException, so it is
+ * wrapped into this unchecked exception.
+ */
+public class JasminOutputException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public JasminOutputException(IOException cause) {
+        super(cause);
+    }
+
+    /**
+     * returns the exception thrown by the output.
+     */
+    public IOException getIOException() {
+        return (IOException) getCause();
+    }
+}
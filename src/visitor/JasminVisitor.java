@@ -1,6 +1,12 @@
 package visitor;
 
-import java.io.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import syntaxtree.*;
 import visitor.symboltable.*;
@@ -9,807 +15,1074 @@ import visitor.symboltable.*;
  * Objects of the class JasminVisitor traverse an abstract syntax tree for some
  * Minijava program (in a depth-first manner) in order to create Jasmin files
  * for each Minijava class represented in the abstract syntax tree. The
- * generation of Jasmin files is based on the syntax tree, the symbol table, and
- * the information on types for each expression node of the syntax tree.
+ * generation of Jasmin files is based on the syntax tree and the symbol
+ * table.
+ *
+ * The tree is traversed by a TreeWalker; the argument is the scope of the
+ * symbol table in which a node is visited. The code of an expression leaves
+ * its value on the operand stack, the hooks emit the code before, between
+ * and after the code of the operands. Expressions deliver their type, all
+ * other nodes null. The labels of a statement or expression are kept in the
+ * attributes of its node.
+ *
+ * The code of a class is collected in a buffer, which is handed to the
+ * output (see JasminOutput) once the class is complete: a directory, where
+ * it is written to the Jasmin file of the class with a single write, or a
+ * JAR file, into which it is assembled. The buffers are reused for all
+ * classes generated by a visitor, and for further programs if the visitor
+ * is reset (see reset). Labels are numbered per class, so the classes of a
+ * program may be generated by several visitors in parallel (see
+ * generateClasses).
+ *
+ * After the symbol table has been filled, which needs the declarations
+ * only, the visitor may also run as the single pass over the method bodies
+ * (see generateChecked): the uses of variables are looked up in the scopes
+ * on the way, and the types of the expressions, which are derived for the
+ * code anyway, are checked like by the TypeVisitor. The code of the classes
+ * is then kept until the whole program is checked and written only if no
+ * errors have been found.
  *
  * Note: the implementation includes no error handling
  */
-public class JasminVisitor implements Visitor {
-    
+public class JasminVisitor extends TreeWalker<SemanticType, SymbolTable> {
+
     /**
      * Enumeration that provides all kinds of Labels to be created
      */
     enum Label {NEXT, BEGIN, TRUE, FALSE};
-    
-    /**
-     * specifies the directory to which the writer writes the Jasmin file
-     */
-    private final String jasminDir;
-    
-    /**
-     * symbol table corresponding to the actually visited Minijava program
-     */
-    private SymbolTable symbolTable;
-    
-    /**
-     * holds a unique number for the next label to be generated
-     */
-    private int nextLabelNo;
-    
+
     /**
-     * holds the connection to the file to be written for the current class
+     * destination of the code of the classes
      */
-    private PrintWriter writer;
-    
-    /**
-     * Creates a new instance of class JasminVisitor with a path of a directory
-     * to which the Jasmin file will be generated, a symbol table and type
-     * mapping (mapping from nodes of the abstract syntax tree to their
-     * corresponding types).
-     *
-     * The initial state indicates that neither a class nor a method scope
-     * has yet been entered and no labels have been generated.
-     * 
-     * @param jasminDir   path to the Jasmin file
-     * @param symbolTable symbol table derived from the correspinding Minijava 
-     *                    program
-     */
-    public JasminVisitor(
-            String jasminDir,
-            SymbolTable symbolTable) {
-        
-        this.jasminDir = jasminDir;
-        this.symbolTable = symbolTable;
-        
-        /* initialise labelling */
-        this.nextLabelNo = 0;
-    }
-    
-    /* ========================================================================
-     * visit methods
-     * ===================================================================== */
-    
+    private JasminOutput output;
+
     /**
-     * creates Jasmin code for a Minijava program.
-     * 
-     * @param node 
+     * separates the lines of the Jasmin files
      */
-    @Override
-    public void visit(Program node) {
-        node.mainClass.accept(this);
-        for ( int i = 0; i < node.classes.size(); i++ ) {
-            node.classes.elementAt(i).accept(this);
-        }
-    }
-    
+    private static final String NEWLINE = System.getProperty("line.separator");
+
     /**
-     * creates Jasmin code for the main class declaration.
-     * 
-     * @param node 
+     * number of tasks per thread of the pool generating the classes
      */
-    @Override
-    public void visit(MainClass node) {
-        
-        /* Jasmin-Datei fr aktuelle Klasse ffnen */
-        writer = openWriter(node.classId.name);
-        
-        /* enter scope of main class */
-        enterClassScope(node.classId.name);
-        
-        /* emit Jasmin directives */
-        node.classId.accept(this);
-        emitCode(".class public " + node.classId.name);
-        emitCode(".super java/lang/Object");
-        
-        /* emit standard initialization */
-        emitCode(".method public <init>()V");
-        emitCode("aload_0");
-        emitCode("invokespecial java/lang/Object/<init>()V");
-        emitCode("return");
-        emitCode(".end method");
-        
-        /* emit main method declaration */
-        node.formalId.accept(this);
-        emitCode(".method public static main([Ljava/lang/String;)V");
-        emitCode(".limit stack 20"); /* TODO (UG): calc minimal stacksize */
-        emitCode(".limit locals 1");
-        
-        /* emit statement of main method */
-        node.statement.accept(this);
-        
-        emitCode("return");
-        emitCode(".end method");
-        
-        /* enter scope of main class */
-        leaveClassScope();
-        
-        writer.close();
-    }
-    
+    private static final int TASKS_PER_THREAD = 4;
+
     /**
-     * creates Jasmin code for a normal class declaration.
-     * 
-     * @param node 
+     * largest operand stack of a method the JVM allows
      */
-    @Override
-    public void visit(ClassDeclSimple node) {
-        
-        /* Jasmin-Datei fr aktuelle Klasse ffnen */
-        writer = openWriter(node.classId.name);
-        
-        /* enter scope of class */
-        enterClassScope(node.classId.name);
-        
-        /* emit Jasmin directives */
-        node.classId.accept(this);
-        emitCode(".class public " + node.classId.name);
-        emitCode(".super java/lang/Object");
-        
-        /* emit code for global variable declarations */
-        for ( int i = 0; i < node.varDecls.size(); i++ ) {
-            node.varDecls.elementAt(i).accept(this);
-        }
-        
-        /* emit code for standard initialization */
-        emitCode(".method public <init>()V");
-        emitCode("aload_0");
-        emitCode("invokespecial java/lang/Object/<init>()V");
-        emitCode("return");
-        emitCode(".end method");
-        
-        /* emit code for method declarations */
-        for ( int i = 0; i < node.methodDecls.size(); i++ ) {
-            node.methodDecls.elementAt(i).accept(this);
-        }
-        
-        /* enter scope of class */
-        leaveClassScope();
-        
-        writer.close();
-    }
-    
+    private static final int MAX_STACK = 65535;
+
     /**
-     * creates Jasmin code for a subclass declaration.
-     * 
-     * @param node 
+     * holds a number for the next label to be generated, unique within the
+     * current class
      */
-    @Override
-    public void visit(ClassDeclExtends node) {
-        
-        /* Jasmin-Datei fr aktuelle Unterklasse ffnen */
-        writer = openWriter(node.subclassId.name);
-        
-        /* enter scope of class */
-        enterClassScope(node.subclassId.name);
-        
-        /* emit Jasmin directives */
-        node.subclassId.accept(this);
-        emitCode(".class public " + node.subclassId.name);
-        node.superclassId.accept(this);
-        emitCode(".super " + node.superclassId.name);
-        
-        /* emit code for global variable declarations */
-        for ( int i = 0; i < node.varDecls.size(); i++ ) {
-            node.varDecls.elementAt(i).accept(this);
-        }
-        
-        /* emit code for standard initialization */
-        emitCode(".method public <init>()V");
-        emitCode("aload_0");
-        emitCode("invokespecial " + node.superclassId.name + "/<init>()V");
-        emitCode("return");
-        emitCode(".end method");
-        
-        /* emit code for method declarations */
-        for ( int i = 0; i < node.methodDecls.size(); i++ ) {
-            node.methodDecls.elementAt(i).accept(this);
-        }
-        
-        /* enter scope of class */
-        leaveClassScope();
-        
-        writer.close();
-    }
-    
+    private int nextLabelNo;
+
     /**
-     * creates Jasmin code for a variable declaration.
-     * 
-     * @param node 
+     * name of the current class
      */
-    @Override
-    public void visit(VarDecl node) {
-        node.type.accept(this);
-        node.id.accept(this);
-       
-        if (this.isGlobalVariable(node.id.name)) {
-            
-            emitCode(".field public " + node.id.name + " " 
-                        + this.getJasminType(node.getType()));
-        }
-    }
-  
+    private String classname;
+
     /**
-     * creates Jasmin code for a method declaration.
-     * 
-     * @param node 
+     * code of the current class
      */
-    @Override
-    public void visit(MethodDecl node) {
-        // TODO: Minijava-Projekt (Blatt 4)
-        enterMethodScope(node.methodId.name);
-        
-        /* emit Jasmin directives */
-        String classname = this.getCurrentClassname();
-        emitCode(".method public " + this.getJasminMethod(classname, node.methodId.name));
-        emitCode(".limit stack 20"); // TODO (UG): calc minimal stack size
-        emitCode(".limit locals " + (node.formalList.size() + node.varDecls.size() + 1));
-        
-        node.resultType.accept(this);
-        node.methodId.accept(this);
-         
-         for ( int i = 0; i < node.formalList.size(); i++ ) {
-             node.formalList.elementAt(i).accept(this);
-         }        
-
-         for ( int i = 0; i < node.varDecls.size(); i++ ) {
-            node.varDecls.elementAt(i).accept(this);
-         }
-         
-        for (int i = 0; i < node.statements.size(); i++) {
-            
-            node.statements.elementAt(i).accept(this);
-        }
-        
-        node.returnExp.accept(this);
-        
-        emitCode(this.getJasminInstructionType(node.returnExp.getType()) + "return");
-        
-        emitCode(".end method");
-        
-        /* leave current method scope */
-        leaveMethodScope();
-    }
-    
+    private final StringBuilder code = new StringBuilder(8192);
+
     /**
-     * creates Jasmin code for a formal method parameter.
-     * 
-     * @param node 
+     * encoded code of the current class to be written
      */
-    @Override
-    public void visit(Formal node) {
-        node.type.accept(this);
-        node.id.accept(this);
-    }
-    
+    private ByteBuffer bytes = ByteBuffer.allocate(8192);
+
     /**
-     * empty function.
-     * 
-     * @param node 
+     * name of the source file for the .source directive, or null if no
+     * debugging information is to be emitted
      */
-    @Override
-    public void visit(IntArrayType node) {
-    }
-    
+    private String sourceFile;
+
     /**
-     * empty function.
-     * 
-     * @param node 
+     * line of the last .line directive emitted in the current method
      */
-    @Override
-    public void visit(BooleanType node) {
-    }
-    
+    private int lastLine;
+
     /**
-     * empty function.
-     * 
-     * @param node 
+     * depth of the operand stack after the code emitted so far and its
+     * maximum in the current method; the code of right nested operands and
+     * parameters needs a stack as deep as the nesting
      */
-    @Override
-    public void visit(IntegerType node) {
-    }
-    
+    private int stackDepth;
+    private int maxStackDepth;
+
     /**
-     * empty function.
-     * 
-     * @param node 
+     * offset in the code of the current class at which the .limit stack
+     * directive of the current method is inserted once the method is
+     * complete
      */
-    @Override
-    public void visit(IdentifierType node) {
-    }
-    
+    private int stackLimitOffset;
+
     /**
-     * creates Jasmin code for a block of statements.
-     * 
-     * @param node 
+     * errors of a visitor not checking the types: methods exceeding the
+     * operand stack of the JVM. A visitor checking the types records them
+     * with the type errors.
      */
-    @Override
-    public void visit(Block node) {
-        // TODO: Minijava-Projekt (Blatt 4)
-        for (int i = 0; i < node.statements.size(); i++) {
-            node.statements.elementAt(i).accept(this);            
-        }
-    }
+    private final List<String> limitErrors = new ArrayList<String>();
 
     /**
-     * creates Jasmin code for an if statement.
-     * 
-     * @param node 
+     * checks of the types if the visitor runs as fused pass, otherwise null
      */
-    @Override
-    public void visit(If node) {
-        // TODO: Minijava-Projekt (Blatt 4)
-        node.exp.accept(this);
-        node.thenStatement.accept(this);
-        node.elseStatement.accept(this);
-    }
-    
+    private final TypeChecker checker;
+
     /**
-     * creates Jasmin code for a while statement.
-     * 
-     * @param node 
+     * code of the classes generated by the fused pass, by the names of
+     * the classes, to be written once the program has been checked;
+     * null if the classes are written as soon as they are checked
      */
-    @Override
-    public void visit(While node) {
-        // TODO: Minijava-Projekt (Blatt 4)
-        node.exp.accept(this);
-        node.statement.accept(this);
-    }
-    
+    private final Map<String, String> checkedClasses;
+
     /**
-     * creates Jasmin code for a println statement.
-     * 
-     * @param node 
+     * Creates a new instance of class JasminVisitor with a path of a directory
+     * to which the Jasmin file will be generated. The symbol table derived
+     * from the Minijava program is handed to the visitor as argument of
+     * walk for the program.
+     *
+     * The initial state indicates that no labels have been generated.
+     *
+     * @param jasminDir   path to the Jasmin file
      */
-    @Override
-    public void visit(Print node) {
-        // TODO: Minijava-Projekt (Blatt 4)
-        node.exp.accept(this);
+    public JasminVisitor(String jasminDir) {
+        this(new JasminDirectory(jasminDir), null);
     }
-    
+
     /**
-     * creates Jasmin code for an assignment.
-     * 
-     * @param node 
+     * Creates a new instance of class JasminVisitor that additionally emits
+     * the name of the source file and the line numbers of the statements,
+     * so that the class files carry a line number table.
+     *
+     * @param jasminDir   path to the Jasmin file
+     * @param sourceFile  name of the Minijava source file
      */
-    @Override
-    public void visit(Assign node) {
-        // TODO: Minijava-Projekt (Blatt 4)
-        node.id.accept(this);
-        node.exp.accept(this);
+    public JasminVisitor(String jasminDir, String sourceFile) {
+        this(new JasminDirectory(jasminDir), sourceFile);
     }
-    
+
     /**
-     * creates Jasmin code for an assignment to an array element.
-     * 
-     * @param node 
+     * Creates a new instance of class JasminVisitor that hands the code of
+     * the classes to the given output.
+     *
+     * @param output      destination of the code of the classes
+     * @param sourceFile  name of the Minijava source file, null if no
+     *                    debugging information is to be emitted
      */
-    @Override
-    public void visit(ArrayAssign node) {
-        // TODO: Minijava-Projekt (Blatt 4)      
-        node.arrayId.accept(this);
-        node.index.accept(this);
-        node.exp.accept(this);
+    public JasminVisitor(JasminOutput output, String sourceFile) {
+        this(output, sourceFile, null, false);
     }
-    
+
     /**
-     * creates Jasmin code for a boolean conjunction.
-     * 
-     * @param node 
+     * Creates a new instance of class JasminVisitor that checks the types
+     * by the given checker unless it is null. If the classes are kept, they
+     * are written once the program has been checked.
      */
-    @Override
-    public void visit(And node) {
-        // TODO: Minijava-Projekt (Blatt 4)
-        node.left.accept(this);
-        node.right.accept(this);
+    private JasminVisitor(JasminOutput output, String sourceFile,
+            TypeChecker checker, boolean keepClasses) {
+
+        this.output = output;
+        this.sourceFile = sourceFile;
+        this.checker = checker;
+        this.checkedClasses =
+                keepClasses ? new LinkedHashMap<String, String>() : null;
+
+        /* initialise labelling */
+        this.nextLabelNo = 0;
     }
-    
+
     /**
-     * creates Jasmin code for a less than relation.
-     * 
-     * @param node 
+     * generates the Jasmin files of the main class and the classes of the
+     * given program with the threads of the given pool. The classes are
+     * split into a few consecutive ranges per thread; each range is
+     * generated by a visitor of its own, which reuses its buffers.
+     *
+     * @param program syntax tree of the program
+     * @param symbolTable frozen symbol table of the program
+     * @param output destination of the code of the classes
+     * @param sourceFile name of the Minijava source file, null if no
+     *        debugging information is to be emitted
+     * @param pool pool for the visitors
+     * @return errors found in the order of the source, see getErrors
+     * @throws JasminOutputException if a class cannot be written
      */
-    @Override
-    public void visit(LessThan node) {
-        // TODO: Minijava-Projekt (Blatt 4)
-        node.left.accept(this);
-        node.right.accept(this);
+    public static List<String> generateClasses(final Program program,
+            final ProgramTable symbolTable, final JasminOutput output,
+            final String sourceFile, ForkJoinPool pool) {
+
+        if (!symbolTable.isFrozen()) {
+            throw new IllegalStateException("symbol table is not frozen");
+        }
+
+        /* class 0 is the main class */
+        int classCount = 1 + program.classes.size();
+        int taskCount = Math.min(classCount,
+                TASKS_PER_THREAD * pool.getParallelism());
+
+        List<Callable<List<String>>> tasks =
+                new ArrayList<Callable<List<String>>>(taskCount);
+        for (int t = 0; t < taskCount; t++) {
+            final int from = (int) ((long) classCount * t / taskCount);
+            final int to = (int) ((long) classCount * (t + 1) / taskCount);
+            tasks.add(new Callable<List<String>>() {
+                public List<String> call() {
+                    JasminVisitor visitor =
+                            new JasminVisitor(output, sourceFile);
+                    for (int i = from; i < to; i++) {
+                        Node classDecl = (i == 0) ? program.mainClass
+                                : program.classes.elementAt(i - 1);
+                        visitor.walk(classDecl, symbolTable);
+                    }
+                    return visitor.getErrors();
+                }
+            });
+        }
+
+        List<String> errors = new ArrayList<String>();
+        for (Future<List<String>> result : pool.invokeAll(tasks)) {
+            try {
+                errors.addAll(result.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                } else if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        return errors;
     }
-    
+
     /**
-     * creates Jasmin code for an addition.
-     * 
-     * @param node 
+     * checks the types of the given program and generates its Jasmin files
+     * in a single traversal, which replaces the NameResolutionVisitor, the
+     * TypeVisitor and a JasminVisitor. The files are written only if the
+     * program is free of errors.
+     *
+     * @param program syntax tree of the program
+     * @param symbolTable symbol table of the program
+     * @param output destination of the code of the classes
+     * @param sourceFile name of the Minijava source file
+     * @return errors found in the order of the source
      */
-    @Override
-    public void visit(Plus node) {
-        // TODO: Minijava-Projekt (Blatt 4)
-        node.left.accept(this);
-        node.right.accept(this);
+    public static List<String> generateChecked(Program program,
+            SymbolTable symbolTable, JasminOutput output, String sourceFile) {
+
+        TypeChecker checker = new TypeChecker();
+        new JasminVisitor(output, sourceFile, checker, true)
+                .walk(program, symbolTable);
+        return checker.getErrors();
     }
-    
+
     /**
-     * creates Jasmin code for a subtraction.
-     * 
-     * @param node 
+     * returns a visitor that checks the types of the classes it visits like
+     * the fused pass (see generateChecked), but keeps no classes: the
+     * Jasmin file of a class is written as soon as the class is complete,
+     * unless errors have been found in it or in a class visited before.
+     * The visitor is walked over the main class and the classes one at a
+     * time, so a program need not be kept as a whole.
+     *
+     * @param output destination of the code of the classes
+     * @param sourceFile name of the Minijava source file
      */
-    @Override
-    public void visit(Minus node) {
-        // TODO: Minijava-Projekt (Blatt 4)
-        node.left.accept(this);
-        node.right.accept(this);
+    public static JasminVisitor newCheckingVisitor(JasminOutput output,
+            String sourceFile) {
+        return new JasminVisitor(output, sourceFile, new TypeChecker(), false);
     }
-    
+
     /**
-     * creates Jasmin code for a multiplication.
-     * 
-     * @param node 
+     * prepares the visitor for another program, which is handed to the
+     * given output: the stacks of the traversal are emptied and the errors
+     * found so far are forgotten. The buffers are kept.
+     *
+     * @param output      destination of the code of the classes
+     * @param sourceFile  name of the Minijava source file, null if no
+     *                    debugging information is to be emitted
      */
-    @Override
-    public void visit(Times node) {
-        // TODO: Minijava-Projekt (Blatt 4)
-        node.left.accept(this);
-        node.right.accept(this);
+    public void reset(JasminOutput output, String sourceFile) {
+
+        super.reset();
+        this.output = output;
+        this.sourceFile = sourceFile;
+        if (checker != null) {
+            checker.reset();
+        }
+        if (checkedClasses != null) {
+            checkedClasses.clear();
+        }
+        limitErrors.clear();
+        beginClass(null);
     }
-    
+
     /**
-     * creates Jasmin code for accessing an elements of an array.
-     * 
-     * @param node 
+     * returns the errors found in the order of the source: the type errors
+     * if the visitor checks the types, and the methods exceeding the
+     * operand stack of the JVM.
      */
-    @Override
-    public void visit(ArrayLookup node) {
-        // TODO: Minijava-Projekt (Blatt 4)
-        node.arrayId.accept(this);
-        node.index.accept(this);
+    public List<String> getErrors() {
+        return (checker == null) ? limitErrors : checker.getErrors();
     }
-    
+
+    /* ========================================================================
+     * hooks of the traversal
+     * ===================================================================== */
+
     /**
-     * creates Jasmin code for retrieving the length of an array.
-     * 
-     * @param node 
+     * emits the code preceding the children of the given node and returns
+     * the scope for the children.
+     *
+     * @param node
+     * @param scope symbol table in which the node is visited
      */
     @Override
-    public void visit(ArrayLength node) {
-        // TODO: Minijava-Projekt (Blatt 4)
-        node.arrayId.accept(this);
+    protected SymbolTable enter(Node node, SymbolTable scope) {
+
+        switch (node.kind) {
+
+            case NodeKind.MAIN_CLASS: {
+                MainClass n = (MainClass) node;
+
+                /* Jasmin-Code fr aktuelle Klasse beginnen */
+                beginClass(n.classId.name);
+
+                /* enter scope of main class */
+                ClassTable classTable = scope.getClass(n.classId.symbol);
+
+                /* emit Jasmin directives */
+                emitSource();
+                emitCode(".class public " + n.classId.name);
+                emitCode(".super java/lang/Object");
+
+                /* emit standard initialization */
+                emitInit("java/lang/Object");
+
+                /* emit main method declaration */
+                emitCode(".method public static main([Ljava/lang/String;)V");
+                beginMethod();
+                emitCode(".limit locals 1");
+                lastLine = 0;
+
+                /* the statement of the main method follows */
+                return classTable.getMethod("main");
+            }
+
+            case NodeKind.CLASS_DECL_SIMPLE: {
+                ClassDeclSimple n = (ClassDeclSimple) node;
+
+                /* Jasmin-Code fr aktuelle Klasse beginnen */
+                beginClass(n.classId.name);
+
+                /* emit Jasmin directives */
+                emitSource();
+                emitCode(".class public " + n.classId.name);
+                emitCode(".super java/lang/Object");
+
+                /* enter scope of class */
+                return scope.getClass(n.classId.symbol);
+            }
+
+            case NodeKind.CLASS_DECL_EXTENDS: {
+                ClassDeclExtends n = (ClassDeclExtends) node;
+
+                /* Jasmin-Code fr aktuelle Unterklasse beginnen */
+                beginClass(n.subclassId.name);
+
+                /* emit Jasmin directives */
+                emitSource();
+                emitCode(".class public " + n.subclassId.name);
+                emitCode(".super " + n.superclassId.name);
+
+                /* enter scope of class */
+                return scope.getClass(n.subclassId.symbol);
+            }
+
+            case NodeKind.VAR_DECL: {
+                VarDecl n = (VarDecl) node;
+                VariableType variable = scope.getVariable(n.id.symbol);
+
+                if (variable.isGlobalVariable()) {
+                    emitCode(".field public " + n.id.name + " "
+                            + variable.getType().getDescriptor());
+                }
+                skipChildren();
+                return scope;
+            }
+
+            case NodeKind.METHOD_DECL: {
+                MethodDecl n = (MethodDecl) node;
+
+                /* enter scope of method */
+                MethodTable methodTable =
+                        ((ClassTable) scope).getMethod(n.methodId.symbol);
+
+                /* emit Jasmin directives */
+                emitCode(".method public "
+                        + methodTable.getName() + methodTable.getDescriptor());
+                beginMethod();
+                emitCode(".limit locals "
+                        + (n.formalList.size() + n.varDecls.size() + 1));
+                lastLine = 0;
+                emitLine(n);
+
+                return methodTable;
+            }
+
+            case NodeKind.FORMAL:
+                skipChildren();
+                return scope;
+
+            case NodeKind.IF:
+                node.setFalseLabel(newLabel(Label.FALSE));
+                node.setNextLabel(newLabel(Label.NEXT));
+                emitLine(node);
+                return scope;
+
+            case NodeKind.WHILE:
+                node.setBeginLabel(newLabel(Label.BEGIN));
+                node.setNextLabel(newLabel(Label.NEXT));
+                emitLabel(node.getBeginLabel());
+                emitLine(node);
+                return scope;
+
+            case NodeKind.PRINT:
+                emitLine(node);
+                emitCode("getstatic java/lang/System/out "
+                        + "Ljava/io/PrintStream;");
+                push(1);
+                return scope;
+
+            case NodeKind.ASSIGN: {
+                Assign n = (Assign) node;
+                VariableType variable =
+                        this.getVariable(n, scope, n.id.symbol);
+
+                emitLine(n);
+                if (this.isDeclared(n.id, n.id.name, variable)
+                        && variable.isGlobalVariable()) {
+                    emitCode("aload_0");
+                    push(1);
+                }
+                return scope;
+            }
+
+            case NodeKind.ARRAY_ASSIGN: {
+                ArrayAssign n = (ArrayAssign) node;
+                emitLine(n);
+                this.emitLoad(n.arrayId, n, scope, n.arrayId.symbol,
+                        n.arrayId.name);
+                return scope;
+            }
+
+            /* the right operand is only evaluated if the left one is true */
+            case NodeKind.AND:
+                node.setFalseLabel(newLabel(Label.FALSE));
+                node.setNextLabel(newLabel(Label.NEXT));
+                return scope;
+
+            case NodeKind.LESS_THAN:
+                node.setTrueLabel(newLabel(Label.TRUE));
+                node.setNextLabel(newLabel(Label.NEXT));
+                return scope;
+
+            case NodeKind.NEW_OBJECT: {
+                NewObject n = (NewObject) node;
+                emitCode("new " + n.classId.name);
+                emitCode("dup");
+                push(2);
+                emitCode("invokespecial " + n.classId.name + "/<init>()V");
+                pop(1);
+                skipChildren();
+                return scope;
+            }
+
+            default:
+                return scope;
+        }
     }
-    
+
     /**
-     * creates Jasmin code for a method call.
-     * 
-     * @param node 
+     * emits the code between the children of the given node.
+     *
+     * @param node
+     * @param i index of the child to be visited next
+     * @param scope symbol table of the children
      */
     @Override
-    public void visit(Call node) {
-        // TODO: Minijava-Projekt (Blatt 4)
-        node.exp.accept(this);
-        node.methodId.accept(this);
-        for ( int i = 0; i < node.expList.size(); i++ ) {
-            node.expList.elementAt(i).accept(this);
+    protected void beforeChild(Node node, int i, SymbolTable scope) {
+
+        switch (node.kind) {
+
+            /* standard initialization follows the global variables */
+            case NodeKind.CLASS_DECL_SIMPLE: {
+                ClassDeclSimple n = (ClassDeclSimple) node;
+                if (i == 1 + n.varDecls.size()) {
+                    emitInit("java/lang/Object");
+                }
+                break;
+            }
+
+            case NodeKind.CLASS_DECL_EXTENDS: {
+                ClassDeclExtends n = (ClassDeclExtends) node;
+                if (i == 2 + n.varDecls.size()) {
+                    emitInit(n.superclassId.name);
+                }
+                break;
+            }
+
+            /* expression to be returned is the last child */
+            case NodeKind.METHOD_DECL:
+                if (i == childCount(node) - 1) {
+                    emitLine(((MethodDecl) node).getReturnExp());
+                }
+                break;
+
+            case NodeKind.IF:
+                if (i == 1) {
+                    emitCode("ifeq " + node.getFalseLabel());
+                    pop(1);
+                } else if (i == 2) {
+                    emitCode("goto " + node.getNextLabel());
+                    emitLabel(node.getFalseLabel());
+                }
+                break;
+
+            case NodeKind.WHILE:
+                if (i == 1) {
+                    emitCode("ifeq " + node.getNextLabel());
+                    pop(1);
+                }
+                break;
+
+            case NodeKind.AND:
+                if (i == 1) {
+                    emitCode("ifeq " + node.getFalseLabel());
+                    pop(1);
+                }
+                break;
+
+            default:
+                break;
         }
     }
-    
+
     /**
-     * creates Jasmin code for an integer literal.
-     * 
-     * @param node 
+     * emits the code following the children of the given node. Expressions
+     * return their type, all other nodes null.
+     *
+     * @param node
+     * @param scope symbol table of the children
      */
     @Override
-    public void visit(IntegerLiteral node) {
-        // TODO: Minijava-Projekt (Blatt 4)
+    protected SemanticType leave(Node node, SymbolTable scope) {
+
+        switch (node.kind) {
+
+            /* the fused pass writes the files once all classes are checked */
+            case NodeKind.PROGRAM:
+                if (checkedClasses != null && checker.getErrors().isEmpty()) {
+                    for (Map.Entry<String, String> checkedClass
+                            : checkedClasses.entrySet()) {
+                        this.write(checkedClass.getKey(),
+                                checkedClass.getValue());
+                    }
+                }
+                return null;
+
+            case NodeKind.MAIN_CLASS:
+                emitCode("return");
+                emitCode(".end method");
+                endMethod(node, "main");
+                writeClass();
+                return null;
+
+            case NodeKind.CLASS_DECL_SIMPLE:
+                if (((ClassDeclSimple) node).methodDecls.size() == 0) {
+                    emitInit("java/lang/Object");
+                }
+                writeClass();
+                return null;
+
+            case NodeKind.CLASS_DECL_EXTENDS: {
+                ClassDeclExtends n = (ClassDeclExtends) node;
+                if (n.methodDecls.size() == 0) {
+                    emitInit(n.superclassId.name);
+                }
+                writeClass();
+                return null;
+            }
+
+            case NodeKind.METHOD_DECL: {
+                SemanticType type = ((MethodTable) scope).getResultType();
+                if (checker != null) {
+                    MethodDecl n = (MethodDecl) node;
+                    checker.checkCompatible(n.getReturnExp(),
+                            result(childCount(node) - 1), type,
+                            "result of method " + n.methodId.name);
+                }
+                emitCode(type.getInstructionPrefix() + "return");
+                pop(1);
+                emitCode(".end method");
+                endMethod(node, ((MethodDecl) node).methodId.name);
+                return null;
+            }
+
+            case NodeKind.IF:
+                emitLabel(node.getNextLabel());
+                return null;
+
+            case NodeKind.WHILE:
+                emitCode("goto " + node.getBeginLabel());
+                emitLabel(node.getNextLabel());
+                return null;
+
+            case NodeKind.PRINT:
+                emitCode("invokevirtual java/io/PrintStream/println(I)V");
+                pop(2);
+                return null;
+
+            case NodeKind.ASSIGN: {
+                Assign n = (Assign) node;
+                VariableType variable =
+                        this.getVariable(n, scope, n.id.symbol);
+
+                /* reported when the assignment was entered */
+                if (variable == null) {
+                    return null;
+                }
+                if (checker != null) {
+                    checker.checkCompatible(n.exp, result(1),
+                            variable.getType(), "assignment to " + n.id.name);
+                }
+                if (variable.isGlobalVariable()) {
+                    emitCode("putfield " + variable.getFieldName()
+                            + " " + variable.getType().getDescriptor());
+                    pop(2);
+                } else {
+                    emitCode(variable.getType().getInstructionPrefix()
+                            + "store " + variable.getOffset());
+                    pop(1);
+                }
+                return null;
+            }
+
+            case NodeKind.ARRAY_ASSIGN:
+                emitCode("iastore");
+                pop(3);
+                return null;
+
+            /* the code at a label reached by jumps only starts with the
+             * depth of the stack at the jumps */
+            case NodeKind.AND:
+                emitCode("goto " + node.getNextLabel());
+                emitLabel(node.getFalseLabel());
+                pop(1);
+                emitCode("iconst_0");
+                push(1);
+                emitLabel(node.getNextLabel());
+                return PrimitiveType.BOOLEAN;
+
+            case NodeKind.LESS_THAN:
+                emitCode("if_icmplt " + node.getTrueLabel());
+                pop(2);
+                emitCode("iconst_0");
+                push(1);
+                emitCode("goto " + node.getNextLabel());
+                emitLabel(node.getTrueLabel());
+                pop(1);
+                emitCode("iconst_1");
+                push(1);
+                emitLabel(node.getNextLabel());
+                return PrimitiveType.BOOLEAN;
+
+            case NodeKind.PLUS:
+                emitCode("iadd");
+                pop(1);
+                return PrimitiveType.INTEGER;
+
+            case NodeKind.MINUS:
+                emitCode("isub");
+                pop(1);
+                return PrimitiveType.INTEGER;
+
+            case NodeKind.TIMES:
+                emitCode("imul");
+                pop(1);
+                return PrimitiveType.INTEGER;
+
+            case NodeKind.ARRAY_LOOKUP:
+                emitCode("iaload");
+                pop(1);
+                return PrimitiveType.INTEGER;
+
+            case NodeKind.ARRAY_LENGTH:
+                emitCode("arraylength");
+                return PrimitiveType.INTEGER;
+
+            /* the object and the actual parameters are on the stack, they
+             * are replaced by the result */
+            case NodeKind.CALL: {
+                pop(((Call) node).expList.size());
+                MethodTable methodTable;
+                if (checker != null) {
+                    methodTable = checker.checkCall((Call) node, this);
+                    if (methodTable == null) {
+                        return null;
+                    }
+                } else {
+                    ClassType classType = (ClassType) result(0);
+                    methodTable = classType.getClassTable()
+                            .lookupMethod(((Call) node).methodId.symbol);
+                }
+                emitCode("invokevirtual " + methodTable.getJasminName());
+                return methodTable.getResultType();
+            }
+
+            case NodeKind.INTEGER_LITERAL:
+                emitInteger(((IntegerLiteral) node).value);
+                push(1);
+                return PrimitiveType.INTEGER;
+
+            case NodeKind.TRUE:
+                emitCode("iconst_1");
+                push(1);
+                return PrimitiveType.BOOLEAN;
+
+            case NodeKind.FALSE:
+                emitCode("iconst_0");
+                push(1);
+                return PrimitiveType.BOOLEAN;
+
+            case NodeKind.IDENTIFIER_EXP: {
+                IdentifierExp n = (IdentifierExp) node;
+                return this.emitLoad(n, n, scope, n.symbol, n.name);
+            }
+
+            case NodeKind.THIS:
+                emitCode("aload_0");
+                push(1);
+                return this.getCurrentClass(scope).getType();
+
+            case NodeKind.NEW_ARRAY:
+                emitCode("newarray int");
+                return PrimitiveType.INT_ARRAY;
+
+            case NodeKind.NEW_OBJECT:
+                return scope.getClassType(((NewObject) node).classId.symbol);
+
+            case NodeKind.NOT:
+                emitCode("iconst_1");
+                push(1);
+                emitCode("ixor");
+                pop(1);
+                return PrimitiveType.BOOLEAN;
+
+            /* types and identifiers are handled by their parent nodes */
+            default:
+                return null;
+        }
     }
-    
+
+    /* ========================================================================
+     * helpers
+     * ===================================================================== */
+
     /**
-     * creates Jasmin code for the boolean value true.
-     * 
-     * @param node 
+     * starts the code of the given class: the buffer is emptied and the
+     * numbering of labels starts anew.
+     *
+     * @param classname name of a Minijava class
      */
-    @Override
-    public void visit(True node) {
-        // TODO: Minijava-Projekt (Blatt 4)
+    private void beginClass(String classname) {
+        this.classname = classname;
+        this.code.setLength(0);
+        this.nextLabelNo = 0;
     }
-    
+
     /**
-     * creates Jasmin code for the boolean value false.
-     * 
-     * @param node 
+     * writes the code of the current class to the output, or keeps it
+     * until the program has been checked if the visitor runs as fused pass.
+     * A visitor checking the types writes no code once it has found errors.
      */
-    @Override
-    public void visit(False node) {
-        // TODO: Minijava-Projekt (Blatt 4)
+    private void writeClass() {
+
+        if (checkedClasses != null) {
+            checkedClasses.put(classname, code.toString());
+        } else if (this.getErrors().isEmpty()) {
+            this.write(classname, code);
+        }
     }
-    
+
     /**
-     * creates Jasmin code for the access to an identifier.
-     * 
-     * @param node 
+     * writes the given code of the given class to the output. The code is
+     * encoded into the byte buffer, which is reused for all classes.
+     *
+     * @throws JasminOutputException if the class cannot be written
      */
-    @Override
-    public void visit(IdentifierExp node) {
-        // TODO: Minijava-Projekt (Blatt 4)
+    private void write(String classname, CharSequence code) {
+
+        int length = code.length();
+        if (bytes.capacity() < length) {
+            bytes = ByteBuffer.allocate(Math.max(length, 2 * bytes.capacity()));
+        }
+        bytes.clear();
+        for (int i = 0; i < length; i++) {
+            char c = code.charAt(i);
+            bytes.put((byte) (c < 256 ? c : '?'));
+        }
+        bytes.flip();
+
+        try {
+            output.writeClass(classname, bytes);
+        } catch (IOException e) {
+            throw new JasminOutputException(e);
+        }
     }
-    
+
+    /* ========================================================================
+     * methods for code generation
+     * ===================================================================== */
+
     /**
-     * creates Jasmin code for an access to 'this' object.
-     * 
-     * @param node 
+     * Writes the given code string to the code of the current class. Jasmin
+     * directives start at column 1, instructions at column 5
+     *
+     * @param code
      */
-    @Override
-    public void visit(This node) {
-        // TODO: Minijava-Projekt (Blatt 4)
+    private void emitCode(String code) {
+
+        if (code.charAt(0) != '.') {
+            this.code.append("    ");
+            // System.out.print("    ");
+        }
+        this.code.append(code).append(NEWLINE);
+        // System.out.println(code);
     }
-    
+
     /**
-     * creates Jasmin code for an array creation.
-     * 
-     * @param node 
+     * Writes the given string as a label to the code of the current class.
+     * Labels start at column 3.
+     *
+     * @param label     Label to be written
      */
-    @Override
-    public void visit(NewArray node) {
-        // TODO: Minijava-Projekt (Blatt 4)
+    private void emitLabel(String label) {
+        code.append("  ").append(label).append(':').append(NEWLINE);
+        // System.out.println("  " + label + ":");
     }
-    
+
     /**
-     * creates Jasmin code for an object creation.
-     * 
-     * @param node 
+     * starts the code of a method following its .method directive: the
+     * operand stack is empty, its .limit stack directive is inserted here
+     * when the method ends.
      */
-    @Override
-    public void visit(NewObject node) {
-        // TODO: Minijava-Projekt (Blatt 4)
-    }
-    
-    /**
-     * creates Jasmin code for a negation.
-     * 
-     * @param node 
-     */    
-    @Override
-    public void visit(Not node) {
-        // TODO: Minijava-Projekt (Blatt 4)
-        node.exp.accept(this);
+    private void beginMethod() {
+        stackDepth = 0;
+        maxStackDepth = 0;
+        stackLimitOffset = code.length();
     }
-    
+
     /**
-     * creates Jasmin code for an identifier.
-     * 
-     * @param node node of an identifier
+     * inserts the .limit stack directive of the method just ended, which is
+     * the given node, and reports an error if the JVM does not allow its
+     * operand stack.
+     *
+     * @param node declaration of the method
+     * @param name name of the method
      */
-    @Override
-    public void visit(Identifier node) {
-        // TODO: Minijava-Projekt (Blatt 4)
+    private void endMethod(Node node, String name) {
+
+        if (maxStackDepth > MAX_STACK) {
+            String message = "operand stack of method " + name + " needs "
+                    + maxStackDepth + " entries, the JVM allows " + MAX_STACK;
+            if (checker != null) {
+                checker.error(node, message);
+            } else {
+                limitErrors.add(TypeChecker.at(node, message));
+            }
+        }
+        code.insert(stackLimitOffset,
+                ".limit stack " + maxStackDepth + NEWLINE);
     }
- 
-    
-    /* ========================================================================
-     * helpers
-     * ===================================================================== */
-    
+
     /**
-     * Opens the Jasmin output file for a given class.
-     * 
-     * @param classname name of a Minijava class
-     * @return PrintWriter, if the file could be opened successfully, 
-     *                      null otherwise
+     * records that the code emitted pushes the given number of values onto
+     * the operand stack.
      */
-    private PrintWriter openWriter(String classname) {
-        
-        PrintWriter newWriter = null;
-        
-        try {
-            String full_filename = jasminDir + "/" + classname + ".j";
-            newWriter = new PrintWriter(new FileOutputStream(full_filename));
-            
-        } catch (FileNotFoundException e) {
-            System.out.println(e.getMessage());
+    private void push(int count) {
+        stackDepth += count;
+        if (stackDepth > maxStackDepth) {
+            maxStackDepth = stackDepth;
         }
-        
-        return newWriter;
     }
-    
-    /* ========================================================================
-     * handling scope
-     * ===================================================================== */
 
     /**
-     * enters the scope of the class given by classname.
-     * 
-     * @param classname name of a Minijava class
+     * records that the code emitted pops the given number of values from
+     * the operand stack.
      */
-    private void enterClassScope(String classname) {
-        this.symbolTable = 
-                ((ProgramTable) this.symbolTable).getClass(classname);
+    private void pop(int count) {
+        stackDepth -= count;
     }
-    
+
     /**
-     * leaves the current class scope.
+     * Writes the standard constructor, which calls the constructor of the
+     * given super class.
      */
-    private void leaveClassScope() {
-        this.symbolTable = this.symbolTable.getParent();
+    private void emitInit(String superClassname) {
+        emitCode(".method public <init>()V");
+        emitCode("aload_0");
+        emitCode("invokespecial " + superClassname + "/<init>()V");
+        emitCode("return");
+        emitCode(".end method");
     }
-    
+
     /**
-     * enters the scope of the class given by methodname.
-     * 
-     * @param methodname name of a Minjava method 
+     * Writes the shortest instruction that pushes the given int constant.
      */
-    private void enterMethodScope(String methodname) {
-        this.symbolTable = 
-                ((ClassTable) this.symbolTable).getMethod(methodname);
+    private void emitInteger(int value) {
+
+        if (value >= -1 && value <= 5) {
+            emitCode(value < 0 ? "iconst_m1" : "iconst_" + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            emitCode("bipush " + value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            emitCode("sipush " + value);
+        } else {
+            emitCode("ldc " + value);
+        }
     }
-    
+
     /**
-     * leaves the current method scope.
+     * Writes the .source directive for the current class if debugging
+     * information is to be emitted.
      */
-    private void leaveMethodScope() {
-        this.symbolTable = this.symbolTable.getParent();
+    private void emitSource() {
+        if (sourceFile != null) {
+            emitCode(".source " + sourceFile);
+        }
     }
-    
-    /* ========================================================================
-     * methods for code generation
-     * ===================================================================== */
 
     /**
-     * Writes the given code string to the current Jasmin file and to standard
-     * output. Jasmin directives start at column 1, instructions at column 5
-     * 
-     * @param code 
+     * Writes a .line directive for the line of the given node if debugging
+     * information is to be emitted and the line differs from the line of the
+     * previous directive in the current method. Nodes without a position are
+     * skipped.
      */
-    private void emitCode(String code) {
-        
-        if (code.charAt(0) != '.') {
-            writer.print("    ");
-            // System.out.print("    ");
+    private void emitLine(Node node) {
+        int line = node.getLine();
+        if (sourceFile != null && line > 0 && line != lastLine) {
+            emitCode(".line " + line);
+            lastLine = line;
         }
-        writer.println(code);
-        // System.out.println(code);
     }
-    
+
     /**
-     * Writes the given string as a label to the current Jasmin file and to
-     * standard output. Labels start at column 3.
-     * 
-     * @param label     Label to be written
+     * Emits the code that pushes the value of the variable used by the given
+     * node onto the operand stack.
+     *
+     * @param id node naming the variable
+     * @param node node using the variable
+     * @param scope symbol table of the method
+     * @param symbol symbol of the name of a Minijava variable
+     * @param name name of the variable
+     * @return type of the variable, null if it is not declared
      */
-    private void emitLabel(String label) {
-        writer.println("  " + label + ":");
-        // System.out.println("  " + label + ":");
+    private SemanticType emitLoad(Node id, Node node, SymbolTable scope,
+            int symbol, String name) {
+
+        VariableType variable = this.getVariable(node, scope, symbol);
+        if (!this.isDeclared(id, name, variable)) {
+            return null;
+        }
+        SemanticType type = variable.getType();
+
+        if (variable.isGlobalVariable()) {
+            emitCode("aload_0");
+            emitCode("getfield " + variable.getFieldName()
+                    + " " + type.getDescriptor());
+        } else {
+            emitCode(type.getInstructionPrefix() + "load "
+                    + variable.getOffset());
+        }
+        push(1);
+        return type;
     }
-    
-    
+
     /* ========================================================================
      * methods for label handling
      * ===================================================================== */
-    
+
     /**
      * Generates a new label composed from a unique label number and the String
      * "kind", e.g. L1_NEXT or L2_FALSE.
-     * 
+     *
      * @param kind  String from enumeration Label
      * @return      Label
      */
     private String newLabel(Label kind) {
-        
+
         nextLabelNo++;
-        
+
         return "L" + nextLabelNo + "_" + kind;
     }
-    
-    /* ========================================================================
-     * methods for type handling
-     * ===================================================================== */
 
-    /**
-     * For a given Minijava type this method computes the prefix 'i' or 'a' 
-     * used in Jasmin load and store instructions, i.e. for IntegerType and
-     * BooleanType the prefix "i" and for all other types the prefix "a" is 
-     * delivered.
-     * 
-     * @param type Minijava type
-     * @return Jasmin prefix
-     */
-    private String getJasminInstructionType(String type) {
-        
-        if(type.equals("IntegerType")) {
-            return "i";
-        } else if (type.equals("BooleanType")) {
-            return "i";
-        } else {
-            return "a";
-        }
-    }
-    
-    /**
-     * translates a Minijava type to a Jasmin type.
-     * 
-     * @param type name of a Minijava type
-     * @return Jasmin type
-     */
-    private String getJasminType(String type) {
-        
-        if (type.equals("IntegerType")) {
-            return "I";
-            
-        } else if (type.equals("BooleanType")) {
-            return "Z";
-            
-        } else if (type.equals("IntArrayType")) {
-            return "[I";
-            
-        } else {
-            return "L" + type + ";";    /* class name */
-        }
-    }
-    
-    /**
-     * retrieves the method signature in Jasmin syntax of Minijava class and
-     * method.
-     * 
-     * @param classname name of Minijava class
-     * @param methodname name of Minijava method 
-     * @return Jasmin method signature
-     */
-    private String getJasminMethod(String classname, String methodname) {
-        MethodTable methodTable = this.getMethodTable(classname, methodname);
-        
-        String string = methodTable.getName() + "(";
-        for (String type : methodTable.getFormalParameterTypes()) {
-            string += this.getJasminType(type);
-        }
-        string +=  ")" + this.getJasminType(methodTable.getResultType());
-        
-        return string;
-    }
-    
-   
     /* ========================================================================
      * accessing symbol table
      * ===================================================================== */
 
     /**
-     * retrieves the class name of the current Minijava class.
+     * retrieves the table of the current Minijava class.
+     *
+     * @param scope symbol table of the current method
      */
-    private String getCurrentClassname() {
-        /* 
+    private ClassTable getCurrentClass(SymbolTable scope) {
+        /*
          * the current scope is method scope, so the parent is the current
          * class scope
          */
-        return ((ClassTable) this.symbolTable.getParent()).getName();
-    }
-    
-    /**
-     * retrieves the method table specified by class and method name.
-     * 
-     * @param classname name of a Minijava class
-     * @param methodname name of a Minijava method
-     * 
-     * @return method table specified by class and method name
-     */
-    private MethodTable getMethodTable(String classname, String methodname) {
-        
-        return this.symbolTable.getClass(classname).getMethod(methodname);
+        return (ClassTable) scope.getParent();
     }
-    
+
     /**
-     * returns the number of the Minijava variable named varname that 
-     * corresponds to the Jasmin variable for varname.
-     * 
-     * @param varname name of a Minijava variable
-     * @return number of corresponding Jasmin variable
+     * returns the entry of the variable used by the given node. It is the
+     * binding set by the NameResolutionVisitor; if the tree has not been
+     * resolved, the variable is looked up in the scopes.
+     *
+     * @param node node using the variable
+     * @param scope symbol table of the current method
+     * @param symbol symbol of the name of the variable
+     * @return entry of the variable
      */
-    private int getVariableNumber(String varname) {
-        
-        return this.symbolTable.getVariable(varname).getOffset();
+    private VariableType getVariable(Node node, SymbolTable scope, int symbol) {
+
+        VariableType variable = node.getBinding();
+        return (variable != null) ? variable : scope.getVariable(symbol);
     }
-    
+
     /**
-     * checks if varname is a global variable or not.
-     * 
-     * @param varname name of a Minijava variable
-     * @return true if varname is a global variable and false otherwise
+     * tells whether the given entry of a variable exists. A missing entry is
+     * reported as error if the visitor checks the types; no code is written
+     * for a class with errors. Otherwise the program must have been checked
+     * before, so the entry is never missing.
+     *
+     * @param id node naming the variable
+     * @param name name of the variable
+     * @param variable entry of the variable, null if it is not declared
      */
-    private boolean isGlobalVariable(String varname) {
-        
-        return this.symbolTable.getVariable(varname).isGlobalVariable();
+    private boolean isDeclared(Node id, String name, VariableType variable) {
+
+        if (checker != null) {
+            return checker.checkDeclared(id, name, variable);
+        }
+        if (variable == null) {
+            throw new IllegalStateException("line " + id.getLine()
+                    + ", column " + id.getColumn() + ": undeclared identifier "
+                    + name + " in a program not type checked");
+        }
+        return true;
     }
 }
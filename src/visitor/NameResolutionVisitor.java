@@ -0,0 +1,102 @@
+package visitor;
+
+import syntaxtree.*;
+import visitor.symboltable.*;
+
+/**
+ * Objects of the class NameResolutionVisitor traverse an abstract syntax tree
+ * for some Minijava program after the symbol table has been filled by the
+ * SymbolTableVisitor. Each use of a variable, i.e. each IdentifierExp, Assign
+ * and ArrayAssign, is bound to the entry of the variable in the symbol table
+ * (see Node.setBinding). The entry gives the number of a local variable or
+ * the class declaring a global variable, so later passes need not search
+ * the scopes again.
+ *
+ * The tree is traversed by a TreeWalker. The argument is the scope in which
+ * a node is visited, as for the TypeVisitor. Within a method, the entry found
+ * for a symbol is remembered, so the scopes (and super classes) are searched
+ * once per variable and method.
+ *
+ * Note: the implementation includes no error handling
+ */
+public class NameResolutionVisitor extends TreeWalker<Void, SymbolTable> {
+
+    /**
+     * entries of the variables already resolved in the current method
+     */
+    private SymbolMap<VariableType> resolved;
+
+    /**
+     * Creates a new instance.
+     */
+    public NameResolutionVisitor() {
+    }
+
+    @Override
+    protected SymbolTable enter(Node n, SymbolTable scope) {
+
+        switch (n.kind) {
+
+            case NodeKind.MAIN_CLASS: {
+                ClassTable classTable =
+                        scope.getClass(((MainClass) n).classId.symbol);
+                resolved = new SymbolMap<VariableType>();
+                return classTable.getMethod("main");
+            }
+
+            case NodeKind.CLASS_DECL_SIMPLE:
+                return scope.getClass(((ClassDeclSimple) n).classId.symbol);
+
+            case NodeKind.CLASS_DECL_EXTENDS:
+                return scope.getClass(((ClassDeclExtends) n).subclassId.symbol);
+
+            case NodeKind.METHOD_DECL:
+                resolved = new SymbolMap<VariableType>();
+                return ((ClassTable) scope).getMethod(
+                        ((MethodDecl) n).methodId.symbol);
+
+            case NodeKind.VAR_DECL:
+            case NodeKind.FORMAL:
+                skipChildren();
+                return scope;
+
+            case NodeKind.ASSIGN:
+                n.setBinding(this.resolve(scope, ((Assign) n).id.symbol));
+                return scope;
+
+            case NodeKind.ARRAY_ASSIGN:
+                n.setBinding(this.resolve(scope,
+                        ((ArrayAssign) n).arrayId.symbol));
+                return scope;
+
+            case NodeKind.IDENTIFIER_EXP:
+                n.setBinding(this.resolve(scope, ((IdentifierExp) n).symbol));
+                return scope;
+
+            default:
+                return scope;
+        }
+    }
+
+    /* ========================================================================
+     * helper methods
+     * ===================================================================== */
+
+    /**
+     * returns the entry of the variable given by its symbol that is visible
+     * in the given method scope.
+     *
+     * @param scope symbol table of the method
+     * @param symbol symbol of the name of the variable
+     * @return entry of the variable, null if it is not declared
+     */
+    private VariableType resolve(SymbolTable scope, int symbol) {
+
+        VariableType variable = resolved.get(symbol);
+        if (variable == null) {
+            variable = scope.getVariable(symbol);
+            resolved.put(symbol, variable);
+        }
+        return variable;
+    }
+}
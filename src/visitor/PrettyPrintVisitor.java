@@ -5,412 +5,414 @@ import syntaxtree.*;
 /**
  * This visitor displays the syntax tree of a Minijava program as a Minijava
  * program
+ *
+ * The tree is traversed by a TreeWalker, so deeply nested statements and
+ * expressions do not overflow the call stack: the text preceding a node is
+ * written when it is entered, the text between its children before each
+ * child and the rest when it is left.
  */
-public class PrettyPrintVisitor implements Visitor {
+public class PrettyPrintVisitor extends TreeWalker<Void, Void> {
 
     private int indent;
-    
-    @Override
-    public void visit(Program n) {
-        indent = 0;
-        
-        n.mainClass.accept(this);
-        writelnCode();
-            
-        for (int i = 0; i < n.classes.size(); i++) {
-            n.classes.elementAt(i).accept(this);
-            writelnCode();
-        }
-    }
-
-    @Override
-    public void visit(MainClass n) {
-        writePrefix(); 
-        writeCode("class ");
-        n.classId.accept(this);
-        writeCode(" ");
-        writelnCode("{");
-        enterScope(); 
-        
-        writePrefix();
-        writeCode("public static void main (String [] ");
-        n.formalId.accept(this);
-        writeCode(") ");
-        
-        writelnCode("{");
-        enterScope();
-        
-        writePrefix();
-        n.statement.accept(this);
-        writelnCode();
-        
-        leaveScope();
-        writePrefix();
-        writelnCode("}");
-        
-        leaveScope();
-        writePrefix();
-        writelnCode("}");
-    }
 
     @Override
-    public void visit(ClassDeclSimple n) {
-        writePrefix();
-        writeCode("class ");
-        n.classId.accept(this);
-        writeCode(" ");
-        writelnCode("{");
-        enterScope();
-        
-        for (int i = 0; i < n.varDecls.size(); i++) {
-            writePrefix();
-            n.varDecls.elementAt(i).accept(this);
-            writelnCode();
-            if (i == n.varDecls.size() - 1) {
-                writelnCode();
-            }
+    protected Void enter(Node n, Void arg) {
+
+        switch (n.kind) {
+            case NodeKind.PROGRAM:
+                indent = 0;
+                break;
+            case NodeKind.MAIN_CLASS:
+            case NodeKind.CLASS_DECL_SIMPLE:
+                writePrefix();
+                writeCode("class ");
+                break;
+            case NodeKind.CLASS_DECL_EXTENDS:
+                writeCode("class ");
+                break;
+            case NodeKind.METHOD_DECL:
+                writeCode("public ");
+                break;
+            case NodeKind.INT_ARRAY_TYPE:
+                writeCode("int []");
+                break;
+            case NodeKind.BOOLEAN_TYPE:
+                writeCode("boolean");
+                break;
+            case NodeKind.INTEGER_TYPE:
+                writeCode("int");
+                break;
+            case NodeKind.IDENTIFIER_TYPE:
+                writeCode(((IdentifierType) n).name);
+                break;
+            case NodeKind.BLOCK:
+                writelnCode("{");
+                enterScope();
+                break;
+            case NodeKind.IF:
+                writeCode("if (");
+                break;
+            case NodeKind.WHILE:
+                writeCode("while (");
+                break;
+            case NodeKind.PRINT:
+                writeCode("System.out.println(");
+                break;
+            case NodeKind.AND:
+            case NodeKind.LESS_THAN:
+            case NodeKind.PLUS:
+            case NodeKind.MINUS:
+            case NodeKind.TIMES:
+                writeCode("(");
+                break;
+            case NodeKind.INTEGER_LITERAL:
+                writeCode(((IntegerLiteral) n).value);
+                break;
+            case NodeKind.TRUE:
+                writeCode("true");
+                break;
+            case NodeKind.FALSE:
+                writeCode("false");
+                break;
+            case NodeKind.IDENTIFIER_EXP:
+                writeCode(((IdentifierExp) n).name);
+                break;
+            case NodeKind.THIS:
+                writeCode("this");
+                break;
+            case NodeKind.NEW_ARRAY:
+                writeCode("new int [");
+                break;
+            case NodeKind.NEW_OBJECT:
+                writeCode("new ");
+                writeCode(((NewObject) n).classId.name);
+                writeCode("()");
+                skipChildren();
+                break;
+            case NodeKind.NOT:
+                writeCode("(!");
+                break;
+            case NodeKind.IDENTIFIER:
+                writeCode(((Identifier) n).name);
+                break;
+            default:
+                break;
         }
-        
-        for (int i = 0; i < n.methodDecls.size(); i++) {
-            writePrefix();
-            n.methodDecls.elementAt(i).accept(this);
-            writelnCode();
-            if (i < n.methodDecls.size() - 1) {
-                writelnCode();
+        return arg;
+    }
+
+    @Override
+    protected void beforeChild(Node n, int i, Void arg) {
+
+        switch (n.kind) {
+            case NodeKind.PROGRAM:
+                if (i > 0) {
+                    writelnCode();
+                }
+                break;
+            case NodeKind.MAIN_CLASS:
+                if (i == 1) {
+                    writeCode(" ");
+                    writelnCode("{");
+                    enterScope();
+                    writePrefix();
+                    writeCode("public static void main (String [] ");
+                } else if (i == 2) {
+                    writeCode(") ");
+                    writelnCode("{");
+                    enterScope();
+                    writePrefix();
+                }
+                break;
+            case NodeKind.CLASS_DECL_SIMPLE: {
+                ClassDeclSimple c = (ClassDeclSimple) n;
+                if (i > 0) {
+                    beforeMember(c.varDecls, c.methodDecls, i - 1);
+                }
+                break;
+            }
+            case NodeKind.CLASS_DECL_EXTENDS: {
+                ClassDeclExtends c = (ClassDeclExtends) n;
+                if (i == 1) {
+                    writeCode(" extends ");
+                } else if (i > 1) {
+                    beforeMember(c.varDecls, c.methodDecls, i - 2);
+                }
+                break;
             }
+            case NodeKind.VAR_DECL:
+            case NodeKind.FORMAL:
+                if (i == 1) {
+                    writeCode(" ");
+                }
+                break;
+            case NodeKind.METHOD_DECL:
+                beforeMethodChild((MethodDecl) n, i);
+                break;
+            case NodeKind.BLOCK:
+                if (i > 0) {
+                    writelnCode();
+                }
+                writePrefix();
+                break;
+            case NodeKind.IF:
+                if (i == 1) {
+                    writeCode(") ");
+                } else if (i == 2) {
+                    writeCode(" else ");
+                }
+                break;
+            case NodeKind.WHILE:
+                if (i == 1) {
+                    writeCode(") ");
+                }
+                break;
+            case NodeKind.ASSIGN:
+                if (i == 1) {
+                    writeCode(" = ");
+                }
+                break;
+            case NodeKind.ARRAY_ASSIGN:
+                if (i == 1) {
+                    writeCode("[");
+                } else if (i == 2) {
+                    writeCode("] = ");
+                }
+                break;
+            case NodeKind.AND:
+            case NodeKind.LESS_THAN:
+            case NodeKind.PLUS:
+            case NodeKind.MINUS:
+            case NodeKind.TIMES:
+                if (i == 1) {
+                    writeCode(operator(n.kind));
+                }
+                break;
+            case NodeKind.ARRAY_LOOKUP:
+                if (i == 1) {
+                    writeCode("[");
+                }
+                break;
+            case NodeKind.CALL:
+                if (i == 1) {
+                    writeCode(".");
+                } else if (i > 1) {
+                    writeCode((i == 2) ? "(" : ", ");
+                }
+                break;
+            default:
+                break;
         }
-        
-        leaveScope(); 
-        writePrefix();
-        writelnCode("}");
     }
 
     @Override
-    public void visit(ClassDeclExtends n) {
-        writeCode("class ");
-        n.subclassId.accept(this);
-        writeCode(" extends ");
-        n.superclassId.accept(this);
-        writeCode(" ");
-        writelnCode("{");
-        enterScope();
-        
-        for (int i = 0; i < n.varDecls.size(); i++) {
-            writePrefix();
-            n.varDecls.elementAt(i).accept(this);
-            writelnCode();
-            if (i == n.varDecls.size() - 1) {
+    protected Void leave(Node n, Void arg) {
+
+        switch (n.kind) {
+            case NodeKind.PROGRAM:
                 writelnCode();
-            }
-        }
-        
-        for (int i = 0; i < n.methodDecls.size(); i++) {
-            writePrefix();
-            n.methodDecls.elementAt(i).accept(this);
-            writelnCode();
-            if (i < n.methodDecls.size() - 1) {
+                break;
+            case NodeKind.MAIN_CLASS:
                 writelnCode();
+                leaveScope();
+                writePrefix();
+                writelnCode("}");
+                leaveScope();
+                writePrefix();
+                writelnCode("}");
+                break;
+            case NodeKind.CLASS_DECL_SIMPLE: {
+                ClassDeclSimple c = (ClassDeclSimple) n;
+                leaveClass(c.varDecls, c.methodDecls);
+                break;
+            }
+            case NodeKind.CLASS_DECL_EXTENDS: {
+                ClassDeclExtends c = (ClassDeclExtends) n;
+                leaveClass(c.varDecls, c.methodDecls);
+                break;
             }
+            case NodeKind.VAR_DECL:
+                writeCode(";");
+                break;
+            case NodeKind.METHOD_DECL:
+                writelnCode(";");
+                leaveScope();
+                writePrefix();
+                writeCode("}");
+                break;
+            case NodeKind.BLOCK:
+                if (((Block) n).statements.size() > 0) {
+                    writelnCode();
+                }
+                leaveScope();
+                writePrefix();
+                writeCode("}");
+                break;
+            case NodeKind.PRINT:
+                writeCode(");");
+                break;
+            case NodeKind.ASSIGN:
+            case NodeKind.ARRAY_ASSIGN:
+                writeCode(";");
+                break;
+            case NodeKind.AND:
+            case NodeKind.LESS_THAN:
+            case NodeKind.PLUS:
+            case NodeKind.MINUS:
+            case NodeKind.TIMES:
+            case NodeKind.NOT:
+                writeCode(")");
+                break;
+            case NodeKind.ARRAY_LOOKUP:
+            case NodeKind.NEW_ARRAY:
+                writeCode("]");
+                break;
+            case NodeKind.ARRAY_LENGTH:
+                writeCode(".length");
+                break;
+            case NodeKind.CALL:
+                writeCode((((Call) n).expList.size() == 0) ? "()" : ")");
+                break;
+            default:
+                break;
         }
-        
-        leaveScope(); 
-        writePrefix();
-        writelnCode("}");
+        return null;
     }
 
-    @Override
-    public void visit(VarDecl n) {
-        n.type.accept(this);
-        writeCode(" ");
-        n.id.accept(this);
-        writeCode(";");
-    }
+    /**
+     * writes the text preceding the i-th member of a class, the variables
+     * counted first: the opening brace of the class before the first
+     * member, the end of the previous member before the others.
+     */
+    private void beforeMember(VarDeclList varDecls,
+            MethodDeclList methodDecls, int i) {
 
-    @Override
-    public void visit(MethodDecl n) {
-        writeCode("public ");
-        n.resultType.accept(this);
-        writeCode(" ");
-        n.methodId.accept(this);
-        
-        writeCode("(");
-        for (int i = 0; i < n.formalList.size(); i++) {
-            n.formalList.elementAt(i).accept(this);
-            if (i + 1 < n.formalList.size()) {
-                writeCode(", ");
-            }
-        }
-        writeCode(") ");
-        writelnCode("{");
-        
-        enterScope();
-        
-        for (int i = 0; i < n.varDecls.size(); i++) {
-            writePrefix();
-            n.varDecls.elementAt(i).accept(this);
-            writelnCode();
-            if (i == n.varDecls.size() - 1) {
-                writelnCode();
-            }
+        if (i == 0) {
+            openClass();
+        } else {
+            afterMember(varDecls, methodDecls, i - 1);
         }
-        
-        for (int i = 0; i < n.statements.size(); i++) {
-            writePrefix();
-            n.statements.elementAt(i).accept(this);
-            writelnCode();
-        }
-        
         writePrefix();
-        writeCode("return ");
-        n.returnExp.accept(this);
-        writelnCode(";");
-        
-        leaveScope(); 
-        writePrefix();
-        writeCode("}");
-    }
-
-    @Override
-    public void visit(Formal n) {
-        n.type.accept(this);
-        writeCode(" ");
-        n.id.accept(this);
-    }
-
-    @Override
-    public void visit(IntArrayType n) {
-        writeCode("int []");
-    }
-
-    @Override
-    public void visit(BooleanType n) {
-        writeCode("boolean");
-    }
-
-    @Override
-    public void visit(IntegerType n) {
-        writeCode("int");
     }
 
-    @Override
-    public void visit(IdentifierType n) {
-        writeCode(n.name);
-    }
+    /**
+     * writes the end of a class after its last member.
+     */
+    private void leaveClass(VarDeclList varDecls,
+            MethodDeclList methodDecls) {
 
-    @Override
-    public void visit(Block n) {
-        writelnCode("{");
-        enterScope();
-        
-        for (int i = 0; i < n.statements.size(); i++) {
-            writePrefix();
-            n.statements.elementAt(i).accept(this);
-            writelnCode();
+        int members = varDecls.size() + methodDecls.size();
+        if (members == 0) {
+            openClass();
+        } else {
+            afterMember(varDecls, methodDecls, members - 1);
         }
-        
-        leaveScope(); 
+        leaveScope();
         writePrefix();
-        writeCode("}");
-    }
-
-    @Override
-    public void visit(If n) {
-        writeCode("if (");
-        n.exp.accept(this);
-        writeCode(") ");
-        
-        n.thenStatement.accept(this);
-        
-        writeCode(" else ");
-        n.elseStatement.accept(this);
-    }
-
-    @Override
-    public void visit(While n) {
-        writeCode("while (");
-        n.exp.accept(this);
-        writeCode(") ");
-        
-        n.statement.accept(this);
-    }
-
-    @Override
-    public void visit(Print n) {
-        writeCode("System.out.println(");
-        n.exp.accept(this);
-        writeCode(");");
-    }
-
-    @Override
-    public void visit(Assign n) {
-        n.id.accept(this);
-        writeCode(" = ");
-        n.exp.accept(this);
-        writeCode(";");
-    }
-
-    @Override
-    public void visit(ArrayAssign n) {
-        n.arrayId.accept(this);
-        writeCode("[");
-        n.index.accept(this);
-        writeCode("] = ");
-        n.exp.accept(this);
-        writeCode(";");
-    }
-
-    @Override
-    public void visit(And n) {
-        writeCode("(");
-        n.left.accept(this);
-        writeCode(" && ");
-        n.right.accept(this);
-        writeCode(")");
-    }
-
-    @Override
-    public void visit(LessThan n) {
-        writeCode("(");
-        n.left.accept(this);
-        writeCode(" < ");
-        n.right.accept(this);
-        writeCode(")");
-    }
-
-    @Override
-    public void visit(Plus n) {
-        writeCode("(");
-        n.left.accept(this);
-        writeCode(" + ");
-        n.right.accept(this);
-        writeCode(")");
-    }
-
-    @Override
-    public void visit(Minus n) {
-        writeCode("(");
-        n.left.accept(this);
-        writeCode(" - ");
-        n.right.accept(this);
-        writeCode(")");
-    }
-
-    @Override
-    public void visit(Times n) {
-        writeCode("(");
-        n.left.accept(this);
-        writeCode(" * ");
-        n.right.accept(this);
-        writeCode(")");
+        writelnCode("}");
     }
 
-    @Override
-    public void visit(ArrayLookup n) {
-        n.arrayId.accept(this);
-        writeCode("[");
-        n.index.accept(this);
-        writeCode("]");
+    private void openClass() {
+        writeCode(" ");
+        writelnCode("{");
+        enterScope();
     }
 
-    @Override
-    public void visit(ArrayLength n) {
-        n.arrayId.accept(this);
-        writeCode(".length");
-    }
+    /**
+     * writes the end of the i-th member of a class: the variables are
+     * followed by an empty line, as are the methods except the last.
+     */
+    private void afterMember(VarDeclList varDecls,
+            MethodDeclList methodDecls, int i) {
 
-    @Override
-    public void visit(Call n) {
-        n.exp.accept(this);
-        writeCode(".");
-        n.methodId.accept(this);
-        writeCode("(");
-        for (int i = 0; i < n.expList.size(); i++) {
-            n.expList.elementAt(i).accept(this);
-            if (i + 1 < n.expList.size()) {
-                writeCode(", ");
+        writelnCode();
+        if (i < varDecls.size()) {
+            if (i == varDecls.size() - 1) {
+                writelnCode();
             }
+        } else if (i - varDecls.size() < methodDecls.size() - 1) {
+            writelnCode();
         }
-        writeCode(")");
-    }
-
-    @Override
-    public void visit(IntegerLiteral n) {
-        writeCode(n.value);
-    }
-
-    @Override
-    public void visit(True n) {
-        writeCode("true");
-    }
-
-    @Override
-    public void visit(False n) {
-        writeCode("false");
-    }
-
-    @Override
-    public void visit(IdentifierExp n) {
-        writeCode(n.name);
-    }
-
-    @Override
-    public void visit(This n) {
-        writeCode("this");
     }
 
-    @Override
-    public void visit(NewArray n) {
-        writeCode("new int [");
-        n.exp.accept(this);
-        writeCode("]");
-    }
-
-    @Override
-    public void visit(NewObject n) {
-        writeCode("new ");
-        writeCode(n.classId.name);
-        writeCode("()");
+    /**
+     * writes the text preceding the i-th child of a method: its result
+     * type, name, formal parameters, local variables, statements and the
+     * return expression (see TreeWalker.child).
+     */
+    private void beforeMethodChild(MethodDecl n, int i) {
+
+        int formals = n.formalList.size();
+        int body = 2 + formals;
+        if (i == 1) {
+            writeCode(" ");
+        } else if (i > 1 && i < body) {
+            writeCode((i == 2) ? "(" : ", ");
+        } else if (i >= body) {
+            int varDecls = n.varDecls.size();
+            if (i == body) {
+                writeCode((formals == 0) ? "() " : ") ");
+                writelnCode("{");
+                enterScope();
+            } else {
+                writelnCode();
+                if (i == body + varDecls) {
+                    writelnCode();
+                }
+            }
+            writePrefix();
+            if (i == body + varDecls + n.getStatements().size()) {
+                writeCode("return ");
+            }
+        }
     }
 
-    @Override
-    public void visit(Not n) {
-        writeCode("(!");
-        n.exp.accept(this);
-        writeCode(")");
+    /**
+     * returns the operator of a binary operation with the surrounding
+     * blanks.
+     */
+    private static String operator(int kind) {
+
+        switch (kind) {
+            case NodeKind.AND:
+                return " && ";
+            case NodeKind.LESS_THAN:
+                return " < ";
+            case NodeKind.PLUS:
+                return " + ";
+            case NodeKind.MINUS:
+                return " - ";
+            default:
+                return " * ";
+        }
     }
 
-    @Override
-    public void visit(Identifier n) {
-        writeCode(n.name);
-    }
-    
-    
 /* ==========================================================================
  * helper methods
  * ======================================================================= */
-    
+
     public void writelnCode() {
         System.out.println();
     }
-    
+
     public void writelnCode(String code) {
         System.out.println(code);
     }
-    
+
     public void writeCode(String code) {
         System.out.print(code);
     }
-    
+
     public void writeCode(int num) {
         System.out.print(num + "");
     }
-    
+
     public void writePrefix() {
         for (int i = 0; i < indent; i++) {
             writeCode("    ");
         }
     }
-    
+
     private void enterScope() {
         this.indent++;
     }
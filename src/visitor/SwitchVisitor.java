@@ -0,0 +1,105 @@
+package visitor;
+
+import syntaxtree.*;
+
+/**
+ * Abstract class for visitors that dispatch on the kind of a node (see
+ * NodeKind) instead of calling its accept method.
+ *
+ * A call n.accept(v, arg) goes through one call site for all 34 classes of
+ * nodes, which the JIT compiler cannot inline. dispatch(n, arg) selects the
+ * visit method by a switch on n.kind, so each visit method is called from a
+ * call site of its own that only sees the visitor class.
+ *
+ * Subclasses visit children by dispatch(child, arg). Since the visitor
+ * remains a GenericVisitor, it may still be passed to accept.
+ *
+ * @param <R> type of the results
+ * @param <A> type of the arguments
+ */
+public abstract class SwitchVisitor<R, A> implements GenericVisitor<R, A> {
+
+    /**
+     * visits the given node by the visit method for its kind.
+     *
+     * @param n node of the syntax tree
+     * @param arg argument handed to the visit method
+     * @return result of the visit method
+     */
+    public final R dispatch(Node n, A arg) {
+
+        switch (n.kind) {
+            case NodeKind.PROGRAM:
+                return visit((Program) n, arg);
+            case NodeKind.MAIN_CLASS:
+                return visit((MainClass) n, arg);
+            case NodeKind.CLASS_DECL_SIMPLE:
+                return visit((ClassDeclSimple) n, arg);
+            case NodeKind.CLASS_DECL_EXTENDS:
+                return visit((ClassDeclExtends) n, arg);
+            case NodeKind.VAR_DECL:
+                return visit((VarDecl) n, arg);
+            case NodeKind.METHOD_DECL:
+                return visit((MethodDecl) n, arg);
+            case NodeKind.FORMAL:
+                return visit((Formal) n, arg);
+            case NodeKind.INT_ARRAY_TYPE:
+                return visit((IntArrayType) n, arg);
+            case NodeKind.BOOLEAN_TYPE:
+                return visit((BooleanType) n, arg);
+            case NodeKind.INTEGER_TYPE:
+                return visit((IntegerType) n, arg);
+            case NodeKind.IDENTIFIER_TYPE:
+                return visit((IdentifierType) n, arg);
+            case NodeKind.BLOCK:
+                return visit((Block) n, arg);
+            case NodeKind.IF:
+                return visit((If) n, arg);
+            case NodeKind.WHILE:
+                return visit((While) n, arg);
+            case NodeKind.PRINT:
+                return visit((Print) n, arg);
+            case NodeKind.ASSIGN:
+                return visit((Assign) n, arg);
+            case NodeKind.ARRAY_ASSIGN:
+                return visit((ArrayAssign) n, arg);
+            case NodeKind.AND:
+                return visit((And) n, arg);
+            case NodeKind.LESS_THAN:
+                return visit((LessThan) n, arg);
+            case NodeKind.PLUS:
+                return visit((Plus) n, arg);
+            case NodeKind.MINUS:
+                return visit((Minus) n, arg);
+            case NodeKind.TIMES:
+                return visit((Times) n, arg);
+            case NodeKind.ARRAY_LOOKUP:
+                return visit((ArrayLookup) n, arg);
+            case NodeKind.ARRAY_LENGTH:
+                return visit((ArrayLength) n, arg);
+            case NodeKind.CALL:
+                return visit((Call) n, arg);
+            case NodeKind.INTEGER_LITERAL:
+                return visit((IntegerLiteral) n, arg);
+            case NodeKind.TRUE:
+                return visit((True) n, arg);
+            case NodeKind.FALSE:
+                return visit((False) n, arg);
+            case NodeKind.IDENTIFIER_EXP:
+                return visit((IdentifierExp) n, arg);
+            case NodeKind.THIS:
+                return visit((This) n, arg);
+            case NodeKind.NEW_ARRAY:
+                return visit((NewArray) n, arg);
+            case NodeKind.NEW_OBJECT:
+                return visit((NewObject) n, arg);
+            case NodeKind.NOT:
+                return visit((Not) n, arg);
+            case NodeKind.IDENTIFIER:
+                return visit((Identifier) n, arg);
+            default:
+                throw new IllegalArgumentException("unknown kind of node: "
+                        + n.kind);
+        }
+    }
+}
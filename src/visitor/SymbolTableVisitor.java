@@ -8,9 +8,13 @@ import visitor.symboltable.*;
  * syntax tree for some Minijava program (in a depth-first manner) in order to
  * fill the corresponding symbol table.
  *
+ * The argument of a visit method is the scope of the symbol table in which
+ * the visited declaration is entered, starting with getSymbolTable() for
+ * the program.
+ *
  * Note: the implementation includes no error handling
  */
-public class SymbolTableVisitor implements Visitor {
+public class SymbolTableVisitor extends SwitchVisitor<Void, SymbolTable> {
 
     /**
      * Offset for gloabl variables 
@@ -27,11 +31,23 @@ public class SymbolTableVisitor implements Visitor {
     int offset;
 
     /**
-     * Creates a new instance with empty symbol table. 
+     * Creates a new instance with empty symbol table for a program with the
+     * given identifiers (see Program.symbols).
      */
-    public SymbolTableVisitor() {
+    public SymbolTableVisitor(Symbols symbols) {
 
-        this.symbolTable = new ProgramTable();
+        this.symbolTable = new ProgramTable(symbols);
+        this.offset = OFFSET_GLOBALS;
+    }
+
+    /**
+     * starts a new, empty symbol table for a program with the given
+     * identifiers, so the visitor may be reused for another program. The
+     * previous table is left to its users.
+     */
+    public void reset(Symbols symbols) {
+
+        this.symbolTable = new ProgramTable(symbols);
         this.offset = OFFSET_GLOBALS;
     }
 
@@ -42,23 +58,41 @@ public class SymbolTableVisitor implements Visitor {
         return this.symbolTable;
     }
 
+    /**
+     * completes the symbol table after the main class and the classes have
+     * been visited one at a time instead of as program: the inheritance
+     * relation is indexed and the table is frozen, as by visit(Program).
+     */
+    public void complete() {
+        ((ProgramTable) symbolTable).buildHierarchy();
+        ((ProgramTable) symbolTable).freeze();
+    }
+
     /* ========================================================================
      * visit methods
      * ===================================================================== */
     
     @Override
-    public void visit(Program n) {
-        n.mainClass.accept(this);
+    public Void visit(Program n, SymbolTable scope) {
+        dispatch(n.mainClass, scope);
         for (int i = 0; i < n.classes.size(); i++) {
-            n.classes.elementAt(i).accept(this);
+            dispatch(n.classes.elementAt(i), scope);
         }
+
+        /* all classes are known, so the inheritance relation is indexed */
+        ((ProgramTable) scope).buildHierarchy();
+
+        /* later passes only read the table, possibly in parallel */
+        ((ProgramTable) scope).freeze();
+        return null;
     }
 
     @Override
-    public void visit(MainClass n) {
-        this.enterClassScope(n.classId.name);
-        this.enterMethodScope("main", null);
-        this.putFormalParameter(n.formalId.name, "java/lang/String;", 1);
+    public Void visit(MainClass n, SymbolTable scope) {
+        ClassTable classTable = this.enterClassScope(scope, n.classId.name);
+        MethodTable methodTable = this.enterMethodScope(classTable, "main", null);
+        this.putFormalParameter(methodTable, n.formalId.name, 
+                PrimitiveType.STRING_ARRAY, 1);
 
         /* 
          * n.classId.accept(this);
@@ -68,13 +102,14 @@ public class SymbolTableVisitor implements Visitor {
 
         this.leaveMethodScope();
         this.leaveClassScope();
+        return null;
     }
 
     @Override
-    public void visit(ClassDeclSimple n) {
+    public Void visit(ClassDeclSimple n, SymbolTable scope) {
 
         /* enter scope of current class */
-        this.enterClassScope(n.classId.name);
+        ClassTable classTable = this.enterClassScope(scope, n.classId.name);
 
         /* 
          * n.classId.accept(this);
@@ -82,60 +117,65 @@ public class SymbolTableVisitor implements Visitor {
 
         /* visit global variable declarations */
         for (int i = 0; i < n.varDecls.size(); i++) {
-            n.varDecls.elementAt(i).accept(this);
+            dispatch(n.varDecls.elementAt(i), classTable);
         }
 
         /* visit method declarations */
         for (int i = 0; i < n.methodDecls.size(); i++) {
-            n.methodDecls.elementAt(i).accept(this);
+            dispatch(n.methodDecls.elementAt(i), classTable);
         }
 
         /* leave current class scope */
         this.leaveClassScope();
+        return null;
     }
 
     @Override
-    public void visit(ClassDeclExtends n) {
+    public Void visit(ClassDeclExtends n, SymbolTable scope) {
 
         /* enter scope of current class */
-        this.enterClassScope(n.subclassId.name);
+        ClassTable classTable = this.enterClassScope(scope, n.subclassId.name);
 
         /*
          * n.subclassId.accept(this);
          * n.superclassId.accept(this);
          */
 
-        this.setSuperClassname(n.superclassId.name);
+        classTable.setSuperClassname(n.superclassId.name);
 
         /* global variable declarations */
         for (int i = 0; i < n.varDecls.size(); i++) {
-            n.varDecls.elementAt(i).accept(this);
+            dispatch(n.varDecls.elementAt(i), classTable);
         }
 
         /* method declarations */
         for (int i = 0; i < n.methodDecls.size(); i++) {
-            n.methodDecls.elementAt(i).accept(this);
+            dispatch(n.methodDecls.elementAt(i), classTable);
         }
 
         this.leaveClassScope();
+        return null;
     }
 
     @Override
-    public void visit(VarDecl n) {
-        this.putVariable(n.id.name, this.convertType(n.type), offset);
+    public Void visit(VarDecl n, SymbolTable scope) {
+        this.putVariable(scope, n.id.name, this.convertType(scope, n.type), 
+                offset);
         offset = offset + 1;
 
         /*
          * n.type.accept(this);
          * n.id.accept(this);
          */
+        return null;
     }
 
     @Override
-    public void visit(MethodDecl n) {
+    public Void visit(MethodDecl n, SymbolTable scope) {
 
         /* enter scope of current method */
-        this.enterMethodScope(n.methodId.name, n.resultType);
+        MethodTable methodTable = this.enterMethodScope((ClassTable) scope, 
+                n.methodId.name, n.resultType);
 
         /*
          * n.resultType.accept(this);
@@ -144,12 +184,12 @@ public class SymbolTableVisitor implements Visitor {
 
         /* visit formal parameters */
         for (int i = 0; i < n.formalList.size(); i++) {
-            n.formalList.elementAt(i).accept(this);
+            dispatch(n.formalList.elementAt(i), methodTable);
         }
 
         /* visit local variable declarations */
         for (int i = 0; i < n.varDecls.size(); i++) {
-            n.varDecls.elementAt(i).accept(this);
+            dispatch(n.varDecls.elementAt(i), methodTable);
         }
 
         /*
@@ -161,125 +201,155 @@ public class SymbolTableVisitor implements Visitor {
 
         /* leave scope of current method */
         this.leaveMethodScope();
+        return null;
     }
 
     @Override
-    public void visit(Formal n) {
-        this.putFormalParameter(n.id.name, this.convertType(n.type), offset);
+    public Void visit(Formal n, SymbolTable scope) {
+        this.putFormalParameter((MethodTable) scope, n.id.name, 
+                this.convertType(scope, n.type), offset);
         offset = offset + 1;
 
         /*
          * n.t.accept(this);
          * n.i.accept(this);
          */
+        return null;
     }
 
     @Override
-    public void visit(IntArrayType n) {
+    public Void visit(IntArrayType n, SymbolTable scope) {
+        return null;
     }
 
     @Override
-    public void visit(BooleanType n) {
+    public Void visit(BooleanType n, SymbolTable scope) {
+        return null;
     }
 
     @Override
-    public void visit(IntegerType n) {
+    public Void visit(IntegerType n, SymbolTable scope) {
+        return null;
     }
 
     @Override
-    public void visit(IdentifierType n) {
+    public Void visit(IdentifierType n, SymbolTable scope) {
+        return null;
     }
 
     @Override
-    public void visit(Block n) {
+    public Void visit(Block n, SymbolTable scope) {
+        return null;
     }
 
     @Override
-    public void visit(If n) {
+    public Void visit(If n, SymbolTable scope) {
+        return null;
     }
 
     @Override
-    public void visit(While n) {
+    public Void visit(While n, SymbolTable scope) {
+        return null;
     }
 
     @Override
-    public void visit(Print n) {
+    public Void visit(Print n, SymbolTable scope) {
+        return null;
     }
 
     @Override
-    public void visit(Assign n) {
+    public Void visit(Assign n, SymbolTable scope) {
+        return null;
     }
 
     @Override
-    public void visit(ArrayAssign n) {
+    public Void visit(ArrayAssign n, SymbolTable scope) {
+        return null;
     }
 
     @Override
-    public void visit(And n) {
+    public Void visit(And n, SymbolTable scope) {
+        return null;
     }
 
     @Override
-    public void visit(LessThan n) {
+    public Void visit(LessThan n, SymbolTable scope) {
+        return null;
     }
 
     @Override
-    public void visit(Plus n) {
+    public Void visit(Plus n, SymbolTable scope) {
+        return null;
     }
 
     @Override
-    public void visit(Minus n) {
+    public Void visit(Minus n, SymbolTable scope) {
+        return null;
     }
 
     @Override
-    public void visit(Times n) {
+    public Void visit(Times n, SymbolTable scope) {
+        return null;
     }
 
     @Override
-    public void visit(ArrayLookup n) {
+    public Void visit(ArrayLookup n, SymbolTable scope) {
+        return null;
     }
 
     @Override
-    public void visit(ArrayLength n) {
+    public Void visit(ArrayLength n, SymbolTable scope) {
+        return null;
     }
 
     @Override
-    public void visit(Call n) {
+    public Void visit(Call n, SymbolTable scope) {
+        return null;
     }
 
     @Override
-    public void visit(IntegerLiteral n) {
+    public Void visit(IntegerLiteral n, SymbolTable scope) {
+        return null;
     }
 
     @Override
-    public void visit(True n) {
+    public Void visit(True n, SymbolTable scope) {
+        return null;
     }
 
     @Override
-    public void visit(False n) {
+    public Void visit(False n, SymbolTable scope) {
+        return null;
     }
 
     @Override
-    public void visit(IdentifierExp n) {
+    public Void visit(IdentifierExp n, SymbolTable scope) {
+        return null;
     }
 
     @Override
-    public void visit(This n) {
+    public Void visit(This n, SymbolTable scope) {
+        return null;
     }
 
     @Override
-    public void visit(NewArray n) {
+    public Void visit(NewArray n, SymbolTable scope) {
+        return null;
     }
 
     @Override
-    public void visit(NewObject n) {
+    public Void visit(NewObject n, SymbolTable scope) {
+        return null;
     }
 
     @Override
-    public void visit(Not n) {
+    public Void visit(Not n, SymbolTable scope) {
+        return null;
     }
 
     @Override
-    public void visit(Identifier n) {
+    public Void visit(Identifier n, SymbolTable scope) {
+        return null;
     }
 
 
@@ -291,20 +361,20 @@ public class SymbolTableVisitor implements Visitor {
      * enters the scope of the class given by classname and extends the 
      * symbol table with an entry for this class.
      * 
+     * @param scope program table
      * @param classname 
+     * @return table of the class
      */
-    private void enterClassScope(String classname) {
+    private ClassTable enterClassScope(SymbolTable scope, String classname) {
 
-        this.symbolTable = ((ProgramTable) this.symbolTable).putClass(classname);
         offset = OFFSET_GLOBALS;
+        return ((ProgramTable) scope).putClass(classname);
     }
 
     /**
-     * leaves the current class scope and restores the scope of the surrounding
-     * environment
+     * leaves the current class scope
      */
     private void leaveClassScope() {
-        this.symbolTable = this.symbolTable.getParent();
         offset = OFFSET_GLOBALS;
     }
 
@@ -312,36 +382,28 @@ public class SymbolTableVisitor implements Visitor {
      * enters the scope of the methode given by methodname and extends the 
      * symbol table with an entry for this method.
      * 
+     * @param scope table of the class
      * @param methodname
      * @param type 
+     * @return table of the method
      */
-    private void enterMethodScope(String methodname, Type type) {
-
-        this.symbolTable = ((ClassTable) this.symbolTable).putMethod(methodname, this.convertType(type));
+    private MethodTable enterMethodScope(ClassTable scope, String methodname, 
+            Type type) {
 
         /* the first parameter of a method call is always "This" 
          * so the offset starts with 1 */
         offset = 1;
+
+        return scope.putMethod(methodname, this.convertType(scope, type));
     }
 
     /**
-     * leaves the current method scope and restores the scope of the surrounding
-     * environment and the offset.
+     * leaves the current method scope and restores the offset.
      */
     private void leaveMethodScope() {
-        this.symbolTable = this.symbolTable.getParent();
         offset = OFFSET_GLOBALS;
     }
 
-    /**
-     * adds the sub/super class relationship to the current symbol table
-     * 
-     * @param superClassname 
-     */
-    private void setSuperClassname(String superClassname) {
-        ((ClassTable) this.symbolTable).setSuperClassname(superClassname);
-    }
-
     /**
      * stores the given variable name (and its type and offset) in the symbol 
      * table.
@@ -351,21 +413,23 @@ public class SymbolTableVisitor implements Visitor {
      * 
      * TODO (UG): cast should be omitted
      * 
+     * @param scope
      * @param varname
      * @param type
      * @param offset 
      */
-    private void putVariable(String varname, String type, int offset) {
+    private void putVariable(SymbolTable scope, String varname, 
+            SemanticType type, int offset) {
 
-        if (this.symbolTable instanceof ClassTable) {
+        if (scope instanceof ClassTable) {
 
             /* defines a global variable */
-            ((ClassTable) this.symbolTable).putVariable(varname, type);
+            ((ClassTable) scope).putVariable(varname, type);
 
         } else {
 
             /* defines a local variable */
-            ((MethodTable) this.symbolTable).putVariable(varname, type, offset);
+            ((MethodTable) scope).putVariable(varname, type, offset);
         }
     }
 
@@ -373,38 +437,46 @@ public class SymbolTableVisitor implements Visitor {
      * stores the given formal parameter varname (and its type and offset) 
      * in the symbol table.
      * 
+     * @param scope
      * @param paramname
      * @param type
      * @param offset 
      */
-    private void putFormalParameter(String paramname, String type, int offset) {
-        ((MethodTable) this.symbolTable).putFormalParameter(
-                paramname, type, offset);
+    private void putFormalParameter(MethodTable scope, String paramname, 
+            SemanticType type, int offset) {
+        scope.putFormalParameter(paramname, type, offset);
     }
 
     /**
-     * converts a node of the syntax tree of type "Type" into a string. This 
-     * string will be stored in the symbol table. 
-     * - If type corresponds to a user-defined class, the name of the class 
-     *   is returned. 
-     * - If the type is a predefined type then either "IntegerType", 
-     *   "BooleanType", "IntArrayType" is returned. 
-     * - If no type is given "VoidType" is returned 
+     * converts a node of the syntax tree of type "Type" into the canonical
+     * type object to be stored in the symbol table. 
+     * - If type corresponds to a user-defined class, the class type of the
+     *   class is returned. 
+     * - If the type is a predefined type then either PrimitiveType.INTEGER, 
+     *   BOOLEAN or INT_ARRAY is returned. 
+     * - If no type is given PrimitiveType.VOID is returned 
      * 
+     * @param scope
      * @param type
-     * @return String representation of the given type
+     * @return canonical type object for the given type
      */
-    private String convertType(Type type) {
+    private SemanticType convertType(SymbolTable scope, Type type) {
 
         if (type == null) {
-            return "VoidType";
+            return PrimitiveType.VOID;
 
         } else if (type instanceof IdentifierType) {
 
-            return ((IdentifierType) type).getName();
+            return scope.getClassType(((IdentifierType) type).symbol);
+
+        } else if (type instanceof IntegerType) {
+            return PrimitiveType.INTEGER;
+
+        } else if (type instanceof BooleanType) {
+            return PrimitiveType.BOOLEAN;
 
         } else {
-            return type.getClass().getSimpleName();
+            return PrimitiveType.INT_ARRAY;
         }
     }
 }
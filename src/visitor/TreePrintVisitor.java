@@ -4,373 +4,147 @@ import syntaxtree.*;
 
 /**
  * This visitor displays the syntax tree of a Minijava program as a tree
+ *
+ * The tree is traversed by a TreeWalker, so its depth is not limited by the
+ * call stack: a node is written when it is entered, and the indentation of
+ * its children is undone when it is left.
  */
-public class TreePrintVisitor implements Visitor {
+public class TreePrintVisitor extends TreeWalker<Void, Void> {
 
     private int indent = 0;
 
     @Override
-    public void visit(Program n) {
-        indent = 1;
-        System.out.println("Program");
-        n.mainClass.accept(this);
-        for (int i = 0; i < n.classes.size(); i++) {
-            n.classes.elementAt(i).accept(this);
-        }
-        indent--;
-    }
+    protected Void enter(Node n, Void arg) {
 
-    @Override
-    public void visit(MainClass n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("MainClass ");
-        n.classId.accept(this);
-        n.formalId.accept(this);
-        n.statement.accept(this);
-        indent--;
-    }
-
-    @Override
-    public void visit(ClassDeclSimple n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("ClassDeclSimple ");
-        n.classId.accept(this);
-        for (int i = 0; i < n.varDecls.size(); i++) {
-            n.varDecls.elementAt(i).accept(this);
-            if (i + 1 < n.varDecls.size()) {
-            }
-        }
-        for (int i = 0; i < n.methodDecls.size(); i++) {
-            n.methodDecls.elementAt(i).accept(this);
+        if (n.kind == NodeKind.PROGRAM) {
+            indent = 1;
+            System.out.println("Program");
+            return arg;
         }
-        indent--;
-    }
 
-    @Override
-    public void visit(ClassDeclExtends n) {
         write_prefix(indent);
         indent++;
-        System.out.println("ClassDeclExtends ");
-        n.subclassId.accept(this);
-        n.superclassId.accept(this);
-        for (int i = 0; i < n.varDecls.size(); i++) {
-            n.varDecls.elementAt(i).accept(this);
-            if (i + 1 < n.varDecls.size()) {
-                System.out.println();
-            }
+        System.out.println(label(n));
+
+        switch (n.kind) {
+            case NodeKind.IDENTIFIER_TYPE:
+                write_prefix(indent);
+                System.out.println(((IdentifierType) n).name);
+                break;
+            case NodeKind.INTEGER_LITERAL:
+                write_prefix(indent);
+                System.out.println(((IntegerLiteral) n).value);
+                break;
+            case NodeKind.IDENTIFIER_EXP:
+                write_prefix(indent);
+                System.out.println(((IdentifierExp) n).name);
+                break;
+            case NodeKind.NEW_OBJECT:
+                write_prefix(indent);
+                System.out.println(((NewObject) n).classId.name);
+                skipChildren();
+                break;
+            case NodeKind.IDENTIFIER:
+                write_prefix(indent);
+                System.out.println(((Identifier) n).name);
+                break;
+            default:
+                break;
         }
-        for (int i = 0; i < n.methodDecls.size(); i++) {
-            n.methodDecls.elementAt(i).accept(this);
-        }
-        indent--;
+        return arg;
     }
 
     @Override
-    public void visit(VarDecl n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("VarDecl");
-        n.type.accept(this);
-        n.id.accept(this);
-        indent--;
-    }
+    protected void beforeChild(Node n, int i, Void arg) {
 
-    @Override
-    public void visit(MethodDecl n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("MethodDecl");
-        n.resultType.accept(this);
-        n.methodId.accept(this);
-        for (int i = 0; i < n.formalList.size(); i++) {
-            n.formalList.elementAt(i).accept(this);
-            if (i + 1 < n.formalList.size()) {
-            }
+        /* the variables of a subclass are separated by empty lines */
+        if (n.kind == NodeKind.CLASS_DECL_EXTENDS && i > 2
+                && i < 2 + ((ClassDeclExtends) n).varDecls.size()) {
+            System.out.println();
         }
-        for (int i = 0; i < n.varDecls.size(); i++) {
-            n.varDecls.elementAt(i).accept(this);
-        }
-        for (int i = 0; i < n.statements.size(); i++) {
-            n.statements.elementAt(i).accept(this);
-            if (i < n.statements.size()) {
-            }
-        }
-        n.returnExp.accept(this);
-        indent--;
-    }
-
-    @Override
-    public void visit(Formal n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("Formal");
-        n.type.accept(this);
-        n.id.accept(this);
-        indent--;
-    }
-
-    @Override
-    public void visit(IntArrayType n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("IntArrayType");
-        indent--;
-    }
-
-    @Override
-    public void visit(BooleanType n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("BooleanType");
-        indent--;
-    }
-
-    @Override
-    public void visit(IntegerType n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("IntegerType");
-        indent--;
     }
 
     @Override
-    public void visit(IdentifierType n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("IdentifierType");
-        write_prefix(indent);
-        System.out.println(n.name);
-        indent--;
-    }
-
-    @Override
-    public void visit(Block n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("Block");
-        for (int i = 0; i < n.statements.size(); i++) {
-            n.statements.elementAt(i).accept(this);
+    protected Void leave(Node n, Void arg) {
+        indent--;
+        return null;
+    }
+
+    /**
+     * returns the line written for the given node.
+     */
+    private static String label(Node n) {
+
+        switch (n.kind) {
+            case NodeKind.MAIN_CLASS:
+                return "MainClass ";
+            case NodeKind.CLASS_DECL_SIMPLE:
+                return "ClassDeclSimple ";
+            case NodeKind.CLASS_DECL_EXTENDS:
+                return "ClassDeclExtends ";
+            case NodeKind.VAR_DECL:
+                return "VarDecl";
+            case NodeKind.METHOD_DECL:
+                return "MethodDecl";
+            case NodeKind.FORMAL:
+                return "Formal";
+            case NodeKind.INT_ARRAY_TYPE:
+                return "IntArrayType";
+            case NodeKind.BOOLEAN_TYPE:
+                return "BooleanType";
+            case NodeKind.INTEGER_TYPE:
+                return "IntegerType";
+            case NodeKind.IDENTIFIER_TYPE:
+                return "IdentifierType";
+            case NodeKind.BLOCK:
+                return "Block";
+            case NodeKind.IF:
+                return "If";
+            case NodeKind.WHILE:
+                return "While";
+            case NodeKind.PRINT:
+                return "Print";
+            case NodeKind.ASSIGN:
+                return "Assign";
+            case NodeKind.ARRAY_ASSIGN:
+                return "ArrayAssign";
+            case NodeKind.AND:
+                return "And";
+            case NodeKind.LESS_THAN:
+                return "LessThan";
+            case NodeKind.PLUS:
+                return "Plus";
+            case NodeKind.MINUS:
+                return "Minus";
+            case NodeKind.TIMES:
+                return "Times";
+            case NodeKind.ARRAY_LOOKUP:
+                return "ArrayLookup";
+            case NodeKind.ARRAY_LENGTH:
+                return "ArrayLength";
+            case NodeKind.CALL:
+                return "Call";
+            case NodeKind.INTEGER_LITERAL:
+                return "IntegerLiteral";
+            case NodeKind.TRUE:
+                return "True";
+            case NodeKind.FALSE:
+                return "False";
+            case NodeKind.IDENTIFIER_EXP:
+                return "IdentifierExp";
+            case NodeKind.THIS:
+                return "This";
+            case NodeKind.NEW_ARRAY:
+                return "NewArray";
+            case NodeKind.NEW_OBJECT:
+                return "NewObject";
+            case NodeKind.NOT:
+                return "Not";
+            case NodeKind.IDENTIFIER:
+                return "Identifier";
+            default:
+                throw new IllegalArgumentException("node of kind " + n.kind);
         }
-        indent--;
-    }
-
-    @Override
-    public void visit(If n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("If");
-        n.exp.accept(this);
-        n.thenStatement.accept(this);
-        n.elseStatement.accept(this);
-        indent--;
-    }
-
-    @Override
-    public void visit(While n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("While");
-        n.exp.accept(this);
-        n.statement.accept(this);
-        indent--;
-    }
-
-    @Override
-    public void visit(Print n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("Print");
-        n.exp.accept(this);
-        indent--;
-    }
-
-    @Override
-    public void visit(Assign n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("Assign");
-        n.id.accept(this);
-        n.exp.accept(this);
-        indent--;
-    }
-
-    @Override
-    public void visit(ArrayAssign n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("ArrayAssign");
-        n.arrayId.accept(this);
-        n.index.accept(this);
-        n.exp.accept(this);
-        indent--;
-    }
-
-    @Override
-    public void visit(And n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("And");
-        n.left.accept(this);
-        n.right.accept(this);
-        indent--;
-    }
-
-    @Override
-    public void visit(LessThan n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("LessThan");
-        n.left.accept(this);
-        n.right.accept(this);
-        indent--;
-    }
-
-    @Override
-    public void visit(Plus n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("Plus");
-        n.left.accept(this);
-        n.right.accept(this);
-        indent--;
-    }
-
-    @Override
-    public void visit(Minus n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("Minus");
-        n.left.accept(this);
-        n.right.accept(this);
-        indent--;
-    }
-
-    @Override
-    public void visit(Times n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("Times");
-        n.left.accept(this);
-        n.right.accept(this);
-        indent--;
-    }
-
-    @Override
-    public void visit(ArrayLookup n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("ArrayLookup");
-        n.arrayId.accept(this);
-        n.index.accept(this);
-        indent--;
-    }
-
-    @Override
-    public void visit(ArrayLength n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("ArrayLength");
-        n.arrayId.accept(this);
-        indent--;
-    }
-
-    @Override
-    public void visit(Call n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("Call");
-        n.exp.accept(this);
-        n.methodId.accept(this);
-        for (int i = 0; i < n.expList.size(); i++) {
-            n.expList.elementAt(i).accept(this);
-            if (i + 1 < n.expList.size()) {
-            }
-        }
-        indent--;
-    }
-
-    @Override
-    public void visit(IntegerLiteral n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("IntegerLiteral");
-        write_prefix(indent);
-        System.out.println(n.value);
-        indent--;
-    }
-
-    @Override
-    public void visit(True n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("True");
-        indent--;
-    }
-
-    @Override
-    public void visit(False n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("False");
-        indent--;
-    }
-
-    @Override
-    public void visit(IdentifierExp n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("IdentifierExp");
-        write_prefix(indent);
-        System.out.println(n.name);
-        indent--;
-    }
-
-    @Override
-    public void visit(This n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("This");
-        indent--;
-    }
-
-    @Override
-    public void visit(NewArray n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("NewArray");
-        n.exp.accept(this);
-        indent--;
-    }
-
-    @Override
-    public void visit(NewObject n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("NewObject");
-        write_prefix(indent);
-        System.out.println(n.classId.name);
-        indent--;
-    }
-
-    @Override
-    public void visit(Not n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("Not");
-        n.exp.accept(this);
-        indent--;
-    }
-
-    @Override
-    public void visit(Identifier n) {
-        write_prefix(indent);
-        indent++;
-        System.out.println("Identifier");
-        write_prefix(indent);
-        System.out.println(n.name);
-        indent--;
     }
 
     public void write_prefix(int indent) {
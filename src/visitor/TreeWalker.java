@@ -0,0 +1,415 @@
+package visitor;
+
+import java.util.Arrays;
+
+import syntaxtree.*;
+
+/**
+ * Abstract class for passes that traverse a syntax tree without recursion.
+ *
+ * The nodes entered but not yet left are kept on a stack of frames in the
+ * heap, so the depth of the tree is only limited by the size of the heap,
+ * not by the size of the call stack. A pass is told about each node by
+ * three hooks, in depth-first order:
+ *
+ *   enter(n, arg)          before the children of n (pre-order)
+ *   beforeChild(n, i, arg) before the i-th child of n
+ *   leave(n, arg)          after the children of n (post-order)
+ *
+ * The children of a node are its fields in the order of their declaration,
+ * lists being expanded in place (see childCount and child). A method body
+ * that is parsed on demand is parsed when its children are counted. The
+ * argument is handed down from a node to its children: enter returns the
+ * argument for the children, which is also passed to beforeChild and leave.
+ *
+ * Each node delivers a result from leave. While a node is left, the results
+ * of its children are available through result(i).
+ *
+ * @param <R> type of the results
+ * @param <A> type of the arguments
+ */
+public abstract class TreeWalker<R, A> {
+
+    /**
+     * nodes entered but not yet left, the innermost on top
+     */
+    private Node[] nodes = new Node[64];
+
+    /**
+     * argument for the children of each entered node
+     */
+    private Object[] args = new Object[64];
+
+    /**
+     * index of the next child to be visited of each entered node
+     */
+    private int[] next = new int[64];
+
+    /**
+     * number of children to be visited of each entered node
+     */
+    private int[] count = new int[64];
+
+    /**
+     * number of frames on the stack
+     */
+    private int top = 0;
+
+    /**
+     * results of the children of the entered nodes. The results of the
+     * children of a node are on top of those of its left siblings.
+     */
+    private Object[] results = new Object[64];
+
+    /**
+     * number of results on the stack
+     */
+    private int resultTop = 0;
+
+    /**
+     * index of the result of the first child of the node being left
+     */
+    private int resultBase = 0;
+
+    /**
+     * set by skipChildren() while a node is entered
+     */
+    private boolean skip;
+
+    /**
+     * traverses the tree of the given root node.
+     *
+     * @param root root of the tree
+     * @param arg argument for the root
+     * @return result of the root
+     */
+    @SuppressWarnings("unchecked")
+    public final R walk(Node root, A arg) {
+
+        int bottom = top;
+        int resultBottom = resultTop;
+        push(root, arg);
+
+        while (top > bottom) {
+            int frame = top - 1;
+            Node n = nodes[frame];
+            A childArg = (A) args[frame];
+            int i = next[frame];
+
+            if (i < count[frame]) {
+                next[frame] = i + 1;
+                Node child = child(n, i);
+                beforeChild(n, i, childArg);
+                push(child, childArg);
+            } else {
+                int base = resultTop - count[frame];
+                int savedBase = resultBase;
+                resultBase = base;
+                R result = leave(n, childArg);
+                resultBase = savedBase;
+
+                Arrays.fill(results, base, resultTop, null);
+                resultTop = base;
+                pushResult(result);
+                nodes[frame] = null;
+                args[frame] = null;
+                top = frame;
+            }
+        }
+
+        R result = (R) results[resultBottom];
+        results[resultBottom] = null;
+        resultTop = resultBottom;
+        return result;
+    }
+
+    /**
+     * empties the stacks, so the walker may be reused after a traversal
+     * has been ended by an exception. The stacks keep their capacity.
+     */
+    public void reset() {
+        Arrays.fill(nodes, 0, top, null);
+        Arrays.fill(args, 0, top, null);
+        Arrays.fill(results, 0, resultTop, null);
+        top = 0;
+        resultTop = 0;
+        resultBase = 0;
+        skip = false;
+    }
+
+    /**
+     * enters the given node and puts it on the stack.
+     */
+    private void push(Node n, A arg) {
+
+        skip = false;
+        A childArg = enter(n, arg);
+
+        if (top == nodes.length) {
+            int capacity = 2 * top;
+            nodes = Arrays.copyOf(nodes, capacity);
+            args = Arrays.copyOf(args, capacity);
+            next = Arrays.copyOf(next, capacity);
+            count = Arrays.copyOf(count, capacity);
+        }
+        nodes[top] = n;
+        args[top] = childArg;
+        next[top] = 0;
+        count[top] = skip ? 0 : childCount(n);
+        top++;
+    }
+
+    private void pushResult(Object result) {
+        if (resultTop == results.length) {
+            results = Arrays.copyOf(results, 2 * resultTop);
+        }
+        results[resultTop++] = result;
+    }
+
+    /* ========================================================================
+     * hooks
+     * ===================================================================== */
+
+    /**
+     * called before the children of the given node are visited.
+     *
+     * @param n node of the tree
+     * @param arg argument handed down from the parent
+     * @return argument for the children of the node
+     */
+    protected A enter(Node n, A arg) {
+        return arg;
+    }
+
+    /**
+     * called before the i-th child of the given node is visited.
+     *
+     * @param n node of the tree
+     * @param i index of the child, see child(n, i)
+     * @param arg argument for the children of the node
+     */
+    protected void beforeChild(Node n, int i, A arg) {
+    }
+
+    /**
+     * called after the children of the given node have been visited.
+     *
+     * @param n node of the tree
+     * @param arg argument for the children of the node
+     * @return result of the node
+     */
+    protected R leave(Node n, A arg) {
+        return null;
+    }
+
+    /**
+     * may be called by enter: the children of the node entered are not
+     * visited, so no results of them are available when it is left.
+     */
+    protected final void skipChildren() {
+        skip = true;
+    }
+
+    /**
+     * returns the result of the i-th child of the node being left.
+     */
+    @SuppressWarnings("unchecked")
+    protected final R result(int i) {
+        return (R) results[resultBase + i];
+    }
+
+    /* ========================================================================
+     * structure of the tree
+     * ===================================================================== */
+
+    /**
+     * returns the number of children of the given node.
+     */
+    public static int childCount(Node n) {
+
+        switch (n.kind) {
+            case NodeKind.PROGRAM:
+                return 1 + ((Program) n).classes.size();
+            case NodeKind.MAIN_CLASS:
+                return 3;
+            case NodeKind.CLASS_DECL_SIMPLE: {
+                ClassDeclSimple c = (ClassDeclSimple) n;
+                return 1 + c.varDecls.size() + c.methodDecls.size();
+            }
+            case NodeKind.CLASS_DECL_EXTENDS: {
+                ClassDeclExtends c = (ClassDeclExtends) n;
+                return 2 + c.varDecls.size() + c.methodDecls.size();
+            }
+            case NodeKind.VAR_DECL:
+                return 2;
+            case NodeKind.METHOD_DECL: {
+                MethodDecl m = (MethodDecl) n;
+                return 3 + m.formalList.size() + m.varDecls.size()
+                        + m.getStatements().size();
+            }
+            case NodeKind.FORMAL:
+                return 2;
+            case NodeKind.BLOCK:
+                return ((Block) n).statements.size();
+            case NodeKind.IF:
+                return 3;
+            case NodeKind.WHILE:
+                return 2;
+            case NodeKind.PRINT:
+                return 1;
+            case NodeKind.ASSIGN:
+                return 2;
+            case NodeKind.ARRAY_ASSIGN:
+                return 3;
+            case NodeKind.AND:
+            case NodeKind.LESS_THAN:
+            case NodeKind.PLUS:
+            case NodeKind.MINUS:
+            case NodeKind.TIMES:
+            case NodeKind.ARRAY_LOOKUP:
+                return 2;
+            case NodeKind.ARRAY_LENGTH:
+                return 1;
+            case NodeKind.CALL:
+                return 2 + ((Call) n).expList.size();
+            case NodeKind.NEW_ARRAY:
+            case NodeKind.NEW_OBJECT:
+            case NodeKind.NOT:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * returns the i-th child of the given node.
+     */
+    public static Node child(Node n, int i) {
+
+        switch (n.kind) {
+            case NodeKind.PROGRAM: {
+                Program p = (Program) n;
+                return (i == 0) ? p.mainClass : p.classes.elementAt(i - 1);
+            }
+            case NodeKind.MAIN_CLASS: {
+                MainClass c = (MainClass) n;
+                return (i == 0) ? c.classId
+                        : (i == 1) ? c.formalId : c.statement;
+            }
+            case NodeKind.CLASS_DECL_SIMPLE: {
+                ClassDeclSimple c = (ClassDeclSimple) n;
+                if (i == 0) {
+                    return c.classId;
+                }
+                return member(c.varDecls, c.methodDecls, i - 1);
+            }
+            case NodeKind.CLASS_DECL_EXTENDS: {
+                ClassDeclExtends c = (ClassDeclExtends) n;
+                if (i < 2) {
+                    return (i == 0) ? c.subclassId : c.superclassId;
+                }
+                return member(c.varDecls, c.methodDecls, i - 2);
+            }
+            case NodeKind.VAR_DECL: {
+                VarDecl v = (VarDecl) n;
+                return (i == 0) ? v.type : v.id;
+            }
+            case NodeKind.METHOD_DECL: {
+                MethodDecl m = (MethodDecl) n;
+                if (i < 2) {
+                    return (i == 0) ? m.resultType : m.methodId;
+                }
+                i -= 2;
+                if (i < m.formalList.size()) {
+                    return m.formalList.elementAt(i);
+                }
+                i -= m.formalList.size();
+                if (i < m.varDecls.size()) {
+                    return m.varDecls.elementAt(i);
+                }
+                i -= m.varDecls.size();
+                StatementList statements = m.getStatements();
+                if (i < statements.size()) {
+                    return statements.elementAt(i);
+                }
+                return m.getReturnExp();
+            }
+            case NodeKind.FORMAL: {
+                Formal f = (Formal) n;
+                return (i == 0) ? f.type : f.id;
+            }
+            case NodeKind.BLOCK:
+                return ((Block) n).statements.elementAt(i);
+            case NodeKind.IF: {
+                If s = (If) n;
+                return (i == 0) ? s.exp
+                        : (i == 1) ? s.thenStatement : s.elseStatement;
+            }
+            case NodeKind.WHILE: {
+                While s = (While) n;
+                return (i == 0) ? s.exp : s.statement;
+            }
+            case NodeKind.PRINT:
+                return ((Print) n).exp;
+            case NodeKind.ASSIGN: {
+                Assign s = (Assign) n;
+                return (i == 0) ? s.id : s.exp;
+            }
+            case NodeKind.ARRAY_ASSIGN: {
+                ArrayAssign s = (ArrayAssign) n;
+                return (i == 0) ? s.arrayId : (i == 1) ? s.index : s.exp;
+            }
+            case NodeKind.AND: {
+                And e = (And) n;
+                return (i == 0) ? e.left : e.right;
+            }
+            case NodeKind.LESS_THAN: {
+                LessThan e = (LessThan) n;
+                return (i == 0) ? e.left : e.right;
+            }
+            case NodeKind.PLUS: {
+                Plus e = (Plus) n;
+                return (i == 0) ? e.left : e.right;
+            }
+            case NodeKind.MINUS: {
+                Minus e = (Minus) n;
+                return (i == 0) ? e.left : e.right;
+            }
+            case NodeKind.TIMES: {
+                Times e = (Times) n;
+                return (i == 0) ? e.left : e.right;
+            }
+            case NodeKind.ARRAY_LOOKUP: {
+                ArrayLookup e = (ArrayLookup) n;
+                return (i == 0) ? e.arrayId : e.index;
+            }
+            case NodeKind.ARRAY_LENGTH:
+                return ((ArrayLength) n).arrayId;
+            case NodeKind.CALL: {
+                Call e = (Call) n;
+                return (i == 0) ? e.exp
+                        : (i == 1) ? e.methodId : e.expList.elementAt(i - 2);
+            }
+            case NodeKind.NEW_ARRAY:
+                return ((NewArray) n).exp;
+            case NodeKind.NEW_OBJECT:
+                return ((NewObject) n).classId;
+            case NodeKind.NOT:
+                return ((Not) n).exp;
+            default:
+                throw new IndexOutOfBoundsException(
+                        "node of kind " + n.kind + " has no children");
+        }
+    }
+
+    /**
+     * returns the i-th member of a class, the variables counted first.
+     */
+    private static Node member(VarDeclList varDecls,
+            MethodDeclList methodDecls, int i) {
+
+        return (i < varDecls.size())
+                ? varDecls.elementAt(i)
+                : methodDecls.elementAt(i - varDecls.size());
+    }
+}
@@ -0,0 +1,136 @@
+package visitor;
+
+import java.util.*;
+
+import syntaxtree.*;
+import visitor.symboltable.*;
+
+/**
+ * Objects of the class TypeChecker check the uses of values against the
+ * declared types of a Minijava program and collect the violations as
+ * errors. They hold the checks shared by the TypeVisitor and the
+ * JasminVisitor, which checks the types while it emits the code if it runs
+ * as fused pass (see JasminVisitor.generateChecked).
+ *
+ * The types of the operands are the results of the children of the node
+ * checked, taken from the TreeWalker traversing the tree.
+ */
+class TypeChecker {
+
+    /**
+     * errors found so far, each with the position of the offending node
+     */
+    private final List<String> errors = new ArrayList<String>();
+
+    /**
+     * returns the errors found so far.
+     */
+    List<String> getErrors() {
+        return errors;
+    }
+
+    /**
+     * forgets the errors found so far.
+     */
+    void reset() {
+        errors.clear();
+    }
+
+    /**
+     * looks up the method called by the given call and checks the actual
+     * parameters against the formal parameters. The types of the called
+     * object and of the actual parameters are the results of the children
+     * of the call.
+     *
+     * @param n call being left by the walker
+     * @param walker walker traversing the tree
+     * @return called method, null if it is not found
+     */
+    MethodTable checkCall(Call n, TreeWalker<SemanticType, ?> walker) {
+
+        /* derive the class of the called object */
+        SemanticType objectType = walker.result(0);
+
+        MethodTable method = null;
+        if (objectType instanceof ClassType
+                && ((ClassType) objectType).getClassTable() != null) {
+            method = ((ClassType) objectType).getClassTable()
+                    .lookupMethod(n.methodId.symbol);
+        }
+        if (method == null) {
+            if (objectType != null) {
+                this.error(n, "method " + n.methodId.name
+                        + " not found in type " + objectType);
+            }
+            return null;
+        }
+
+        /* check actual parameters against the formal parameters */
+        List<SemanticType> formalTypes = method.getFormalParameterTypes();
+        if (formalTypes.size() != n.expList.size()) {
+            this.error(n, "method " + n.methodId.name + " expects "
+                    + formalTypes.size() + " arguments, found "
+                    + n.expList.size());
+        } else {
+            for (int i = 0; i < n.expList.size(); i++) {
+                this.checkCompatible(n.expList.elementAt(i),
+                        walker.result(2 + i), formalTypes.get(i),
+                        "argument " + (i + 1) + " of " + n.methodId.name);
+            }
+        }
+        return method;
+    }
+
+    /**
+     * records an error if the variable used by the given node is not
+     * declared, i.e. its entry is missing.
+     *
+     * @param n node using the variable
+     * @param name name of the variable
+     * @param variable entry of the variable, null if it is not declared
+     * @return true if the variable is declared
+     */
+    boolean checkDeclared(Node n, String name, VariableType variable) {
+
+        if (variable == null) {
+            this.error(n, "undeclared identifier " + name);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * records an error if a value of the type found may not be used where
+     * the required type is expected. Unknown types are not checked.
+     *
+     * @param n expression delivering the value
+     * @param found type of the expression
+     * @param required declared type
+     * @param context description of the use of the value
+     */
+    void checkCompatible(Node n, SemanticType found, SemanticType required,
+            String context) {
+
+        if (found != null && required != null
+                && !found.isSubtypeOf(required)) {
+            this.error(n, "incompatible types in " + context + ": " + found
+                    + " cannot be converted to " + required);
+        }
+    }
+
+    /**
+     * records an error at the position of the given node.
+     */
+    void error(Node n, String message) {
+        errors.add(at(n, message));
+    }
+
+    /**
+     * returns the given message of an error prefixed with the position of
+     * the given node.
+     */
+    static String at(Node n, String message) {
+        return "line " + n.getLine() + ", column " + n.getColumn() + ": "
+                + message;
+    }
+}
@@ -1,6 +1,10 @@
 package visitor;
 
-import java.util.HashMap;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import syntaxtree.*;
 import visitor.symboltable.*;
@@ -8,422 +12,257 @@ import visitor.symboltable.*;
 /**
  * Objects of the class TypeVisitor are used to traverse an abstract
  * syntax tree for some Minijava program (in a depth-first manner) in order
- * to provide a mapping from the nodes of the abstract syntax tree to their
- * corresponding types. Types of identifiers (i.e. leaf nodes of the tree) are
- * retrieved from the symbol table provided by the SymbolTableVisitor. The types
- * of internal nodes are derived by means of the type system of mMiniJava.
+ * to derive the types of its expressions. Types of identifiers (i.e. leaf
+ * nodes of the tree) are retrieved from the symbol table provided by the
+ * SymbolTableVisitor or, if the NameResolutionVisitor has run, from the
+ * bindings of the identifiers. The types of internal nodes are derived by
+ * means of the type system of mMiniJava.
  *
- * The mapping is restricted to nodes for expressions (i.e. it includes no 
- * statement or declarations nodes).
+ * The tree is traversed by a TreeWalker. Each expression delivers its type;
+ * statements and declarations deliver null. The argument is the scope of
+ * the symbol table in which the node is visited: the program table for the
+ * program, the class table for classes and the method table for everything
+ * within a method.
  *
- * TODO (UG): the implementation includes no error handling
+ * The values of assignments, actual parameters and results of methods are
+ * checked against the declared types; subtypes are tested by the class
+ * hierarchy of the program table. Violations are collected as errors (see
+ * getErrors()), so an instance is used for one tree only. The checks are
+ * made by a TypeChecker, which the JasminVisitor uses as well.
+ *
+ * The classes of a program may be checked in parallel (see checkClasses):
+ * each class is checked by an instance of its own, which keeps its scopes
+ * in the frames of the traversal. The symbol table is only read, so it is
+ * frozen beforehand.
+ *
+ * TODO (UG): the other rules of the type system are not checked yet
  */
-public class TypeVisitor implements Visitor {
+public class TypeVisitor extends TreeWalker<SemanticType, SymbolTable> {
 
-    /** 
-     * symbol table of the currently visited MiniJava program 
-     */
-    private SymbolTable symbolTable;
-    /** 
-     * mapping from nodes of the abstract syntax tree to their type 
-     *
-     * TODO (UG): types should not be Strings
+    /**
+     * checks of the values and the errors found so far
      */
-    private HashMap<Node, String> types;
+    private final TypeChecker checker = new TypeChecker();
 
     /**
-     * Creates a new instance with the given symbol table and an empty mapping
-     * from nodes of the abstract syntax tree to their types. 
+     * Creates a new instance.
      */
-    public TypeVisitor(SymbolTable symbolTable) {
-
-        this.symbolTable = symbolTable;
-        this.types = new HashMap<Node, String>();
+    public TypeVisitor() {
     }
 
     /**
-     * returns the entire mapping from nodes to types
+     * returns the errors found in the visited tree.
      */
-    public HashMap<Node, String> getTypes() {
-        return types;
+    public List<String> getErrors() {
+        return checker.getErrors();
     }
 
-    /* ========================================================================
-     * visit methods
-     * ===================================================================== */
-    
-    @Override
-    public void visit(Program n) {
-
-        /* main class declaration */
-        n.mainClass.accept(this);
+    /**
+     * checks the main class and the classes of the given program, each as
+     * a task of its own on the given pool.
+     *
+     * @param program syntax tree of the program
+     * @param symbolTable frozen symbol table of the program
+     * @param pool pool for the tasks
+     * @return errors of all classes in the order of the source
+     */
+    public static List<String> checkClasses(Program program,
+            ProgramTable symbolTable, ForkJoinPool pool) {
 
-        /* list of class declarations */
-        for (int i = 0; i < n.classes.size(); i++) {
-            n.classes.elementAt(i).accept(this);
+        if (!symbolTable.isFrozen()) {
+            throw new IllegalStateException("symbol table is not frozen");
         }
-    }
-
-    @Override
-    public void visit(MainClass n) {
-
-        this.enterClassScope(n.classId.name);
-
-        /*
-         * n.i1.accept(this);
-         */
-
-        this.enterMethodScope("main");
-
-        /*
-         * n.i2.accept(this);
-         */
-
-        /* statement of main method */
-        n.statement.accept(this);
-
-        this.leaveMethodScope();
-        this.leaveClassScope();
-    }
-
-    @Override
-    public void visit(ClassDeclSimple n) {
-
-        this.enterClassScope(n.classId.name);
-
-        /*
-         * n.i.accept(this);
-         */
 
-        /* global variable declaration */
-        for (int i = 0; i < n.varDecls.size(); i++) {
-            n.varDecls.elementAt(i).accept(this);
+        List<Callable<List<String>>> tasks =
+                new ArrayList<Callable<List<String>>>();
+        tasks.add(checkTask(program.mainClass, symbolTable));
+        for (int i = 0; i < program.classes.size(); i++) {
+            tasks.add(checkTask(program.classes.elementAt(i), symbolTable));
         }
 
-        /* list of method declarations */
-        for (int i = 0; i < n.methodDecls.size(); i++) {
-            n.methodDecls.elementAt(i).accept(this);
+        List<String> errors = new ArrayList<String>();
+        for (Future<List<String>> result : pool.invokeAll(tasks)) {
+            try {
+                errors.addAll(result.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                } else if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
         }
-
-        this.leaveClassScope();
+        return errors;
     }
 
-    @Override
-    public void visit(ClassDeclExtends n) {
-
-        this.enterClassScope(n.subclassId.name);
-
-        /*
-         * n.i.accept(this);
-         * n.j.accept(this);
-         */
-
-        /* global variable declaration */
-        for (int i = 0; i < n.varDecls.size(); i++) {
-            n.varDecls.elementAt(i).accept(this);
-        }
-
-        /* list of method declarations */
-        for (int i = 0; i < n.methodDecls.size(); i++) {
-            n.methodDecls.elementAt(i).accept(this);
-        }
+    /**
+     * returns a task checking the given class with an instance of its own.
+     */
+    private static Callable<List<String>> checkTask(final Node classDecl,
+            final ProgramTable symbolTable) {
 
-        this.leaveClassScope();
+        return new Callable<List<String>>() {
+            public List<String> call() {
+                TypeVisitor typeVisitor = new TypeVisitor();
+                typeVisitor.walk(classDecl, symbolTable);
+                return typeVisitor.getErrors();
+            }
+        };
     }
 
-    @Override
-    public void visit(VarDecl n) {
-        n.setType(this.getVariableType(n.id.name));
-    }
+    /* ========================================================================
+     * hooks of the traversal
+     * ===================================================================== */
 
+    /**
+     * returns the scope for the children of the given node.
+     */
     @Override
-    public void visit(MethodDecl n) {
-
-        this.enterMethodScope(n.methodId.name);
-
-        /*
-         * n.resultType.accept(this);
-         * n.methodId.accept(this);
-         *
-         * for ( int i = 0; i < n.fl.size(); i++ ) {
-         *     n.formalList.elementAt(i).accept(this);
-         * }
-         *
-         * for ( int i = 0; i < n.vl.size(); i++ ) {
-         *     n.varDecls.elementAt(i).accept(this);
-         * }
-         */
+    protected SymbolTable enter(Node n, SymbolTable scope) {
 
-        /* statement list of method */
-        for (int i = 0; i < n.statements.size(); i++) {
-            n.statements.elementAt(i).accept(this);
-        }
+        switch (n.kind) {
 
-        /* expression to be returned */
-        n.returnExp.accept(this);
+            case NodeKind.MAIN_CLASS: {
+                ClassTable classTable =
+                        scope.getClass(((MainClass) n).classId.symbol);
+                return classTable.getMethod("main");
+            }
 
-        this.leaveMethodScope();
-    }
+            case NodeKind.CLASS_DECL_SIMPLE:
+                return scope.getClass(((ClassDeclSimple) n).classId.symbol);
 
-    @Override
-    public void visit(Formal n) {
-    }
+            case NodeKind.CLASS_DECL_EXTENDS:
+                return scope.getClass(
+                        ((ClassDeclExtends) n).subclassId.symbol);
 
-    @Override
-    public void visit(IntArrayType n) {
-    }
-
-    @Override
-    public void visit(BooleanType n) {
-    }
-
-    @Override
-    public void visit(IntegerType n) {
-    }
+            case NodeKind.METHOD_DECL:
+                return ((ClassTable) scope).getMethod(
+                        ((MethodDecl) n).methodId.symbol);
 
-    @Override
-    public void visit(IdentifierType n) {
-    }
+            /* declarations have no expressions */
+            case NodeKind.VAR_DECL:
+            case NodeKind.FORMAL:
+                skipChildren();
+                return scope;
 
-    @Override
-    public void visit(Block n) {
-        for (int i = 0; i < n.statements.size(); i++) {
-            n.statements.elementAt(i).accept(this);
+            default:
+                return scope;
         }
     }
 
+    /**
+     * returns the type of the given expression, checking its operands, or
+     * checks the given statement or declaration and returns null.
+     */
     @Override
-    public void visit(If n) {
-        n.exp.accept(this);
-        n.thenStatement.accept(this);
-        n.elseStatement.accept(this);
-    }
-
-    @Override
-    public void visit(While n) {
-        n.exp.accept(this);
-        n.statement.accept(this);
-    }
-
-    @Override
-    public void visit(Print n) {
-        n.exp.accept(this);
-    }
-
-    @Override
-    public void visit(Assign n) {
-        n.id.accept(this);
-        n.exp.accept(this);
-    }
-
-    @Override
-    public void visit(ArrayAssign n) {
-        n.arrayId.accept(this);
-        n.index.accept(this);
-        n.exp.accept(this);
-    }
-
-    @Override
-    public void visit(And n) {
-        n.left.accept(this);
-        n.right.accept(this);
-
-        n.setType("BooleanType");
-    }
-
-    @Override
-    public void visit(LessThan n) {
-        n.left.accept(this);
-        n.right.accept(this);
-
-        n.setType("BooleanType");
-    }
-
-    @Override
-    public void visit(Plus n) {
-        n.left.accept(this);
-        n.right.accept(this);
-
-        n.setType("IntegerType");
-    }
-
-    @Override
-    public void visit(Minus n) {
-        n.left.accept(this);
-        n.right.accept(this);
-
-        n.setType("IntegerType");
-    }
-
-    @Override
-    public void visit(Times n) {
-        n.left.accept(this);
-        n.right.accept(this);
-
-        n.setType("IntegerType");
-    }
-
-    @Override
-    public void visit(ArrayLookup n) {
-        n.arrayId.accept(this);
-        n.index.accept(this);
-
-        n.setType("IntegerType");
-    }
-
-    @Override
-    public void visit(ArrayLength n) {
-        n.arrayId.accept(this);
-        n.setType("IntegerType");
-    }
-
-    @Override
-    public void visit(Call n) {
-
-        n.exp.accept(this);
-
-        /*
-         * n.methodId.accept(this);
-         */
-
-        /* visit actual parameters */
-        for (int i = 0; i < n.expList.size(); i++) {
-            n.expList.elementAt(i).accept(this);
+    protected SemanticType leave(Node n, SymbolTable scope) {
+
+        switch (n.kind) {
+
+            case NodeKind.METHOD_DECL: {
+                MethodDecl m = (MethodDecl) n;
+
+                /* expression to be returned is the last child */
+                SemanticType type = result(childCount(n) - 1);
+                checker.checkCompatible(m.getReturnExp(), type,
+                        ((MethodTable) scope).getResultType(),
+                        "result of method " + m.methodId.name);
+                return null;
+            }
+
+            case NodeKind.ASSIGN: {
+                Assign s = (Assign) n;
+                VariableType variable = this.getVariable(n, scope, s.id.symbol);
+                if (checker.checkDeclared(s.id, s.id.name, variable)) {
+                    checker.checkCompatible(s.exp, result(1),
+                            variable.getType(), "assignment to " + s.id.name);
+                }
+                return null;
+            }
+
+            case NodeKind.ARRAY_ASSIGN: {
+                ArrayAssign s = (ArrayAssign) n;
+                checker.checkDeclared(s.arrayId, s.arrayId.name,
+                        this.getVariable(n, scope, s.arrayId.symbol));
+                return null;
+            }
+
+            case NodeKind.AND:
+            case NodeKind.LESS_THAN:
+            case NodeKind.TRUE:
+            case NodeKind.FALSE:
+            case NodeKind.NOT:
+                return PrimitiveType.BOOLEAN;
+
+            case NodeKind.PLUS:
+            case NodeKind.MINUS:
+            case NodeKind.TIMES:
+            case NodeKind.ARRAY_LOOKUP:
+            case NodeKind.ARRAY_LENGTH:
+            case NodeKind.INTEGER_LITERAL:
+                return PrimitiveType.INTEGER;
+
+            case NodeKind.NEW_ARRAY:
+                return PrimitiveType.INT_ARRAY;
+
+            case NodeKind.CALL: {
+                MethodTable method = checker.checkCall((Call) n, this);
+                return (method == null) ? null : method.getResultType();
+            }
+
+            case NodeKind.IDENTIFIER_EXP: {
+                IdentifierExp e = (IdentifierExp) n;
+                VariableType variable = this.getVariable(n, scope, e.symbol);
+                return checker.checkDeclared(e, e.name, variable)
+                        ? variable.getType() : null;
+            }
+
+            /* derive the type of the current class */
+            case NodeKind.THIS:
+                return this.getThisClassType(scope);
+
+            case NodeKind.NEW_OBJECT:
+                return scope.getClassType(((NewObject) n).classId.symbol);
+
+            default:
+                return null;
         }
-
-        /* derive result type of method call */
-        String classname = n.exp.getType();
-        n.setType(this.getResultType(classname, n.methodId.name));
-    }
-
-    @Override
-    public void visit(IntegerLiteral n) {
-        n.setType("IntegerType");
-    }
-
-    @Override
-    public void visit(True n) {
-        n.setType("BooleanType");
-    }
-
-    @Override
-    public void visit(False n) {
-        n.setType("BooleanType");
-    }
-
-    @Override
-    public void visit(IdentifierExp n) {
-        n.setType(this.getVariableType(n.name));
-    }
-
-    @Override
-    public void visit(This n) {
-
-        /* derive the name of the current class */
-        n.setType(this.getThisClassname());
-    }
-
-    @Override
-    public void visit(NewArray n) {
-        n.exp.accept(this);
-        n.setType("IntArrayType");
-    }
-
-    @Override
-    public void visit(NewObject n) {
-        n.setType(n.classId.name);
-    }
-
-    @Override
-    public void visit(Not n) {
-        n.exp.accept(this);
-        n.setType("BooleanType");
-    }
-
-    @Override
-    public void visit(Identifier n) {
-
-        n.setType(this.getVariableType(n.name));
     }
 
     /* ========================================================================
      * helper methods
      * ===================================================================== */
-    
-    /* ========================================================================
-     * handling scopes
-     * ===================================================================== */
-    
-    /**
-     * enters the scope of the class given by classname.
-     * @param classname 
-     */
-    private void enterClassScope(String classname) {
-        this.symbolTable =
-                ((ProgramTable) this.symbolTable).getClass(classname);
-    }
 
     /**
-     * leaves the current class scope
-     */
-    private void leaveClassScope() {
-        this.symbolTable = this.symbolTable.getParent();
-    }
-
-    /**
-     * enters the scope of the class given by methodname.
-     * 
-     * @param methodname 
-     */
-    private void enterMethodScope(String methodname) {
-        this.symbolTable =
-                ((ClassTable) this.symbolTable).getMethod(methodname);
-    }
-
-    /**
-     * leaves the current method scope
-     */
-    private void leaveMethodScope() {
-        this.symbolTable = this.symbolTable.getParent();
-    }
-
-    /* ========================================================================
-     * handling types
-     * ===================================================================== */
-    
-    /**
-     * returns the the class name of the current class
+     * returns the type of the current class
+     *
+     * @param scope method scope
      */
-    private String getThisClassname() {
-        /* 
+    private ClassType getThisClassType(SymbolTable scope) {
+        /*
          * the current scope is method scope, so the parent is the current
          * class scope
          */
-        return ((ClassTable) this.symbolTable.getParent()).getName();
+        return ((ClassTable) scope.getParent()).getType();
     }
 
     /**
-     * returns the type of the given variable name from the symbol table.
-     * 
-     * @param varname
-     * @return type of the given variable
-     */
-    private String getVariableType(String varname) {
-
-        return this.symbolTable.getVariable(varname).getType();
-    }
-
-    /**
-     * returns the result type of the method specified by classname and 
-     * methodname.
-     * 
-     * @param classname
-     * @param methodname
-     * @return result type of the method as string
+     * returns the entry of the variable used by the given node: its binding
+     * if the tree has been resolved, otherwise the entry from the symbol
+     * table.
+     *
+     * @param n node using the variable
+     * @param scope
+     * @param symbol
+     * @return entry of the given variable, null if it is not declared
      */
-    private String getResultType(String classname, String methodname) {
+    private VariableType getVariable(Node n, SymbolTable scope, int symbol) {
 
-        return this.symbolTable.getClass(classname).getMethod(methodname)
-                .getResultType();
+        VariableType variable = n.getBinding();
+        return (variable != null) ? variable : scope.getVariable(symbol);
     }
 }
@@ -0,0 +1,46 @@
+package visitor.pass;
+
+import java.util.*;
+
+/**
+ * Base class of the passes of the compiler, which holds the name and the
+ * analyses declared by a pass.
+ */
+public abstract class AbstractPass implements Pass {
+
+    private final String name;
+
+    private final List<Analysis<?>> required;
+
+    private final List<Analysis<?>> invalidated;
+
+    /**
+     * creates a pass that requires the given analyses and invalidates none.
+     */
+    protected AbstractPass(String name, Analysis<?>... required) {
+        this(name, Arrays.<Analysis<?>>asList(required),
+                Collections.<Analysis<?>>emptyList());
+    }
+
+    /**
+     * creates a pass that requires and invalidates the given analyses.
+     */
+    protected AbstractPass(String name, List<Analysis<?>> required,
+            List<Analysis<?>> invalidated) {
+        this.name = name;
+        this.required = Collections.unmodifiableList(required);
+        this.invalidated = Collections.unmodifiableList(invalidated);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Analysis<?>> getRequiredAnalyses() {
+        return required;
+    }
+
+    public List<Analysis<?>> getInvalidatedAnalyses() {
+        return invalidated;
+    }
+}
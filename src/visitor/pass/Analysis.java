@@ -0,0 +1,129 @@
+package visitor.pass;
+
+import java.util.*;
+
+import syntaxtree.*;
+import visitor.*;
+import visitor.symboltable.*;
+
+/**
+ * Objects of this class describe an analysis of a Minijava program whose
+ * result is used by passes (see Pass.getRequiredAnalyses). The result is
+ * computed by the PassManager when it is first needed and kept until a pass
+ * invalidates the analysis or one of the analyses it depends on.
+ *
+ * The analyses of the compiler are the constants of this class. Analyses
+ * are identified by their objects, so further analyses are added by further
+ * instances.
+ *
+ * @param <T> type of the result of the analysis
+ */
+public abstract class Analysis<T> {
+
+    /**
+     * symbol table of the declarations of the program, filled by the
+     * SymbolTableVisitor; it is frozen, so passes may read it in parallel
+     */
+    public static final Analysis<ProgramTable> SYMBOL_TABLE =
+            new Analysis<ProgramTable>("symbol table") {
+                @Override
+                protected ProgramTable compute(PassManager manager) {
+                    SymbolTableVisitor symbolTableVisitor =
+                            new SymbolTableVisitor(
+                                    manager.getProgram().symbols);
+                    SymbolTable symbolTable =
+                            symbolTableVisitor.getSymbolTable();
+                    symbolTableVisitor.dispatch(manager.getProgram(),
+                            symbolTable);
+                    return (ProgramTable) symbolTable;
+                }
+            };
+
+    /**
+     * inheritance relation of the classes of the program
+     */
+    public static final Analysis<ClassHierarchy> CLASS_HIERARCHY =
+            new Analysis<ClassHierarchy>("class hierarchy", SYMBOL_TABLE) {
+                @Override
+                protected ClassHierarchy compute(PassManager manager) {
+                    return manager.get(SYMBOL_TABLE).getHierarchy();
+                }
+            };
+
+    /**
+     * bindings of the uses of variables to their symbol table entries, set
+     * in the nodes of the tree by the NameResolutionVisitor; the result is
+     * the resolved program
+     */
+    public static final Analysis<Program> NAME_BINDINGS =
+            new Analysis<Program>("name bindings", SYMBOL_TABLE) {
+                @Override
+                protected Program compute(PassManager manager) {
+                    Program program = manager.getProgram();
+                    new NameResolutionVisitor().walk(program,
+                            manager.get(SYMBOL_TABLE));
+                    return program;
+                }
+            };
+
+    /**
+     * errors found by deriving the types of the expressions of the program
+     * with the TypeVisitor, in the order of the source
+     */
+    public static final Analysis<List<String>> TYPE_ERRORS =
+            new Analysis<List<String>>("type errors", SYMBOL_TABLE,
+                    NAME_BINDINGS) {
+                @Override
+                protected List<String> compute(PassManager manager) {
+                    manager.get(NAME_BINDINGS);
+                    ProgramTable symbolTable = manager.get(SYMBOL_TABLE);
+                    if (manager.getPool() != null) {
+                        return TypeVisitor.checkClasses(manager.getProgram(),
+                                symbolTable, manager.getPool());
+                    }
+                    TypeVisitor typeVisitor = new TypeVisitor();
+                    typeVisitor.walk(manager.getProgram(), symbolTable);
+                    return typeVisitor.getErrors();
+                }
+            };
+
+    private final String name;
+
+    /**
+     * analyses whose results are used to compute this one
+     */
+    private final List<Analysis<?>> dependencies;
+
+    /**
+     * creates a new analysis.
+     *
+     * @param name name of the analysis in the timings
+     * @param dependencies analyses whose results are used to compute this
+     *        one; if one of them is invalidated, so is this one
+     */
+    protected Analysis(String name, Analysis<?>... dependencies) {
+        this.name = name;
+        this.dependencies = Collections.unmodifiableList(
+                Arrays.<Analysis<?>>asList(dependencies));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Analysis<?>> getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * computes the result of the analysis for the program of the given
+     * manager. The results of other analyses are requested from the
+     * manager.
+     */
+    protected abstract T compute(PassManager manager);
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,22 @@
+package visitor.pass;
+
+import java.util.*;
+
+import syntaxtree.arena.AstArena;
+
+/**
+ * Pass that stores the syntax tree in an arena and replaces the program by
+ * the program rebuilt from the arena (see AstArena). The nodes of the old
+ * tree are dropped, and with them the name bindings stored in them.
+ */
+public class ArenaPass extends AbstractPass {
+
+    public ArenaPass() {
+        super("arena", Collections.<Analysis<?>>emptyList(),
+                Arrays.<Analysis<?>>asList(Analysis.NAME_BINDINGS));
+    }
+
+    public void run(PassManager manager) {
+        manager.setProgram(AstArena.build(manager.getProgram()).toProgram());
+    }
+}
@@ -0,0 +1,36 @@
+package visitor.pass;
+
+import visitor.*;
+
+/**
+ * Pass that type checks the method bodies and generates the Jasmin files
+ * in a single traversal (see JasminVisitor.generateChecked). It needs the
+ * symbol table only and takes the place of the name bindings, the type
+ * check and the JasminPass.
+ */
+public class FusedJasminPass extends AbstractPass {
+
+    /**
+     * destination of the code of the classes
+     */
+    private final JasminOutput output;
+
+    /**
+     * name of the Minijava source file for the .source directives
+     */
+    private final String sourceFile;
+
+    public FusedJasminPass(JasminOutput output, String sourceFile) {
+        super("fused type check and jasmin", Analysis.SYMBOL_TABLE);
+        this.output = output;
+        this.sourceFile = sourceFile;
+    }
+
+    public void run(PassManager manager) {
+        for (String error : JasminVisitor.generateChecked(
+                manager.getProgram(), manager.get(Analysis.SYMBOL_TABLE),
+                output, sourceFile)) {
+            manager.error(error);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package visitor.pass;
+
+import visitor.symboltable.*;
+
+/**
+ * Pass that reports the classes inheriting from themselves. Lookups along
+ * a cyclic inheritance chain would not end, so the pass precedes the passes
+ * looking up methods and variables.
+ */
+public class InheritanceCheckPass extends AbstractPass {
+
+    public InheritanceCheckPass() {
+        super("inheritance check", Analysis.CLASS_HIERARCHY);
+    }
+
+    public void run(PassManager manager) {
+        for (ClassType type
+                : manager.get(Analysis.CLASS_HIERARCHY).getCyclicClasses()) {
+            manager.error("cyclic inheritance of " + type);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package visitor.pass;
+
+import java.util.List;
+
+import visitor.*;
+
+/**
+ * Pass that generates the Jasmin code of a type correct program, in
+ * parallel if the manager has a pool (see JasminVisitor.generateClasses).
+ */
+public class JasminPass extends AbstractPass {
+
+    /**
+     * destination of the code of the classes
+     */
+    private final JasminOutput output;
+
+    /**
+     * name of the Minijava source file for the .source directives
+     */
+    private final String sourceFile;
+
+    public JasminPass(JasminOutput output, String sourceFile) {
+        super("jasmin", Analysis.SYMBOL_TABLE, Analysis.NAME_BINDINGS);
+        this.output = output;
+        this.sourceFile = sourceFile;
+    }
+
+    public void run(PassManager manager) {
+        List<String> errors;
+        if (manager.getPool() != null) {
+            errors = JasminVisitor.generateClasses(manager.getProgram(),
+                    manager.get(Analysis.SYMBOL_TABLE), output, sourceFile,
+                    manager.getPool());
+        } else {
+            JasminVisitor visitor = new JasminVisitor(output, sourceFile);
+            visitor.walk(manager.getProgram(),
+                    manager.get(Analysis.SYMBOL_TABLE));
+            errors = visitor.getErrors();
+        }
+
+        /* methods exceeding the operand stack of the JVM */
+        for (String error : errors) {
+            manager.error(error);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package visitor.pass;
+
+import java.util.List;
+
+/**
+ * Interface for a pass of the compiler run by a PassManager. A pass
+ * declares the analyses it needs, which the manager computes (or takes from
+ * its cache) before the pass runs, and the analyses whose results are no
+ * longer valid after it has run, e.g. because it replaces the tree.
+ */
+public interface Pass {
+
+    /**
+     * returns the name of the pass in the timings.
+     */
+    String getName();
+
+    /**
+     * returns the analyses to be available when the pass runs.
+     */
+    List<Analysis<?>> getRequiredAnalyses();
+
+    /**
+     * returns the analyses invalidated by the pass.
+     */
+    List<Analysis<?>> getInvalidatedAnalyses();
+
+    /**
+     * runs the pass on the program of the given manager. The results of the
+     * required analyses are taken from the manager, errors are reported to
+     * it (see PassManager.error).
+     */
+    void run(PassManager manager);
+}
@@ -0,0 +1,251 @@
+package visitor.pass;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import syntaxtree.*;
+
+/**
+ * Objects of this class run a pipeline of passes on a Minijava program.
+ *
+ * Before a pass runs, the manager provides the analyses the pass requires
+ * (see Pass.getRequiredAnalyses). An analysis is computed when it is first
+ * requested, after the analyses it depends on, and its result is cached
+ * until a pass invalidates it; invalidating an analysis also invalidates
+ * the cached analyses depending on it. So passes share analyses without
+ * knowing of each other, and passes may be added or left out freely.
+ *
+ * The wall time and the bytes allocated by the running thread are recorded
+ * for every pass and for every computation of an analysis (see getTimings),
+ * so the cost of a pass does not include the analyses it requires. Work
+ * done on the threads of the pool is included in the wall time only.
+ *
+ * Passes report errors to the manager; the pipeline stops after the first
+ * pass that reported errors.
+ */
+public class PassManager {
+
+    /**
+     * bean measuring the allocated bytes per thread, null if the virtual
+     * machine does not support it
+     */
+    private static final com.sun.management.ThreadMXBean THREADS =
+            threadBean();
+
+    private Program program;
+
+    /**
+     * pool for passes working in parallel, null if they run sequentially
+     */
+    private final ForkJoinPool pool;
+
+    private final List<Pass> passes = new ArrayList<Pass>();
+
+    /**
+     * results of the analyses computed and not invalidated since
+     */
+    private final Map<Analysis<?>, Object> results =
+            new LinkedHashMap<Analysis<?>, Object>();
+
+    private final List<String> errors = new ArrayList<String>();
+
+    private final List<PassTiming> timings = new ArrayList<PassTiming>();
+
+    /**
+     * creates a manager for the given program.
+     *
+     * @param program syntax tree of the program
+     * @param pool pool for passes working in parallel, null if all passes
+     *        are to run sequentially
+     */
+    public PassManager(Program program, ForkJoinPool pool) {
+        this.program = program;
+        this.pool = pool;
+    }
+
+    public Program getProgram() {
+        return program;
+    }
+
+    /**
+     * replaces the program, e.g. by a rebuilt tree. The passes doing so
+     * invalidate the analyses stored in the nodes of the old tree.
+     */
+    public void setProgram(Program program) {
+        this.program = program;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * appends the given pass to the pipeline.
+     *
+     * @return this manager
+     */
+    public PassManager add(Pass pass) {
+        passes.add(pass);
+        return this;
+    }
+
+    /**
+     * runs the passes of the pipeline in the order they have been added.
+     *
+     * @return true if no pass reported errors, otherwise false after the
+     *         first pass that did
+     */
+    public boolean run() {
+
+        for (Pass pass : passes) {
+            for (Analysis<?> analysis : pass.getRequiredAnalyses()) {
+                this.get(analysis);
+            }
+
+            long bytes = allocatedBytes();
+            long start = System.nanoTime();
+            pass.run(this);
+            this.record(pass.getName(), start, bytes);
+
+            for (Analysis<?> analysis : pass.getInvalidatedAnalyses()) {
+                this.invalidate(analysis);
+            }
+            if (!errors.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * returns the result of the given analysis, computing it and the
+     * analyses it depends on if they are not cached.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Analysis<T> analysis) {
+
+        if (results.containsKey(analysis)) {
+            return (T) results.get(analysis);
+        }
+        for (Analysis<?> dependency : analysis.getDependencies()) {
+            this.get(dependency);
+        }
+
+        long bytes = allocatedBytes();
+        long start = System.nanoTime();
+        T result = analysis.compute(this);
+        this.record("analysis: " + analysis.getName(), start, bytes);
+
+        results.put(analysis, result);
+        return result;
+    }
+
+    /**
+     * tells whether the result of the given analysis is cached.
+     */
+    public boolean isAvailable(Analysis<?> analysis) {
+        return results.containsKey(analysis);
+    }
+
+    /**
+     * drops the result of the given analysis and of the analyses depending
+     * on it.
+     */
+    public void invalidate(Analysis<?> analysis) {
+
+        results.remove(analysis);
+
+        /* dependents may be cached even if the analysis is not */
+        List<Analysis<?>> dependents = new ArrayList<Analysis<?>>();
+        for (Analysis<?> cached : results.keySet()) {
+            if (cached.getDependencies().contains(analysis)) {
+                dependents.add(cached);
+            }
+        }
+        for (Analysis<?> dependent : dependents) {
+            this.invalidate(dependent);
+        }
+    }
+
+    /**
+     * records an error found by a pass.
+     */
+    public void error(String message) {
+        errors.add(message);
+    }
+
+    /**
+     * returns the errors reported by the passes.
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    /**
+     * returns the timings of the passes and analyses in the order they
+     * have been run.
+     */
+    public List<PassTiming> getTimings() {
+        return timings;
+    }
+
+    /**
+     * writes the timings and their total to the given stream, one line
+     * each.
+     */
+    public void printTimings(PrintStream out) {
+
+        long nanos = 0;
+        long bytes = 0;
+        for (PassTiming timing : timings) {
+            out.println(timing);
+            nanos += timing.getNanos();
+            bytes = (bytes < 0 || timing.getAllocatedBytes() < 0)
+                    ? -1 : bytes + timing.getAllocatedBytes();
+        }
+        out.println(new PassTiming("total", nanos, bytes));
+    }
+
+    /* ========================================================================
+     * helper methods
+     * ===================================================================== */
+
+    private void record(String name, long start, long bytes) {
+        long nanos = System.nanoTime() - start;
+        if (bytes >= 0) {
+            bytes = allocatedBytes() - bytes;
+        }
+        timings.add(new PassTiming(name, nanos, bytes));
+    }
+
+    /**
+     * returns the bytes allocated by the current thread so far, -1 if they
+     * are not measured.
+     */
+    private static long allocatedBytes() {
+        return (THREADS == null) ? -1
+                : THREADS.getThreadAllocatedBytes(
+                        Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+
+        try {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean threads =
+                        (com.sun.management.ThreadMXBean) bean;
+                if (threads.isThreadAllocatedMemorySupported()) {
+                    threads.setThreadAllocatedMemoryEnabled(true);
+                    return threads;
+                }
+            }
+        } catch (NoClassDefFoundError e) {
+            /* the class is hidden, e.g. by the class loader of Ant */
+        }
+        return null;
+    }
+}
@@ -0,0 +1,49 @@
+package visitor.pass;
+
+/**
+ * Objects of this class record the cost of running a pass or computing an
+ * analysis (see PassManager.getTimings).
+ */
+public final class PassTiming {
+
+    private final String name;
+
+    /**
+     * wall time in nanoseconds
+     */
+    private final long nanos;
+
+    /**
+     * bytes allocated by the running thread, -1 if the virtual machine does
+     * not measure them
+     */
+    private final long allocatedBytes;
+
+    PassTiming(String name, long nanos, long allocatedBytes) {
+        this.name = name;
+        this.nanos = nanos;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * returns a line with the time in milliseconds and the allocated
+     * kilobytes.
+     */
+    @Override
+    public String toString() {
+        return String.format("%-32s %10.3f ms %12s KB", name, nanos / 1e6,
+                allocatedBytes < 0 ? "?" : Long.toString(allocatedBytes >> 10));
+    }
+}
@@ -0,0 +1,18 @@
+package visitor.pass;
+
+/**
+ * Pass that reports the errors found by deriving the types of the
+ * expressions (see TypeVisitor).
+ */
+public class TypeCheckPass extends AbstractPass {
+
+    public TypeCheckPass() {
+        super("type check", Analysis.TYPE_ERRORS);
+    }
+
+    public void run(PassManager manager) {
+        for (String error : manager.get(Analysis.TYPE_ERRORS)) {
+            manager.error(error);
+        }
+    }
+}
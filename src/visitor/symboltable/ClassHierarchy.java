@@ -0,0 +1,204 @@
+package visitor.symboltable;
+
+import java.util.*;
+
+/**
+ * Objects of this class index the inheritance relation of the classes of a
+ * Minijava program. The index is built once the symbol table is filled (see
+ * ProgramTable.buildHierarchy).
+ *
+ * The classes are numbered in the preorder of a depth-first traversal of
+ * the inheritance forest, so the subclasses of a class are numbered
+ * consecutively after it. Each class type stores its number and the number
+ * of its last subclass, so a subtype test is a comparison of two intervals
+ * (see ClassType.isSubtypeOf). Classes that inherit from themselves take no
+ * part in the traversal; they are reported by getCyclicClasses().
+ */
+public final class ClassHierarchy {
+
+    /**
+     * class types in the order of their numbers
+     */
+    private final ClassType[] classes;
+
+    /**
+     * number of the super class of each class, -1 for a root class
+     */
+    private final int[] parent;
+
+    /**
+     * depth of each class in the inheritance forest, 0 for a root class
+     */
+    private final int[] depth;
+
+    /**
+     * number of the last subclass of each class, the class itself if it has
+     * no subclasses
+     */
+    private final int[] last;
+
+    /**
+     * classes whose chain of super classes contains a cycle
+     */
+    private final List<ClassType> cyclicClasses;
+
+    /**
+     * builds the index for the given class types. Types of classes that are
+     * not declared are included as root classes.
+     */
+    ClassHierarchy(List<ClassType> types) {
+
+        int count = types.size();
+
+        /* link each class to its subclasses: firstChild and nextSibling
+         * hold positions in the list types */
+        Map<ClassType, Integer> positions =
+                new IdentityHashMap<ClassType, Integer>();
+        for (int i = 0; i < count; i++) {
+            positions.put(types.get(i), i);
+        }
+        int[] firstChild = new int[count];
+        int[] nextSibling = new int[count];
+        Arrays.fill(firstChild, -1);
+        for (int i = count - 1; i >= 0; i--) {
+            ClassType superType = types.get(i).getSuperType();
+            if (superType != null) {
+                int p = positions.get(superType);
+                nextSibling[i] = firstChild[p];
+                firstChild[p] = i;
+            }
+        }
+
+        ClassType[] numbered = new ClassType[count];
+        int[] parentNo = new int[count];
+        int[] depthNo = new int[count];
+        int[] lastNo = new int[count];
+        int number = 0;
+
+        /* depth-first traversal from each root with an explicit stack, so
+         * deep hierarchies do not overflow the call stack. The stack holds
+         * the positions of the classes entered; cursor is the next child
+         * of each of them to be visited. */
+        int[] stack = new int[count];
+        int[] cursor = new int[count];
+        int[] numberOf = new int[count];
+        for (int root = 0; root < count; root++) {
+            if (types.get(root).getSuperType() != null) {
+                continue;
+            }
+            int top = 0;
+            stack[top] = root;
+            cursor[top] = firstChild[root];
+            numberOf[root] = number;
+            numbered[number] = types.get(root);
+            parentNo[number] = -1;
+            depthNo[number] = 0;
+            number++;
+
+            while (top >= 0) {
+                int child = cursor[top];
+                if (child < 0) {
+                    lastNo[numberOf[stack[top]]] = number - 1;
+                    top--;
+                    continue;
+                }
+                cursor[top] = nextSibling[child];
+                numberOf[child] = number;
+                numbered[number] = types.get(child);
+                parentNo[number] = numberOf[stack[top]];
+                depthNo[number] = top + 1;
+                number++;
+                top++;
+                stack[top] = child;
+                cursor[top] = firstChild[child];
+            }
+        }
+
+        /* classes not reached from a root inherit from a cycle */
+        List<ClassType> cyclic = new ArrayList<ClassType>();
+        if (number < count) {
+            boolean[] reached = new boolean[count];
+            for (int i = 0; i < number; i++) {
+                reached[positions.get(numbered[i])] = true;
+            }
+            for (int i = 0; i < count; i++) {
+                if (!reached[i]) {
+                    cyclic.add(types.get(i));
+                }
+            }
+        }
+
+        this.classes = Arrays.copyOf(numbered, number);
+        this.parent = Arrays.copyOf(parentNo, number);
+        this.depth = Arrays.copyOf(depthNo, number);
+        this.last = Arrays.copyOf(lastNo, number);
+        this.cyclicClasses = Collections.unmodifiableList(cyclic);
+
+        for (int i = 0; i < number; i++) {
+            classes[i].setInterval(i, last[i]);
+        }
+    }
+
+    /**
+     * returns the number of classes in the index.
+     */
+    public int size() {
+        return classes.length;
+    }
+
+    /**
+     * returns the class type with the given number.
+     */
+    public ClassType getClass(int number) {
+        return classes[number];
+    }
+
+    /**
+     * returns the number of the super class of the class with the given
+     * number, -1 if it has no super class.
+     */
+    public int getParent(int number) {
+        return parent[number];
+    }
+
+    /**
+     * returns the depth of the class with the given number, i.e. the number
+     * of its super classes.
+     */
+    public int getDepth(int number) {
+        return depth[number];
+    }
+
+    /**
+     * returns the number of the last subclass of the class with the given
+     * number. The subclasses are numbered from number + 1 to this number.
+     */
+    public int getLastSubclass(int number) {
+        return last[number];
+    }
+
+    /**
+     * checks if the class with the given number has no subclasses, i.e. a
+     * call of one of its methods cannot be overridden.
+     */
+    public boolean isLeaf(int number) {
+        return last[number] == number;
+    }
+
+    /**
+     * checks if the class with number sub is the class with number sup or
+     * one of its subclasses.
+     */
+    public boolean isSubclass(int sub, int sup) {
+        return sup <= sub && sub <= last[sup];
+    }
+
+    /**
+     * returns the classes whose chain of super classes is cyclic, in the
+     * order in which their types were created. These classes are not
+     * numbered.
+     */
+    public List<ClassType> getCyclicClasses() {
+        return cyclicClasses;
+    }
+}
@@ -4,7 +4,9 @@
 
 package visitor.symboltable;
 
-import java.util.*;
+import java.util.List;
+
+import syntaxtree.Symbols;
 
 /**
  * Objects of this class represent a symbol table of a Minijava class.
@@ -18,35 +20,63 @@ public class ClassTable extends SymbolTable {
      */
     private String classname;
     
+    /**
+     * type of the Minijava class
+     */
+    private ClassType type;
+    
     /**
      * name of the Minijava super class
      */
     private String superClassname;
     
     /**
-     * represents a mapping from the names of the global variables defined in 
-     * this class to their types.
+     * symbol of the name of the Minijava super class
+     */
+    private int superClassSymbol;
+    
+    /**
+     * represents a mapping from the symbols of the global variables defined 
+     * in this class to their types.
+     */
+    private SymbolMap<VariableType> globalVariables;
+    
+    /**
+     * represents a mapping from the symbols of the methods defined in this 
+     * class to their method tables (i.e. all identifiers defined in this 
+     * method)
+     */
+    private SymbolMap<MethodTable> methods;
+    
+    /**
+     * dispatch table: the methods of this class including the inherited 
+     * ones. The methods of the super class keep their positions, an
+     * overriding method takes the position of the overridden one. Null 
+     * until the tables are built (see buildMemberTables).
      */
-    private HashMap<String, VariableType> globalVariables;
+    private SymbolMap<MethodTable> dispatchTable;
     
     /**
-     * represents a mapping from the names of the methods defined in this class
-     * to their method tables (i.e. all identifiers defined in this method)
+     * field layout: the global variables of this class including the 
+     * inherited ones, those of the super classes first. Null until the 
+     * tables are built.
      */
-    private HashMap<String, MethodTable> methods;
+    private SymbolMap<VariableType> fieldLayout;
     
     /**
-     * creates a new instance for a given class name. Initially the created 
+     * creates a new instance for a given class type. Initially the created 
      * instance has no super class, no global variables and methods. 
      */
-    public ClassTable(ProgramTable parent, String classname) {
+    public ClassTable(ProgramTable parent, ClassType type) {
         
         super(parent);
         
-        this.classname = classname;
+        this.classname = type.getName();
+        this.type = type;
         this.superClassname = null;
-        this.globalVariables = new HashMap<String, VariableType>();
-        this.methods = new HashMap<String, MethodTable>();
+        this.superClassSymbol = Symbols.NO_SYMBOL;
+        this.globalVariables = new SymbolMap<VariableType>();
+        this.methods = new SymbolMap<MethodTable>();
     }
     
     /**
@@ -56,11 +86,20 @@ public class ClassTable extends SymbolTable {
         return this.classname;
     }
     
+    /**
+     * returns the type of the class
+     */
+    public ClassType getType() {
+        return this.type;
+    }
+    
     /**
      * sets the super class name 
      */
     public void setSuperClassname(String superClassname) {
         this.superClassname = superClassname;
+        this.superClassSymbol = this.getSymbols().intern(superClassname);
+        this.type.setSuperType(this.getClassType(this.superClassSymbol));
     }
     
     /**
@@ -73,17 +112,18 @@ public class ClassTable extends SymbolTable {
     /**
      * adds a new global variable (varname, type) 
      */
-    public void putVariable(String name, String type) {
-        globalVariables.put(name, new VariableType(name, type));
+    public void putVariable(String name, SemanticType type) {
+        globalVariables.put(this.getSymbols().intern(name), 
+                new VariableType(name, type, this));
     }
     
     /**
      * adds a new method (methodname, resulttype) 
      */
-    public MethodTable putMethod(String methodname, String resulttype) {
+    public MethodTable putMethod(String methodname, SemanticType resulttype) {
         
         MethodTable methodTable = new MethodTable(this, methodname, resulttype);
-        methods.put(methodname, methodTable);
+        methods.put(this.getSymbols().intern(methodname), methodTable);
         
         return methodTable;
     }
@@ -92,21 +132,136 @@ public class ClassTable extends SymbolTable {
      * returns the method table for method named methodname 
      */
     public MethodTable getMethod(String methodname) {
-        return methods.get(methodname);
+        return methods.get(this.getSymbols().lookup(methodname));
+    }
+    
+    /**
+     * returns the method table for the method given by its symbol 
+     */
+    public MethodTable getMethod(int methodSymbol) {
+        return methods.get(methodSymbol);
+    }
+    
+    /**
+     * returns the method table for the method given by its symbol. If the 
+     * method is not defined in this class, it is looked up in the super 
+     * classes. Returns null, if no class defines the method.
+     */
+    public MethodTable lookupMethod(int methodSymbol) {
+        
+        if (this.dispatchTable != null) {
+            return this.dispatchTable.get(methodSymbol);
+        }
+        for (ClassTable table = this; table != null; 
+                table = table.getSuperClass()) {
+            MethodTable method = table.methods.get(methodSymbol);
+            if (method != null) {
+                return method;
+            }
+        }
+        return null;
     }
     
     /**
      * returns the type of the global variable named varname 
      */
     public VariableType getVariable(String name) {
+        return this.getVariable(this.getSymbols().lookup(name));
+    }
+    
+    /**
+     * returns the type of the global variable given by its symbol. If the
+     * variable is not defined in this class, it is looked up in the super 
+     * class. Returns null, if no class defines the variable.
+     */
+    public VariableType getVariable(int symbol) {
+        
+        if (this.fieldLayout != null) {
+            return this.fieldLayout.get(symbol);
+        }
+        for (ClassTable table = this; table != null; 
+                table = table.getSuperClass()) {
+            VariableType type = table.globalVariables.get(symbol);
+            if (type != null) {
+                return type;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * builds the dispatch table and the field layout of this class from 
+     * those of the super class, which must have been built before. A super
+     * class that is not declared contributes no members.
+     */
+    void buildMemberTables() {
         
-        VariableType type = globalVariables.get(name);
+        ClassTable superClass = this.getSuperClass();
         
-        if (type != null) {
-            return type;
+        if (superClass != null && superClass.dispatchTable != null) {
+            this.dispatchTable = 
+                    new SymbolMap<MethodTable>(superClass.dispatchTable);
+            this.fieldLayout = 
+                    new SymbolMap<VariableType>(superClass.fieldLayout);
+        } else {
+            this.dispatchTable = new SymbolMap<MethodTable>();
+            this.fieldLayout = new SymbolMap<VariableType>();
         }
         
-        return this.parent.getClass(this.getSuperClassname()).getVariable(name);
+        for (int i = 0; i < this.methods.size(); i++) {
+            this.dispatchTable.put(this.methods.keyAt(i), 
+                    this.methods.valueAt(i));
+        }
+        for (int i = 0; i < this.globalVariables.size(); i++) {
+            this.fieldLayout.put(this.globalVariables.keyAt(i), 
+                    this.globalVariables.valueAt(i));
+        }
+    }
+    
+    /**
+     * makes the table and the tables of its methods unchangeable, see 
+     * ProgramTable.freeze().
+     */
+    void freeze() {
+        
+        this.globalVariables.freeze();
+        this.methods.freeze();
+        if (this.dispatchTable != null) {
+            this.dispatchTable.freeze();
+            this.fieldLayout.freeze();
+        }
+        for (int i = 0; i < this.methods.size(); i++) {
+            this.methods.valueAt(i).freeze();
+        }
+    }
+    
+    /**
+     * returns the methods of this class including the inherited ones in 
+     * the order of the dispatch table, null if it has not been built
+     */
+    public List<MethodTable> getDispatchTable() {
+        return (this.dispatchTable == null) 
+                ? null : this.dispatchTable.values();
+    }
+    
+    /**
+     * returns the global variables of this class including the inherited 
+     * ones, null if the field layout has not been built
+     */
+    public List<VariableType> getFieldLayout() {
+        return (this.fieldLayout == null) ? null : this.fieldLayout.values();
+    }
+    
+    /**
+     * returns the table of the super class, null if the class extends no 
+     * class or the super class is not declared
+     */
+    private ClassTable getSuperClass() {
+        
+        if (this.superClassSymbol == Symbols.NO_SYMBOL) {
+            return null;
+        }
+        return this.parent.getClass(this.superClassSymbol);
     }
 
     /**
@@ -120,14 +275,12 @@ public class ClassTable extends SymbolTable {
         }
         
         string += " - Global variables\n";
-        for (String varname : globalVariables.keySet()) {
-            VariableType type = globalVariables.get(varname);
+        for (VariableType type : globalVariables.values()) {
             string += "      " + type + "\n";
         }
         
         string += " - Methods\n";
-        for (String methodname : methods.keySet()) {
-            MethodTable methodtable = methods.get(methodname);
+        for (MethodTable methodtable : methods.values()) {
             string += "      " + methodtable.toString() + "\n";
         }
         
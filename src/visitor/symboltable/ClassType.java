@@ -0,0 +1,123 @@
+package visitor.symboltable;
+
+/**
+ * Objects of this class represent the type of a Minijava class. The program
+ * table holds one object per class name (see ProgramTable.getClassType), so
+ * a class type may be referred to before its class has been declared.
+ */
+public final class ClassType extends SemanticType {
+
+    /**
+     * symbol of the class name
+     */
+    private final int symbol;
+
+    /**
+     * table of the class, null as long as the class has not been declared
+     */
+    private ClassTable classTable;
+
+    /**
+     * type of the super class, null if the class extends no other class
+     */
+    private ClassType superType;
+
+    /**
+     * number of the class in the class hierarchy, -1 as long as the class
+     * is not numbered (see ClassHierarchy)
+     */
+    private int number = -1;
+
+    /**
+     * number of the last subclass in the class hierarchy
+     */
+    private int lastSubclass = -1;
+
+    ClassType(String name, int symbol) {
+        super(name, "L" + name + ";");
+        this.symbol = symbol;
+    }
+
+    /**
+     * returns the symbol of the class name.
+     */
+    public int getSymbol() {
+        return this.symbol;
+    }
+
+    /**
+     * returns the table of the class, null if the class is not declared.
+     */
+    public ClassTable getClassTable() {
+        return this.classTable;
+    }
+
+    void setClassTable(ClassTable classTable) {
+        this.classTable = classTable;
+    }
+
+    /**
+     * returns the type of the super class, null if there is none.
+     */
+    public ClassType getSuperType() {
+        return this.superType;
+    }
+
+    void setSuperType(ClassType superType) {
+        this.superType = superType;
+    }
+
+    /**
+     * returns the number of the class in the class hierarchy, -1 if it has
+     * not been numbered.
+     */
+    public int getNumber() {
+        return this.number;
+    }
+
+    void setInterval(int number, int lastSubclass) {
+        this.number = number;
+        this.lastSubclass = lastSubclass;
+    }
+
+    @Override
+    public String getInstructionPrefix() {
+        return "a";
+    }
+
+    /**
+     * checks if this class is the given class or one of its subclasses. Once
+     * the class hierarchy has been built, the numbers of the subclasses of
+     * a class form an interval, so no super classes have to be visited.
+     */
+    @Override
+    public boolean isSubtypeOf(SemanticType type) {
+
+        if (!(type instanceof ClassType)) {
+            return false;
+        }
+        ClassType other = (ClassType) type;
+        if (this.number >= 0 && other.number >= 0) {
+            return other.number <= this.number
+                    && this.number <= other.lastSubclass;
+        }
+
+        /* slow advances every second step, so a cycle of the inheritance
+         * relation is detected when t catches up with it */
+        ClassType slow = this;
+        int steps = 0;
+
+        for (ClassType t = this; t != null; t = t.superType) {
+            if (t == type) {
+                return true;
+            }
+            if ((++steps & 1) == 0) {
+                slow = slow.superType;
+                if (slow == t.superType) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -22,39 +22,50 @@ public class MethodTable extends SymbolTable {
     /**
      * list of all types of input parameters in the order of the source file
      */
-    private ArrayList<String> formalParameterTypes;
+    private ArrayList<SemanticType> formalParameterTypes;
     
     /**
      * result type of the Minijava method
      */
-    private String resultType;
+    private SemanticType resultType;
     
     /**
-     * represents a mapping from the names of the formal parameters defined in 
-     * this class to their types.
+     * JVM descriptor of the method, built when it is requested first
      */
-    private HashMap<String, VariableType> formalParameters;
+    private String descriptor;
     
     /**
-     * represents a mapping from the names of the local variables defined in 
+     * Jasmin name of the method for invocations, built when it is requested
+     * first
+     */
+    private String jasminName;
+    
+    /**
+     * represents a mapping from the symbols of the formal parameters defined 
+     * in this class to their types.
+     */
+    private SymbolMap<VariableType> formalParameters;
+    
+    /**
+     * represents a mapping from the symbols of the local variables defined in 
      * this class to their types.
      */
-    private HashMap<String, VariableType> localVariables;
+    private SymbolMap<VariableType> localVariables;
     
     /**
      * create a new instance for a given methodname and a result type of the 
      * Minijava methiod 
      */
-    public MethodTable(ClassTable parent, String name, String resultType) {
+    public MethodTable(ClassTable parent, String name, SemanticType resultType) {
         
         super(parent);
         
         this.name = name;
-        this.formalParameterTypes = new ArrayList<String>();
+        this.formalParameterTypes = new ArrayList<SemanticType>();
         this.resultType = resultType;
         
-        this.formalParameters = new HashMap<String, VariableType>();
-        this.localVariables = new HashMap<String, VariableType>();
+        this.formalParameters = new SymbolMap<VariableType>();
+        this.localVariables = new SymbolMap<VariableType>();
     }
     
     /**
@@ -68,7 +79,7 @@ public class MethodTable extends SymbolTable {
      * returns the types of the formal parameters in the order defined by the 
      * programmer.
      */
-    public ArrayList<String> getFormalParameterTypes() {
+    public ArrayList<SemanticType> getFormalParameterTypes() {
         
         return formalParameterTypes;
     }
@@ -76,24 +87,77 @@ public class MethodTable extends SymbolTable {
     /**
      * returns the result type of the method
      */
-    public String getResultType() {
+    public SemanticType getResultType() {
         return this.resultType;
     }
     
+    /**
+     * returns the JVM descriptor of the method, e.g. "(I[I)Z". The descriptor
+     * is built once, after all formal parameters have been added.
+     */
+    public String getDescriptor() {
+        
+        if (this.descriptor == null) {
+            StringBuilder builder = new StringBuilder("(");
+            for (SemanticType type : this.formalParameterTypes) {
+                builder.append(type.getDescriptor());
+            }
+            builder.append(')').append(this.resultType.getDescriptor());
+            this.descriptor = builder.toString();
+        }
+        return this.descriptor;
+    }
+    
+    /**
+     * returns the table of the class declaring the method
+     */
+    public ClassTable getClassTable() {
+        return (ClassTable) this.parent;
+    }
+    
+    /**
+     * returns the name of the method as used by invoke instructions, i.e.
+     * the declaring class, the name and the descriptor, e.g. Foo/bar(I)I.
+     */
+    public String getJasminName() {
+        
+        if (this.jasminName == null) {
+            this.jasminName = this.getClassTable().getName() + "/" 
+                    + this.name + this.getDescriptor();
+        }
+        return this.jasminName;
+    }
+    
+    /**
+     * makes the table unchangeable, see ProgramTable.freeze(). The names
+     * used by the code generation are built beforehand.
+     */
+    void freeze() {
+        formalParameters.freeze();
+        localVariables.freeze();
+        
+        /* the main method has no result type and is not invoked */
+        if (this.resultType != null) {
+            this.getJasminName();
+        }
+    }
+    
     /**
      * adds a new formal parameter (paramname, type)
      */
-    public void putFormalParameter(String name, String type, int offset) {
+    public void putFormalParameter(String name, SemanticType type, int offset) {
         
-        formalParameters.put(name, new VariableType(name, type, offset));
+        formalParameters.put(this.getSymbols().intern(name), 
+                new VariableType(name, type, offset));
         formalParameterTypes.add(type);
     }
     
     /**
      * adds a new local variable (varname, type)
      */
-    public void putVariable(String name, String type, int offset) {
-        localVariables.put(name, new VariableType(name, type, offset));
+    public void putVariable(String name, SemanticType type, int offset) {
+        localVariables.put(this.getSymbols().intern(name), 
+                new VariableType(name, type, offset));
     }
     
     /**
@@ -103,20 +167,28 @@ public class MethodTable extends SymbolTable {
      * variable nor a formal parameter.
      */
     public VariableType getVariable(String name) {
+        return this.getVariable(this.getSymbols().lookup(name));
+    }
+    
+    /**
+     * returns the type of the identifier given by its symbol, see 
+     * getVariable(String).
+     */
+    public VariableType getVariable(int symbol) {
         
         VariableType type;
         
-        type = localVariables.get(name);
+        type = localVariables.get(symbol);
         if (type != null) {
             return type;
         }
         
-        type = formalParameters.get(name);
+        type = formalParameters.get(symbol);
         if (type != null) {
             return type;
         }
         
-        return this.parent.getVariable(name);
+        return this.parent.getVariable(symbol);
     }
       
     /**
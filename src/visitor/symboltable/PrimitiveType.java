@@ -0,0 +1,43 @@
+package visitor.symboltable;
+
+/**
+ * Objects of this class represent the types predefined by Minijava: int,
+ * boolean, int[] and the result type void. The parameter of the main method
+ * has the type String[].
+ *
+ * Only the constants of this class exist.
+ */
+public final class PrimitiveType extends SemanticType {
+
+    public static final PrimitiveType INTEGER =
+            new PrimitiveType("IntegerType", "I", "i");
+
+    public static final PrimitiveType BOOLEAN =
+            new PrimitiveType("BooleanType", "Z", "i");
+
+    public static final PrimitiveType INT_ARRAY =
+            new PrimitiveType("IntArrayType", "[I", "a");
+
+    public static final PrimitiveType VOID =
+            new PrimitiveType("VoidType", "V", "");
+
+    public static final PrimitiveType STRING_ARRAY =
+            new PrimitiveType("java/lang/String[]", "[Ljava/lang/String;", "a");
+
+    /**
+     * prefix of Jasmin instructions
+     */
+    private final String instructionPrefix;
+
+    private PrimitiveType(String name, String descriptor,
+            String instructionPrefix) {
+
+        super(name, descriptor);
+        this.instructionPrefix = instructionPrefix;
+    }
+
+    @Override
+    public String getInstructionPrefix() {
+        return this.instructionPrefix;
+    }
+}
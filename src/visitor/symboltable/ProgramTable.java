@@ -5,47 +5,184 @@
 
 package visitor.symboltable;
 
-import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import syntaxtree.Symbols;
 
 /**
  * Objects of this class represent a symbol table of a Minijava program.
  *
+ * Once it has been filled, the table is frozen (see freeze()). The tables of
+ * the program, its classes and methods cannot be changed afterwards and may
+ * be read by several threads, e.g. to check classes in parallel.
+ *
  * TODO (UG): Implementation includes no error handling
  */
 public class ProgramTable extends SymbolTable {
     
     /**
-     * represents a mapping from class names to their class tables (i.e. all
-     * identifiers defined within this class)
+     * represents a mapping from the symbols of class names to their class 
+     * tables (i.e. all identifiers defined within this class)
+     */
+    private SymbolMap<ClassTable> classes;
+    
+    /**
+     * represents a mapping from the symbols of class names to their types
+     */
+    private SymbolMap<ClassType> classTypes;
+    
+    /**
+     * index of the inheritance relation, null until it has been built
+     */
+    private ClassHierarchy hierarchy;
+    
+    /**
+     * types of undeclared classes requested after the table has been 
+     * frozen, null as long as the table is not frozen
+     */
+    private ConcurrentHashMap<Integer, ClassType> lateClassTypes;
+    
+    /**
+     * identifiers of the program, to which the symbols of the tables refer
      */
-    private HashMap<String, ClassTable> classes;
+    private final Symbols symbols;
     
     /**
      * Create a new instance with an empty mapping from classes to claa tables
+     * for a program with the given identifiers
      */
-    public ProgramTable() {
+    public ProgramTable(Symbols symbols) {
         
         /* Create symbol table without surrounding environment (symbol table) */
         super(null);
-        classes = new HashMap<String, ClassTable>();
+        this.symbols = symbols;
+        classes = new SymbolMap<ClassTable>();
+        classTypes = new SymbolMap<ClassType>();
     }
     
     /**
      * adds a new class with an empty class table
      */
     public ClassTable putClass(String classname) {
-        ClassTable classTable = new ClassTable(this, classname);
-        classes.put(classname, classTable);
+        ClassType type = this.getClassType(classname);
+        ClassTable classTable = new ClassTable(this, type);
+        classes.put(type.getSymbol(), classTable);
+        type.setClassTable(classTable);
         
         return classTable;
     }
     
+    /**
+     * returns the identifiers of the program
+     */
+    @Override
+    public Symbols getSymbols() {
+        return this.symbols;
+    }
+    
     /**
      * returns the class table for a given class name, returns null if the 
      * mapping does not include classname
      */
     public ClassTable getClass(String classname) {
-        return classes.get(classname);
+        return classes.get(symbols.lookup(classname));
+    }
+    
+    /**
+     * returns the class table for a given symbol of a class name, returns 
+     * null if the mapping does not include the class
+     */
+    public ClassTable getClass(int classSymbol) {
+        return classes.get(classSymbol);
+    }
+    
+    /**
+     * returns the type of the class with the given name. The type is created
+     * when it is requested for the first time, so a class may be used as
+     * type before it is declared.
+     */
+    public ClassType getClassType(String classname) {
+        return this.getClassType(symbols.intern(classname));
+    }
+    
+    /**
+     * returns the type of the class given by the symbol of its name, see
+     * getClassType(String).
+     */
+    @Override
+    public ClassType getClassType(int classSymbol) {
+        
+        ClassType type = classTypes.get(classSymbol);
+        if (type != null) {
+            return type;
+        }
+        if (lateClassTypes == null) {
+            type = new ClassType(symbols.nameOf(classSymbol), classSymbol);
+            classTypes.put(classSymbol, type);
+            return type;
+        }
+        
+        /* all threads get the same type */
+        type = lateClassTypes.get(classSymbol);
+        if (type == null) {
+            type = new ClassType(symbols.nameOf(classSymbol), classSymbol);
+            ClassType other = lateClassTypes.putIfAbsent(classSymbol, type);
+            if (other != null) {
+                type = other;
+            }
+        }
+        return type;
+    }
+      
+    /**
+     * builds the index of the inheritance relation of all classes known so
+     * far and the dispatch tables and field layouts of the classes. It is 
+     * built after all classes have been entered.
+     */
+    public ClassHierarchy buildHierarchy() {
+        this.hierarchy = new ClassHierarchy(classTypes.values());
+        
+        /* a super class is numbered before its subclasses */
+        for (int i = 0; i < hierarchy.size(); i++) {
+            ClassTable classTable = hierarchy.getClass(i).getClassTable();
+            if (classTable != null) {
+                classTable.buildMemberTables();
+            }
+        }
+        return this.hierarchy;
+    }
+    
+    /**
+     * makes the tables of the program, its classes and methods 
+     * unchangeable. Types of undeclared classes may still be requested; 
+     * they are created on demand in a concurrent map.
+     */
+    public void freeze() {
+        
+        if (lateClassTypes != null) {
+            return;
+        }
+        classes.freeze();
+        classTypes.freeze();
+        for (int i = 0; i < classes.size(); i++) {
+            classes.valueAt(i).freeze();
+        }
+        lateClassTypes = new ConcurrentHashMap<Integer, ClassType>();
+    }
+    
+    /**
+     * checks if the table is frozen
+     */
+    public boolean isFrozen() {
+        return lateClassTypes != null;
+    }
+    
+    /**
+     * returns the index of the inheritance relation, null if it has not 
+     * been built yet
+     */
+    public ClassHierarchy getHierarchy() {
+        return this.hierarchy;
     }
       
     /**
@@ -54,9 +191,7 @@ public class ProgramTable extends SymbolTable {
     public String toString() {
         String string = "";
         
-        for (String classname : classes.keySet()) {
-            
-            ClassTable classTable = classes.get(classname);
+        for (ClassTable classTable : classes.values()) {
             string += classTable.toString();
         }
         
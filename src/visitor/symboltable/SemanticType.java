@@ -0,0 +1,60 @@
+package visitor.symboltable;
+
+/**
+ * Objects of this class represent the types of Minijava expressions and
+ * declarations as derived by the compiler.
+ *
+ * Types are canonical: there is exactly one object for each type (see
+ * PrimitiveType and ClassType), so two types are equal if and only if they
+ * are the same object.
+ */
+public abstract class SemanticType {
+
+    /**
+     * name of the type
+     */
+    private final String name;
+
+    /**
+     * JVM descriptor of the type
+     */
+    private final String descriptor;
+
+    SemanticType(String name, String descriptor) {
+        this.name = name;
+        this.descriptor = descriptor;
+    }
+
+    /**
+     * returns the name of the type, e.g. "IntegerType" or a class name.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * returns the JVM descriptor of the type, e.g. "I" or "LFoo;".
+     */
+    public String getDescriptor() {
+        return this.descriptor;
+    }
+
+    /**
+     * returns the prefix of Jasmin load, store and return instructions for
+     * values of this type, i.e. "i" for int and boolean, "a" for references.
+     */
+    public abstract String getInstructionPrefix();
+
+    /**
+     * checks if values of this type may be used where values of the given
+     * type are expected.
+     */
+    public boolean isSubtypeOf(SemanticType type) {
+        return this == type;
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
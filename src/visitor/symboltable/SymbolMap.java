@@ -0,0 +1,206 @@
+package visitor.symboltable;
+
+import java.util.*;
+
+/**
+ * Objects of this class represent a mapping from symbols (numbers of
+ * identifiers, see syntaxtree.Symbols) to values.
+ *
+ * Entries are stored in insertion order in two arrays. An open addressing
+ * hash index refers to the entries, so a lookup is a probe of an int array.
+ * Putting a symbol that is already mapped replaces its value.
+ *
+ * Mappings are not synchronized. Once a mapping is frozen it cannot be
+ * changed any more, so it may be read by several threads.
+ */
+public class SymbolMap<V> {
+
+    /**
+     * symbols of the entries in insertion order
+     */
+    private int[] keys;
+
+    /**
+     * values of the entries in insertion order
+     */
+    private Object[] values;
+
+    /**
+     * number of entries
+     */
+    private int size;
+
+    /**
+     * hash index: the position of an entry plus one, 0 for a free slot. The
+     * size of the index is a power of two and at least twice the number
+     * of entries.
+     */
+    private int[] index;
+
+    private boolean frozen;
+
+    /**
+     * creates an empty mapping.
+     */
+    public SymbolMap() {
+        keys = new int[4];
+        values = new Object[4];
+        index = new int[8];
+        size = 0;
+    }
+
+    /**
+     * creates a mapping with the entries of the given mapping, in the same
+     * order.
+     */
+    public SymbolMap(SymbolMap<V> other) {
+        keys = other.keys.clone();
+        values = other.values.clone();
+        index = other.index.clone();
+        size = other.size;
+    }
+
+    /**
+     * maps the given symbol to the given value.
+     */
+    public void put(int symbol, V value) {
+
+        if (frozen) {
+            throw new IllegalStateException("mapping is frozen");
+        }
+        int slot = findSlot(symbol);
+
+        if (index[slot] != 0) {
+            values[index[slot] - 1] = value;
+            return;
+        }
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, 2 * size);
+            values = Arrays.copyOf(values, 2 * size);
+        }
+        keys[size] = symbol;
+        values[size] = value;
+        size++;
+        index[slot] = size;
+
+        if (2 * size > index.length) {
+            rehash();
+        }
+    }
+
+    /**
+     * makes the mapping unchangeable.
+     */
+    public void freeze() {
+        frozen = true;
+    }
+
+    /**
+     * checks if the mapping is frozen.
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * returns the value of the given symbol, null if it is not mapped.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int symbol) {
+
+        if (symbol < 0) {
+            return null;
+        }
+
+        int mask = index.length - 1;
+        int slot = hash(symbol) & mask;
+
+        while (index[slot] != 0) {
+            int entry = index[slot] - 1;
+            if (keys[entry] == symbol) {
+                return (V) values[entry];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * checks if the given symbol is mapped.
+     */
+    public boolean containsKey(int symbol) {
+        return get(symbol) != null;
+    }
+
+    /**
+     * returns the number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * returns the symbol of the i-th entry in insertion order.
+     */
+    public int keyAt(int i) {
+        return keys[i];
+    }
+
+    /**
+     * returns the value of the i-th entry in insertion order.
+     */
+    @SuppressWarnings("unchecked")
+    public V valueAt(int i) {
+        return (V) values[i];
+    }
+
+    /**
+     * returns all values in insertion order.
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> values() {
+        return Collections.unmodifiableList(
+                (List<V>) Arrays.asList(values).subList(0, size));
+    }
+
+    /**
+     * returns the slot of the index for the given symbol: either the slot
+     * referring to its entry or the free slot where it is to be inserted.
+     */
+    private int findSlot(int symbol) {
+
+        int mask = index.length - 1;
+        int slot = hash(symbol) & mask;
+
+        while (index[slot] != 0 && keys[index[slot] - 1] != symbol) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * doubles the size of the index.
+     */
+    private void rehash() {
+
+        index = new int[2 * index.length];
+        int mask = index.length - 1;
+
+        for (int entry = 0; entry < size; entry++) {
+            int slot = hash(keys[entry]) & mask;
+            while (index[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = entry + 1;
+        }
+    }
+
+    /**
+     * spreads consecutive symbols over the index.
+     */
+    private static int hash(int symbol) {
+        int hash = symbol * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
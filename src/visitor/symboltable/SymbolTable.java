@@ -1,5 +1,7 @@
 package visitor.symboltable;
 
+import syntaxtree.Symbols;
+
 /**
  * Symbol table of a Minijava program.
  *
@@ -34,15 +36,50 @@ public abstract class SymbolTable {
         return null;
     };
     
+    /**
+     * @return the symbol table entry for the variable given by its symbol
+     */
+    public VariableType getVariable(int symbol) {
+        return null;
+    };
+    
     /**
      * @return the symbol table entry for the given class and method
      */
     public ClassTable getClass(String classname) {
+        return this.getProgramTable().getClass(classname);
+    }
+    
+    /**
+     * @return the symbol table entry for the class given by its symbol
+     */
+    public ClassTable getClass(int classSymbol) {
+        return this.getProgramTable().getClass(classSymbol);
+    }
+    
+    /**
+     * @return the type of the class given by its symbol
+     */
+    public ClassType getClassType(int classSymbol) {
+        return this.getProgramTable().getClassType(classSymbol);
+    }
+    
+    /**
+     * @return the identifiers of the program, see Symbols
+     */
+    public Symbols getSymbols() {
+        return this.getProgramTable().getSymbols();
+    }
+    
+    /**
+     * @return the outermost symbol table, i.e. the table of the program
+     */
+    protected ProgramTable getProgramTable() {
         
         SymbolTable table = this;
         while (table.parent != null) {
             table = table.parent;
         }
-        return ((ProgramTable) table).getClass(classname);
+        return (ProgramTable) table;
     }
 }
\ No newline at end of file
@@ -20,31 +20,54 @@ public class VariableType {
     private static final int OFFSET_GLOBALS = -1;
     
     private String name;
-    private String type;
+    private SemanticType type;
     private int offset; 
     
+    /**
+     * class declaring the variable, null for local variables
+     */
+    private ClassTable owner;
+    
+    /**
+     * JVM name of a global variable of a known class, null otherwise
+     */
+    private final String fieldName;
+    
     /** 
      * Creates a new instance of Type (global variable)
      */
-    public VariableType(String name, String type) {
+    public VariableType(String name, SemanticType type) {
+        this.name = name;
+        this.type = type;
+        this.offset = OFFSET_GLOBALS;
+        this.fieldName = null;
+    }
+    
+    /** 
+     * Creates a new instance of Type (global variable of the given class)
+     */
+    public VariableType(String name, SemanticType type, ClassTable owner) {
         this.name = name;
         this.type = type;
         this.offset = OFFSET_GLOBALS;
+        this.owner = owner;
+        this.fieldName = owner.getName() + "/" + name;
     }
     
     /** 
      * Creates a new instance of Type (local variables)
      */
-    public VariableType(String name, String type, int offset) {
+    public VariableType(String name, SemanticType type, int offset) {
         this.name = name;
         this.type = type;
         this.offset = offset;
+        this.fieldName = null;
     }
         
     /** 
-     * Returns the storage needed by this type (in amount of bytes) 
+     * Returns the type of the variable
      */
-    public String getType() {
+    public SemanticType getType() {
         return this.type;
     }
     
@@ -62,6 +85,22 @@ public class VariableType {
         return (this.offset == OFFSET_GLOBALS);
     }
     
+    /** 
+     * Returns the class declaring the global variable, null for local 
+     * variables and global variables without a known owner
+     */
+    public ClassTable getOwner() {
+        return this.owner;
+    }
+    
+    /** 
+     * Returns the JVM name of the global variable, e.g. Foo/bar, null for
+     * local variables and global variables without a known owner
+     */
+    public String getFieldName() {
+        return this.fieldName;
+    }
+    
     public String toString() {
         return this.name + ":" + this.type + " (" + this.offset + ")";
     }
@@ -0,0 +1,358 @@
+package parser;
+
+import java.io.*;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.*;
+
+import syntaxtree.Program;
+import visitor.PrettyPrintVisitor;
+import visitor.TreePrintVisitor;
+
+/**
+ * Compiles generated Minijava programs whose statements and expressions are
+ * nested deeply, e.g. {{{...}}} or ((...)), in all modes and prints them
+ * with the PrettyPrintVisitor and the TreePrintVisitor. The parser and the
+ * passes keep the open nodes on stacks in the heap (see Statement() and
+ * Expression() of MiniJavaParser and TreeWalker), so they must not overflow
+ * the call stack, which is kept small for the test. The programs printed
+ * are nested less deeply and at most as deeply as those of the default
+ * depth, as the indentation of their lines grows with the depth.
+ *
+ * The programs nesting operations and calls are assembled into a JAR and
+ * run, so the virtual machine verifies the operand stack declared for their
+ * methods. Programs whose operand stack grows with the depth must be
+ * rejected once it exceeds the limit of the virtual machine.
+ *
+ * Usage: DeepNestingTest scratch-directory [depth]
+ */
+public class DeepNestingTest {
+
+    /**
+     * default depth of the nesting
+     */
+    private static final int DEPTH = 10000;
+
+    /**
+     * ratio of the depth of the compiled programs to the depth of the
+     * printed ones, the latter limited by DEPTH
+     */
+    private static final int PRINT_RATIO = 5;
+
+    /**
+     * size of the call stack of the compilations, far too small for a
+     * recursive descent of the nesting
+     */
+    private static final long STACK_SIZE = 256 * 1024;
+
+    /**
+     * maximal size of the operand stack of a method allowed by the virtual
+     * machine
+     */
+    private static final int MAX_OPERAND_STACK = 65535;
+
+    /**
+     * programs whose operand stack grows with the depth, by one entry per
+     * level
+     */
+    private static final Set<String> GROWING_STACK = new HashSet<String>(
+            Arrays.asList("Operations", "Calls", "Lookups"));
+
+    /**
+     * programs which are run, each printing the depth plus one
+     */
+    private static final Set<String> RUN = new HashSet<String>(
+            Arrays.asList("Operations", "Calls"));
+
+    /**
+     * options of the modes in which the programs are compiled
+     */
+    private static final String[][] MODES = {
+        {}, {"-fast"}, {"-fused"}, {"-lazy"}, {"-parallel"}, {"-arena"},
+        {"-arena", "-fused"}, {"-stream"}
+    };
+
+    public static void main(String[] args) throws IOException {
+
+        File scratch = new File(args[0]);
+        int depth = (args.length > 1) ? Integer.parseInt(args[1]) : DEPTH;
+        File target = new File(scratch, "jasmin");
+        target.mkdirs();
+
+        Map<String, String> programs = programs(depth);
+        int failures = 0;
+        for (Map.Entry<String, String> program : programs.entrySet()) {
+            String name = program.getKey();
+            File source = new File(scratch, name + ".mjava");
+            write(source, program.getValue());
+
+            /* the operand stack holds one entry per level and one more */
+            String expectedError = (GROWING_STACK.contains(name)
+                    && depth + 1 > MAX_OPERAND_STACK) ? "operand stack" : null;
+            for (String[] options : MODES) {
+                List<String> compileArgs =
+                        new ArrayList<String>(Arrays.asList(options));
+                compileArgs.add(source.getPath());
+                compileArgs.add(target.getPath());
+                if (!compile(compileArgs, expectedError)) {
+                    failures++;
+                }
+            }
+
+            if (RUN.contains(name) && expectedError == null) {
+                File jar = new File(scratch, name + ".jar");
+                if (!compile(Arrays.asList("-jar", source.getPath(),
+                        jar.getPath()), null)
+                        || !run(name, jar, String.valueOf(depth + 1))) {
+                    failures++;
+                }
+            }
+        }
+        for (Map.Entry<String, String> program
+                : programs(Math.min(depth, DEPTH) / PRINT_RATIO).entrySet()) {
+            if (!print(program.getKey(), program.getValue())) {
+                failures++;
+            }
+        }
+
+        System.out.println(programs.size() + " programs of depth " + depth
+                + ", " + failures + " failures");
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * returns the programs to be compiled by their names. Each nests one
+     * kind of statement or expression the given number of times.
+     */
+    private static Map<String, String> programs(int depth) {
+
+        Map<String, String> programs = new LinkedHashMap<String, String>();
+        programs.put("Blocks", program(
+                repeat("{", depth) + "System.out.println(1);"
+                        + repeat("}", depth),
+                repeat("{", depth) + "x = 1;" + repeat("}", depth), "x"));
+        programs.put("Thens", program("{ }",
+                repeat("if (true) ", depth) + "x = 1;"
+                        + repeat(" else x = 0;", depth), "x"));
+        programs.put("Elses", program("{ }",
+                repeat("if (true) x = 1; else ", depth) + "x = 0;", "x"));
+        programs.put("Whiles", program("{ }",
+                repeat("while (false) ", depth) + "x = 1;", "x"));
+        programs.put("Statements", program("{ }",
+                repeat("{ if (true) while (false) ", depth / 3) + "x = 1;"
+                        + repeat(" else x = 0; }", depth / 3), "x"));
+        programs.put("Brackets", program("{ }", "x = 1;",
+                repeat("(", depth) + "x" + repeat(")", depth)));
+        programs.put("Nots", program("{ }",
+                "b = " + repeat("!", depth) + "true;", "x"));
+        programs.put("Operations", program(
+                "System.out.println(new Nested().f(0));", "x = 1;",
+                repeat("x + (", depth) + "x" + repeat(")", depth)));
+        programs.put("Calls", program(
+                "System.out.println(new Nested().f(0));", "x = 1;",
+                repeat("this.g(", depth) + "x" + repeat(")", depth)));
+        programs.put("Lookups", program("{ }", "x = 1;",
+                repeat("array[(", depth) + "0" + repeat(")]", depth)));
+        return programs;
+    }
+
+    /**
+     * returns a program with the given statement in its main method and the
+     * given statement and return expression in the method f of another
+     * class, whose method g returns its argument plus one.
+     */
+    private static String program(String mainStatement, String statement,
+            String returnExp) {
+
+        return "class Deep {\n"
+                + "    public static void main(String[] a) {\n"
+                + "        " + mainStatement + "\n"
+                + "    }\n"
+                + "}\n"
+                + "class Nested {\n"
+                + "    public int f(int n) {\n"
+                + "        int x;\n"
+                + "        int[] array;\n"
+                + "        boolean b;\n"
+                + "        array = new int[1];\n"
+                + "        " + statement + "\n"
+                + "        return " + returnExp + ";\n"
+                + "    }\n"
+                + "    public int g(int n) {\n"
+                + "        return n + 1;\n"
+                + "    }\n"
+                + "}\n";
+    }
+
+    /**
+     * compiles a program by MiniJavaParser.main with the given arguments.
+     *
+     * @param expectedError part of the error message expected, null if the
+     *        program must be compiled without errors
+     * @return true if the program has been compiled as expected
+     */
+    private static boolean compile(final List<String> args,
+            String expectedError) {
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(output, true));
+        Throwable thrown;
+        try {
+            thrown = runWithSmallStack(new Task() {
+                public void call() {
+                    MiniJavaParser.main(args.toArray(new String[args.size()]));
+                }
+            });
+        } finally {
+            System.setOut(out);
+        }
+
+        String messages = output.toString();
+        boolean expected = (expectedError == null)
+                ? !messages.contains("Error")
+                : messages.contains(expectedError);
+        if (thrown != null || !expected) {
+            System.out.println("FAILED " + args + ":\n" + messages
+                    + ((thrown != null) ? thrown.toString() : ""));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * runs the main class Deep of the given JAR, which loads and verifies
+     * its classes, in this virtual machine.
+     *
+     * @return true if the program has printed the expected line
+     */
+    private static boolean run(String name, File jar, String expected) {
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(output, true));
+        Throwable thrown = null;
+        try {
+            URLClassLoader loader = new URLClassLoader(
+                    new URL[] {jar.toURI().toURL()}, null);
+            try {
+                Class.forName("Deep", true, loader)
+                        .getMethod("main", String[].class)
+                        .invoke(null, (Object) new String[0]);
+            } finally {
+                loader.close();
+            }
+        } catch (InvocationTargetException e) {
+            thrown = e.getCause();
+        } catch (Throwable t) {
+            thrown = t;
+        } finally {
+            System.setOut(out);
+        }
+
+        String printed = output.toString().trim();
+        if (thrown != null || !printed.equals(expected)) {
+            System.out.println("FAILED running " + name + ": " + printed
+                    + ((thrown != null) ? thrown.toString() : ""));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * parses the given program and prints it with both printers, the
+     * output being dropped.
+     *
+     * @return true if the program has been printed
+     */
+    private static boolean print(String name, final String source) {
+
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }));
+        Throwable thrown;
+        try {
+            thrown = runWithSmallStack(new Task() {
+                public void call() throws Exception {
+                    Program program = new MiniJavaParser(
+                            new ByteArrayInputStream(
+                                    source.getBytes("ISO-8859-1"))).Program();
+                    new PrettyPrintVisitor().walk(program, null);
+                    new TreePrintVisitor().walk(program, null);
+                }
+            });
+        } finally {
+            System.setOut(out);
+        }
+
+        if (thrown != null) {
+            System.out.println("FAILED printing " + name + ": " + thrown);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * task run by runWithSmallStack
+     */
+    private interface Task {
+        void call() throws Exception;
+    }
+
+    /**
+     * runs the given task on a thread with a small call stack.
+     *
+     * @return exception or error that ended the task, null if none
+     */
+    private static Throwable runWithSmallStack(final Task task) {
+
+        final Throwable[] thrown = new Throwable[1];
+        Thread thread = new Thread(null, new Runnable() {
+            public void run() {
+                try {
+                    task.call();
+                } catch (Throwable t) {
+                    thrown[0] = t;
+                }
+            }
+        }, "deep-nesting", STACK_SIZE);
+        thread.start();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return e;
+        }
+        return thrown[0];
+    }
+
+    private static String repeat(String text, int count) {
+
+        StringBuilder repeated = new StringBuilder(text.length() * count);
+        for (int i = 0; i < count; i++) {
+            repeated.append(text);
+        }
+        return repeated.toString();
+    }
+
+    private static void write(File file, String text) throws IOException {
+
+        Writer out = new OutputStreamWriter(new FileOutputStream(file),
+                "ISO-8859-1");
+        try {
+            out.write(text);
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package parser;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.zip.ZipFile;
+
+/**
+ * Compiles a Minijava program by MiniJavaParser.main in all modes into a
+ * target that cannot be written, a directory below a regular file, and
+ * checks that each mode reports a file error rather than ending silently.
+ *
+ * A generated program with a method too large for the JVM is compiled into
+ * a JAR: its class cannot be assembled, which must be reported as file
+ * error, too, and the JAR of the classes preceding it must be complete.
+ *
+ * Usage: FileErrorTest source-file scratch-directory
+ */
+public class FileErrorTest {
+
+    /**
+     * options of the modes checked
+     */
+    private static final String[][] MODES = {
+        {}, {"-fast"}, {"-fused"}, {"-lazy"}, {"-parallel"},
+        {"-parallel", "-fused"}, {"-arena"}, {"-stream"}, {"-jar"},
+        {"-stream", "-jar"}
+    };
+
+    /**
+     * options of the modes writing a JAR
+     */
+    private static final String[][] JAR_MODES = {
+        {"-jar"}, {"-stream", "-jar"}
+    };
+
+    /**
+     * number of statements of the method too large for the JVM
+     */
+    private static final int STATEMENTS = 20000;
+
+    public static void main(String[] args) throws IOException {
+
+        String source = args[0];
+        File scratch = new File(args[1]);
+        scratch.mkdirs();
+        File blocker = new File(scratch, "file");
+        new FileOutputStream(blocker).close();
+        String target = new File(blocker, "target").getPath();
+
+        int failures = 0;
+        for (String[] options : MODES) {
+            if (!compile(options, source, target)) {
+                failures++;
+            }
+        }
+
+        File tooLarge = new File(scratch, "TooLarge.mjava");
+        writeTooLarge(tooLarge);
+        File jar = new File(scratch, "TooLarge.jar");
+        for (String[] options : JAR_MODES) {
+            jar.delete();
+            if (!compile(options, tooLarge.getPath(), jar.getPath())) {
+                failures++;
+            } else if (!isComplete(jar)) {
+                System.out.println("FAILED " + Arrays.toString(options)
+                        + ": " + jar + " is not complete");
+                failures++;
+            }
+        }
+
+        System.out.println((MODES.length + JAR_MODES.length) + " modes, "
+                + failures + " failures");
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * compiles the given source into the given target by MiniJavaParser.main
+     * with the given options.
+     *
+     * @return true if a file error has been reported
+     */
+    private static boolean compile(String[] options, String source,
+            String target) {
+
+        String[] compileArgs = new String[options.length + 2];
+        System.arraycopy(options, 0, compileArgs, 0, options.length);
+        compileArgs[options.length] = source;
+        compileArgs[options.length + 1] = target;
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(output, true));
+        Throwable thrown = null;
+        try {
+            MiniJavaParser.main(compileArgs);
+        } catch (Throwable t) {
+            thrown = t;
+        } finally {
+            System.setOut(out);
+        }
+
+        String messages = output.toString();
+        if (thrown != null || !messages.contains("File Error")) {
+            System.out.println("FAILED " + Arrays.toString(compileArgs)
+                    + ":\n" + messages
+                    + ((thrown != null) ? thrown.toString() : ""));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * returns true if the given JAR file can be opened, i.e. it has been
+     * completed by its central directory.
+     */
+    private static boolean isComplete(File jar) {
+
+        try {
+            new ZipFile(jar).close();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * writes a program whose last class has a method too large for the JVM.
+     */
+    private static void writeTooLarge(File file) throws IOException {
+
+        Writer out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), "ISO-8859-1"));
+        try {
+            out.write("class TooLarge {\n"
+                    + "    public static void main(String[] a) {\n"
+                    + "        System.out.println(new Small().f());\n"
+                    + "    }\n"
+                    + "}\n"
+                    + "class Small {\n"
+                    + "    public int f() {\n"
+                    + "        return 1;\n"
+                    + "    }\n"
+                    + "}\n"
+                    + "class Large {\n"
+                    + "    public int g() {\n"
+                    + "        int x;\n"
+                    + "        x = 0;\n");
+            for (int i = 0; i < STATEMENTS; i++) {
+                out.write("        x = x + 1;\n");
+            }
+            out.write("        return x;\n"
+                    + "    }\n"
+                    + "}\n");
+        } finally {
+            out.close();
+        }
+    }
+}
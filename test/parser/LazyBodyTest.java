@@ -0,0 +1,124 @@
+package parser;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Compiles each Minijava program of a directory eagerly and with method
+ * bodies parsed on demand (-lazy, -parallel -lazy) and checks that all
+ * modes accept the program and generate the same Jasmin files.
+ *
+ * The programs include NestedBlock.mjava, whose method bodies start with a
+ * block: the skipping of such a body used to run past the closing brace of
+ * the method.
+ *
+ * Usage: LazyBodyTest directory-of-programs scratch-directory
+ */
+public class LazyBodyTest {
+
+    /**
+     * options of the modes compared with the eager mode
+     */
+    private static final String[][] LAZY_MODES = {
+        {"-lazy"}, {"-parallel", "-lazy"}, {"-lazy", "-fused"}
+    };
+
+    public static void main(String[] args) throws IOException {
+
+        File programs = new File(args[0]);
+        File scratch = new File(args[1]);
+        File[] sources = programs.listFiles(new FilenameFilter() {
+            public boolean accept(File dir, String name) {
+                return name.endsWith(".mjava");
+            }
+        });
+        Arrays.sort(sources);
+
+        int failures = 0;
+        for (File source : sources) {
+            File eager = new File(scratch, "eager");
+            Map<String, String> expected = compile(source, eager);
+            if (expected == null) {
+                failures++;
+                continue;
+            }
+            for (String[] options : LAZY_MODES) {
+                File lazy = new File(scratch, "lazy");
+                Map<String, String> actual = compile(source, lazy, options);
+                if (actual == null) {
+                    failures++;
+                } else if (!actual.equals(expected)) {
+                    System.out.println("FAILED " + source.getName() + " "
+                            + Arrays.toString(options)
+                            + ": Jasmin files differ from the eager mode");
+                    failures++;
+                }
+            }
+        }
+
+        System.out.println(sources.length + " programs, " + failures
+                + " failures");
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * compiles the given program with the given options into the given
+     * directory, which is emptied first.
+     *
+     * @return contents of the Jasmin files by their names, null if the
+     *         compiler reported an error
+     */
+    private static Map<String, String> compile(File source, File target,
+            String... options) throws IOException {
+
+        target.mkdirs();
+        for (File file : target.listFiles()) {
+            file.delete();
+        }
+
+        List<String> args = new ArrayList<String>(Arrays.asList(options));
+        args.add(source.getPath());
+        args.add(target.getPath());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(output, true));
+        try {
+            MiniJavaParser.main(args.toArray(new String[args.size()]));
+        } finally {
+            System.setOut(out);
+        }
+
+        String messages = output.toString();
+        if (messages.contains("Error")) {
+            System.out.println("FAILED " + source.getName() + " " + args
+                    + ":\n" + messages);
+            return null;
+        }
+
+        Map<String, String> files = new TreeMap<String, String>();
+        for (File file : target.listFiles()) {
+            files.put(file.getName(), read(file));
+        }
+        return files;
+    }
+
+    private static String read(File file) throws IOException {
+
+        Reader in = new InputStreamReader(new FileInputStream(file),
+                "ISO-8859-1");
+        try {
+            StringBuilder text = new StringBuilder();
+            char[] buffer = new char[8192];
+            int count;
+            while ((count = in.read(buffer)) > 0) {
+                text.append(buffer, 0, count);
+            }
+            return text.toString();
+        } finally {
+            in.close();
+        }
+    }
+}
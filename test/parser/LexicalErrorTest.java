@@ -0,0 +1,94 @@
+package parser;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+
+/**
+ * Scans sources ending in comments and characters that start no token by
+ * the generated token manager and by the FastTokenManager and checks that
+ * both return the same tokens and end with the same lexical error, if any.
+ *
+ * Usage: LexicalErrorTest
+ */
+public class LexicalErrorTest {
+
+    private static final String PROGRAM = "class A { public static void"
+            + " main(String[] a) { System.out.println(1 && 2); } }";
+
+    /**
+     * sources scanned, mostly the program followed by an incomplete token
+     */
+    private static final String[] SOURCES = {
+        PROGRAM + "\n",
+        PROGRAM + "\n// comment\n",
+        PROGRAM + "\r\n// comment\r",
+        PROGRAM + "\n// comment",
+        PROGRAM + "//",
+        PROGRAM + "\n\t// comment\t",
+        PROGRAM + "\n// a\n\n  // b",
+        "// comment",
+        PROGRAM + "\n/* comment",
+        PROGRAM + "\n/* comment\n",
+        PROGRAM + "\r\n/* comment\r",
+        PROGRAM + "\n/* comment\r\n",
+        PROGRAM + "\n/",
+        PROGRAM + "\n/\n",
+        PROGRAM + "\n/x",
+        PROGRAM + " / ",
+        "/x " + PROGRAM,
+        PROGRAM + "\n&",
+        "&x " + PROGRAM,
+        "# " + PROGRAM,
+        PROGRAM + " #"
+    };
+
+    public static void main(String[] args) throws IOException {
+
+        int failures = 0;
+        for (String source : SOURCES) {
+            byte[] bytes = source.getBytes("ISO-8859-1");
+            String expected = scan(new MiniJavaParserTokenManager(
+                    new JavaCharStream(new ByteArrayInputStream(bytes))));
+            String actual = scan(new FastTokenManager(
+                    new MappedCharStream(ByteBuffer.wrap(bytes))));
+            if (!actual.equals(expected)) {
+                System.out.println("FAILED " + quote(source) + ":\n"
+                        + "generated: " + expected + "\n"
+                        + "fast:      " + actual);
+                failures++;
+            }
+        }
+
+        System.out.println(SOURCES.length + " sources, " + failures
+                + " failures");
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * returns the kinds, positions and images of the tokens returned by the
+     * given token manager up to EOF, and the message of the lexical error
+     * ending the source, if any.
+     */
+    private static String scan(MiniJavaParserTokenManager tokenManager) {
+
+        StringBuilder tokens = new StringBuilder();
+        try {
+            Token token;
+            do {
+                token = tokenManager.getNextToken();
+                tokens.append(token.kind).append('@').append(token.beginLine)
+                        .append(':').append(token.beginColumn).append('=')
+                        .append(token.image).append(' ');
+            } while (token.kind != MiniJavaParserConstants.EOF);
+        } catch (TokenMgrError e) {
+            tokens.append(e.getMessage());
+        }
+        return tokens.toString();
+    }
+
+    private static String quote(String source) {
+        return "\"" + TokenMgrError.addEscapes(source) + "\"";
+    }
+}
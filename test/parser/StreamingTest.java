@@ -0,0 +1,157 @@
+package parser;
+
+import java.io.*;
+
+/**
+ * Generates a Minijava program of the given size, by default several
+ * gigabytes, and compiles it by MiniJavaParser.main with the option -stream.
+ * The test is meant to be run with a heap far smaller than the program
+ * (see the target test-stream of build.xml): it fails if the compilation
+ * runs out of memory, reports an error or does not write the Jasmin files
+ * of all classes.
+ *
+ * The program is written while it is generated, so the test itself needs
+ * little memory. It consists of classes of the same size, each referring to
+ * the next one, so the declarations collected grow with the number of
+ * classes, and the classes compiled one at a time with the size of a class.
+ *
+ * Usage: StreamingTest scratch-directory [size in megabytes]
+ */
+public class StreamingTest {
+
+    /**
+     * default size of the program in megabytes
+     */
+    private static final long SIZE = 2048;
+
+    /**
+     * number of methods of a class and statements of a method
+     */
+    private static final int METHODS = 4;
+    private static final int STATEMENTS = 1200;
+
+    public static void main(String[] args) throws IOException {
+
+        File scratch = new File(args[0]);
+        long size = ((args.length > 1) ? Long.parseLong(args[1]) : SIZE)
+                * 1024 * 1024;
+        File target = new File(scratch, "jasmin");
+        target.mkdirs();
+
+        File source = new File(scratch, "Streamed.mjava");
+        int classes = write(source, size);
+        System.out.println("generated " + source.length() + " bytes, "
+                + classes + " classes");
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(output, true));
+        Throwable thrown = null;
+        try {
+            MiniJavaParser.main(new String[] {
+                "-stream", source.getPath(), target.getPath()
+            });
+        } catch (Throwable t) {
+            thrown = t;
+        } finally {
+            System.setOut(out);
+        }
+
+        String messages = output.toString();
+        String[] files = target.list();
+        int written = (files != null) ? files.length : 0;
+        if (thrown != null || messages.contains("Error")
+                || written != classes + 1) {
+            System.out.println("FAILED: " + written + " of " + (classes + 1)
+                    + " Jasmin files written\n" + messages
+                    + ((thrown != null) ? thrown.toString() : ""));
+            System.exit(1);
+        }
+        System.out.println(source.length() + " bytes compiled, "
+                + written + " Jasmin files written");
+    }
+
+    /**
+     * writes a program of at least the given size to the given file.
+     *
+     * @return number of classes besides the main class
+     */
+    private static int write(File file, long size) throws IOException {
+
+        Writer out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), "ISO-8859-1"), 65536);
+        try {
+            out.write("class Streamed {\n"
+                    + "    public static void main(String[] a) {\n"
+                    + "        System.out.println(new Part0().next());\n"
+                    + "    }\n"
+                    + "}\n");
+            long written = 0;
+            int classes = 0;
+            while (written < size) {
+                String part = part(classes);
+                out.write(part);
+                written += part.length();
+                classes++;
+            }
+            /* the last class refers to the first one */
+            out.write("class Part" + classes + " extends Part0 {\n}\n");
+            return classes + 1;
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * returns the n-th class of the program, which refers to the next one.
+     */
+    private static String part(int n) {
+
+        StringBuilder part = new StringBuilder(METHODS * STATEMENTS * 48);
+        part.append("class Part").append(n).append(" {\n");
+        part.append("    int[] values;\n");
+        part.append("    int count;\n\n");
+        part.append("    public int next() {\n");
+        part.append("        Part").append(n + 1).append(" part;\n");
+        part.append("        part = new Part").append(n + 1).append("();\n");
+        part.append("        return part.step0(count);\n");
+        part.append("    }\n");
+        for (int m = 0; m < METHODS; m++) {
+            part.append("\n    public int step").append(m)
+                    .append("(int increment) {\n");
+            part.append("        int accumulator;\n");
+            part.append("        int limit;\n");
+            part.append("        int position;\n");
+            part.append("        accumulator = 0;\n");
+            part.append("        limit = ").append(n % 1000).append(";\n");
+            part.append("        position = 0;\n");
+            part.append("        values = new int[16];\n");
+            for (int i = 0; i < STATEMENTS; i++) {
+                part.append("        ").append(statement(i)).append('\n');
+            }
+            part.append("        count = accumulator;\n");
+            part.append("        return accumulator;\n");
+            part.append("    }\n");
+        }
+        part.append("}\n");
+        return part.toString();
+    }
+
+    /**
+     * returns the i-th statement of a method.
+     */
+    private static String statement(int i) {
+
+        switch (i % 4) {
+            case 0:
+                return "accumulator = accumulator + increment;";
+            case 1:
+                return "if (accumulator < limit) increment = increment * 2;"
+                        + " else increment = 1;";
+            case 2:
+                return "values[position] = accumulator;";
+            default:
+                return "while (limit < position) position = position - 1;";
+        }
+    }
+}